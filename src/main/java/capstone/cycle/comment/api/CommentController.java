@@ -2,16 +2,16 @@ package capstone.cycle.comment.api;
 
 import capstone.cycle.comment.dto.CommentCreateDTO;
 import capstone.cycle.comment.dto.CommentResponseDTO;
+import capstone.cycle.comment.dto.CommentSliceDTO;
 import capstone.cycle.comment.service.CommentService;
 import capstone.cycle.common.security.dto.UserDetailsImpl;
+import capstone.cycle.like.dto.LikeResponseDTO;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/p/v1/posts/{postId}/comments")
 @RequiredArgsConstructor
@@ -33,14 +33,29 @@ public class CommentController {
 
     @SecurityRequirement(name = "Bearer Authentication")
     @GetMapping
-    public ResponseEntity<List<CommentResponseDTO>> getComments(
+    public ResponseEntity<CommentSliceDTO> getComments(
             @PathVariable Long postId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size,
             @AuthenticationPrincipal UserDetailsImpl userDetails
     ) {
-        List<CommentResponseDTO> comments = commentService.getCommentsByPostId(postId, userDetails.getUser().getId());
+        CommentSliceDTO comments = commentService.getCommentsByPostId(postId, cursor, size, userDetails.getUser().getId());
         return ResponseEntity.ok(comments);
     }
 
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/{commentId}/replies")
+    public ResponseEntity<CommentSliceDTO> getReplies(
+            @PathVariable Long postId,
+            @PathVariable Long commentId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        CommentSliceDTO replies = commentService.getReplies(postId, commentId, cursor, size, userDetails.getUser().getId());
+        return ResponseEntity.ok(replies);
+    }
+
     @SecurityRequirement(name = "Bearer Authentication")
     @PutMapping("/{commentId}")
     public ResponseEntity<CommentResponseDTO> updateComment(
@@ -64,12 +79,12 @@ public class CommentController {
 
     @SecurityRequirement(name = "Bearer Authentication")
     @PostMapping("/{commentId}/like")
-    public ResponseEntity<CommentResponseDTO> toggleLike(
+    public ResponseEntity<LikeResponseDTO> toggleLike(
             @PathVariable Long postId,
             @PathVariable Long commentId,
             @AuthenticationPrincipal UserDetailsImpl userDetails
     ) {
-        CommentResponseDTO updatedComment = commentService.toggleLike(postId, commentId, userDetails.getUser().getId());
-        return ResponseEntity.ok(updatedComment);
+        LikeResponseDTO likeResponse = commentService.toggleLike(postId, commentId, userDetails.getUser().getId());
+        return ResponseEntity.ok(likeResponse);
     }
 }
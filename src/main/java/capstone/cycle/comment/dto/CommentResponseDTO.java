@@ -1,13 +1,13 @@
 package capstone.cycle.comment.dto;
 
 import capstone.cycle.comment.entity.Comment;
+import capstone.cycle.file.service.FileUrlSigner;
 import capstone.cycle.user.dto.SimpleUserInfoDTO;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Getter
 @NoArgsConstructor
@@ -20,6 +20,10 @@ public class CommentResponseDTO {
     private SimpleUserInfoDTO author;
     private Long parentId;
     private List<CommentResponseDTO> replies;
+    // 미리보기 이후 대댓글이 더 있는지와 더보기 요청에 사용할 커서
+    private boolean hasMoreReplies;
+    private Long nextReplyCursor;
+    private int replyCount;
     private int likeCount;
     private boolean likedByCurrentUser;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy.MM.dd HH:mm:ss")
@@ -27,29 +31,24 @@ public class CommentResponseDTO {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy.MM.dd HH:mm:ss")
     private LocalDateTime updatedAt;
 
-    public static CommentResponseDTO from(Comment comment, Long currentUserId) {
-        CommentResponseDTO.CommentResponseDTOBuilder builder = CommentResponseDTO.builder()
+    // 작성자는 fetch join 으로, 좋아요 여부와 대댓글은 페이지 단위로 미리 조회한 값으로 채운다
+    // 좋아요 수와 대댓글 수는 댓글 행의 비정규화 컬럼을 그대로 사용
+    public static CommentResponseDTO of(Comment comment, boolean likedByCurrentUser,
+                                        List<CommentResponseDTO> replies, Long nextReplyCursor,
+                                        FileUrlSigner fileUrlSigner) {
+        return CommentResponseDTO.builder()
                 .id(comment.getId())
                 .content(comment.getContent())
-                .author(SimpleUserInfoDTO.from(comment.getAuthor()))
+                .author(SimpleUserInfoDTO.from(comment.getAuthor(), fileUrlSigner))
+                .parentId(comment.getParent() != null ? comment.getParent().getId() : null)
+                .replies(replies)
+                .hasMoreReplies(nextReplyCursor != null)
+                .nextReplyCursor(nextReplyCursor)
+                .replyCount(comment.getReplyCount())
                 .likeCount(comment.getLikeCount())
-                .likedByCurrentUser(comment.getLikes().stream()
-                        .anyMatch(like -> like.getUser().getId().equals(currentUserId)))
+                .likedByCurrentUser(likedByCurrentUser)
                 .createdAt(comment.getCreatedAt())
-                .updatedAt(comment.getUpdatedAt());
-
-        if (comment.getParent() != null) {
-            // 대댓글인 경우 부모 댓글의 ID를 설정하고 replies는 null로 설정
-            builder.parentId(comment.getParent().getId())
-                    .replies(null);  // 명시적으로 null 설정
-        } else {
-            // 원본 댓글인 경우 parentId는 null이고 대댓글 목록을 설정
-            builder.parentId(null)
-                    .replies(comment.getReplies().stream()
-                            .map(reply -> CommentResponseDTO.from(reply, currentUserId))
-                            .collect(Collectors.toList()));
-        }
-
-        return builder.build();
+                .updatedAt(comment.getUpdatedAt())
+                .build();
     }
 }
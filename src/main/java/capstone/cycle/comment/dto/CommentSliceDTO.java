@@ -0,0 +1,23 @@
+package capstone.cycle.comment.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 댓글/대댓글 무한 스크롤 응답.
+ * nextCursor 는 마지막 댓글 id 이며 다음 요청의 cursor 로 그대로 전달한다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CommentSliceDTO {
+    private List<CommentResponseDTO> content;
+    private boolean hasNext;
+    private Long nextCursor;
+}
@@ -13,6 +13,10 @@ import java.util.Collections;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_comment_post_parent_id", columnList = "post_id, parent_id, id"),
+        @Index(name = "idx_comment_parent_id", columnList = "parent_id, id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
@@ -44,6 +48,13 @@ public class Comment {
     @OneToMany(mappedBy = "comment", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CommentLike> likes = new ArrayList<>();
 
+    // 대댓글 수와 좋아요 수 (비정규화 값, 원자적 UPDATE 쿼리로만 변경)
+    @Column(nullable = false, updatable = false)
+    private int replyCount;
+
+    @Column(nullable = false, updatable = false)
+    private int likeCount;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -59,6 +70,8 @@ public class Comment {
                 .author(author)
                 .likes(new ArrayList<>())  // likes 리스트 초기화 추가
                 .replies(new ArrayList<>()) // replies 리스트 초기화 추가
+                .replyCount(0)
+                .likeCount(0)
                 .build();
     }
 
@@ -71,6 +84,8 @@ public class Comment {
                 .parent(parent)
                 .likes(new ArrayList<>())
                 .replies(new ArrayList<>())
+                .replyCount(0)
+                .likeCount(0)
                 .build();
     }
 
@@ -84,6 +99,8 @@ public class Comment {
                 .parent(this.parent)
                 .replies(this.replies)
                 .likes(this.likes)
+                .replyCount(this.replyCount)
+                .likeCount(this.likeCount)
                 .createdAt(this.createdAt)
                 .build();
     }
@@ -113,6 +130,8 @@ public class Comment {
                 .parent(this.parent)
                 .replies(newReplies)
                 .likes(this.likes)
+                .replyCount(this.replyCount)
+                .likeCount(this.likeCount)
                 .createdAt(this.createdAt)
                 .updatedAt(this.updatedAt)
                 .build();
@@ -131,6 +150,8 @@ public class Comment {
                 .parent(this.parent)
                 .replies(this.replies)
                 .likes(newLikes)
+                .replyCount(this.replyCount)
+                .likeCount(this.likeCount)
                 .createdAt(this.createdAt)
                 .updatedAt(this.updatedAt)
                 .build();
@@ -149,15 +170,13 @@ public class Comment {
                 .parent(this.parent)
                 .replies(this.replies)
                 .likes(newLikes)
+                .replyCount(this.replyCount)
+                .likeCount(this.likeCount)
                 .createdAt(this.createdAt)
                 .updatedAt(this.updatedAt)
                 .build();
     }
 
-    public int getLikeCount() {
-        return this.likes.size();
-    }
-
     public boolean isReply() {
         return this.parent != null;
     }
@@ -0,0 +1,28 @@
+package capstone.cycle.comment.repository;
+
+import capstone.cycle.comment.entity.CommentLike;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentLikeRepository extends JpaRepository<CommentLike, Long> {
+
+    // 댓글 목록 중 특정 사용자가 좋아요한 댓글 id 일괄 조회
+    @Query("SELECT cl.comment.id FROM CommentLike cl WHERE cl.user.id = :userId AND cl.comment.id IN :commentIds")
+    List<Long> findLikedCommentIds(@Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
+
+    // 좋아요 취소 (엔티티를 읽지 않고 한 행만 삭제)
+    @Query("DELETE FROM CommentLike cl WHERE cl.comment.id = :commentId AND cl.user.id = :userId")
+    @Modifying
+    int deleteLike(@Param("commentId") Long commentId, @Param("userId") Long userId);
+
+    // 좋아요 추가 (유니크 제약에 걸리면 무시하고 0 반환)
+    @Query(value = "INSERT IGNORE INTO comment_likes (comment_id, user_id) VALUES (:commentId, :userId)",
+            nativeQuery = true)
+    @Modifying
+    int insertLike(@Param("commentId") Long commentId, @Param("userId") Long userId);
+}
@@ -1,10 +1,104 @@
 package capstone.cycle.comment.repository;
 
 import capstone.cycle.comment.entity.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostIdAndParentIsNull(Long postId);
+
+    // 게시글의 원댓글 페이지 조회 (id 오름차순 키셋, 작성자와 프로필 이미지까지 한 번에)
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author a " +
+            "LEFT JOIN FETCH a.profileImage " +
+            "WHERE c.post.id = :postId AND c.parent IS NULL AND c.id > :afterId " +
+            "ORDER BY c.id ASC")
+    Slice<Comment> findRootPage(
+            @Param("postId") Long postId,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // 대댓글 페이지 조회 (더보기)
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author a " +
+            "LEFT JOIN FETCH a.profileImage " +
+            "WHERE c.parent.id = :parentId AND c.id > :afterId " +
+            "ORDER BY c.id ASC")
+    Slice<Comment> findReplyPage(
+            @Param("parentId") Long parentId,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    // 원댓글마다 앞쪽 대댓글 id 를 최대 limit 개씩 조회
+    @Query(value = "SELECT r.id FROM (" +
+            "SELECT c.id, ROW_NUMBER() OVER (PARTITION BY c.parent_id ORDER BY c.id) AS rn " +
+            "FROM comment c WHERE c.parent_id IN (:parentIds)" +
+            ") r WHERE r.rn <= :limit",
+            nativeQuery = true)
+    List<Long> findReplyIdsPerParent(
+            @Param("parentIds") Collection<Long> parentIds,
+            @Param("limit") int limit);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author a " +
+            "LEFT JOIN FETCH a.profileImage " +
+            "WHERE c.id IN :ids " +
+            "ORDER BY c.id ASC")
+    List<Comment> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByParent_Id(Long parentId);
+
+    // 대댓글 수 증감 (0 미만으로 내려가지 않게)
+    @Query("UPDATE Comment c SET c.replyCount = CASE WHEN c.replyCount + :delta < 0 THEN 0 " +
+            "ELSE c.replyCount + :delta END WHERE c.id = :id")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int adjustReplyCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // 좋아요 수 증가
+    @Query("UPDATE Comment c SET c.likeCount = c.likeCount + 1 WHERE c.id = :id")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int incrementLikeCount(@Param("id") Long id);
+
+    // 좋아요 수 감소
+    @Query("UPDATE Comment c SET c.likeCount = c.likeCount - 1 WHERE c.id = :id AND c.likeCount > 0")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int decrementLikeCount(@Param("id") Long id);
+
+    // 좋아요 수만 조회
+    @Query("SELECT c.likeCount FROM Comment c WHERE c.id = :id")
+    Optional<Integer> findLikeCountById(@Param("id") Long id);
+
+    // 대댓글 수 재계산 (MySQL 은 UPDATE 대상 테이블을 서브쿼리에서 읽을 수 없어 파생 테이블과 조인)
+    @Transactional
+    @Query(value = "UPDATE comment c " +
+            "JOIN (SELECT p.id, COUNT(r.id) AS cnt FROM comment p " +
+            "LEFT JOIN comment r ON r.parent_id = p.id " +
+            "WHERE p.id BETWEEN :fromId AND :toId GROUP BY p.id) t ON t.id = c.id " +
+            "SET c.reply_count = t.cnt WHERE c.reply_count <> t.cnt",
+            nativeQuery = true)
+    @Modifying
+    int recalculateReplyCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // 좋아요 수 재계산 (id 구간 단위로 comment_likes 테이블과 어긋난 값만 보정)
+    @Transactional
+    @Query(value = "UPDATE comment c " +
+            "JOIN (SELECT p.id, COUNT(cl.id) AS cnt FROM comment p " +
+            "LEFT JOIN comment_likes cl ON cl.comment_id = p.id " +
+            "WHERE p.id BETWEEN :fromId AND :toId GROUP BY p.id) t ON t.id = c.id " +
+            "SET c.like_count = t.cnt WHERE c.like_count <> t.cnt",
+            nativeQuery = true)
+    @Modifying
+    int recalculateLikeCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @Query("SELECT MAX(c.id) FROM Comment c")
+    Long findMaxId();
 }
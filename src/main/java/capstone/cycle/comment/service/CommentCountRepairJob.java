@@ -0,0 +1,49 @@
+package capstone.cycle.comment.service;
+
+import capstone.cycle.comment.repository.CommentRepository;
+import capstone.cycle.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Post.commentCount, Comment.replyCount, Comment.likeCount 보정 작업.
+ * 댓글 작성/삭제와 좋아요 토글이 카운터를 같은 트랜잭션에서 증감하지만, 수동 데이터 수정 등으로
+ * 값이 어긋날 수 있으므로 주기적으로 comment, comment_likes 테이블 기준으로 다시 계산한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CommentCountRepairJob {
+
+    private static final long BATCH_SIZE = 1000;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+
+    @Scheduled(cron = "${comment.count.repair-cron:0 30 4 * * *}")
+    public void repairCounts() {
+        int repairedPosts = 0;
+        Long maxPostId = postRepository.findMaxId();
+        if (maxPostId != null) {
+            for (long fromId = 1; fromId <= maxPostId; fromId += BATCH_SIZE) {
+                // 구간마다 별도 트랜잭션으로 실행해 한 번에 잡는 락 범위를 제한
+                repairedPosts += postRepository.recalculateCommentCounts(fromId, fromId + BATCH_SIZE - 1);
+            }
+        }
+
+        int repairedComments = 0;
+        Long maxCommentId = commentRepository.findMaxId();
+        if (maxCommentId != null) {
+            for (long fromId = 1; fromId <= maxCommentId; fromId += BATCH_SIZE) {
+                long toId = fromId + BATCH_SIZE - 1;
+                repairedComments += commentRepository.recalculateReplyCounts(fromId, toId);
+                repairedComments += commentRepository.recalculateLikeCounts(fromId, toId);
+            }
+        }
+
+        log.info("Comment count repair finished. repaired posts: {}, repaired comments: {}",
+                repairedPosts, repairedComments);
+    }
+}
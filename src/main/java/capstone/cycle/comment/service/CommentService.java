@@ -2,20 +2,34 @@ package capstone.cycle.comment.service;
 
 import capstone.cycle.comment.dto.CommentCreateDTO;
 import capstone.cycle.comment.dto.CommentResponseDTO;
+import capstone.cycle.comment.dto.CommentSliceDTO;
 import capstone.cycle.comment.entity.Comment;
-import capstone.cycle.comment.entity.CommentLike;
 import capstone.cycle.comment.error.CommentErrorResult;
 import capstone.cycle.comment.error.CommentException;
+import capstone.cycle.comment.repository.CommentLikeRepository;
 import capstone.cycle.comment.repository.CommentRepository;
+import capstone.cycle.file.service.FileUrlSigner;
+import capstone.cycle.like.dto.LikeResponseDTO;
+import capstone.cycle.like.dto.LikeStatus;
 import capstone.cycle.post.entity.Post;
 import capstone.cycle.post.repository.PostRepository;
+import capstone.cycle.post.service.PopularPostRanking;
 import capstone.cycle.user.entity.User;
 import capstone.cycle.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,8 +37,17 @@ import java.util.stream.Collectors;
 public class CommentService {
 
     private final CommentRepository commentRepository;
+    private final CommentLikeRepository commentLikeRepository;
     private final PostRepository postRepository;
     private final UserRepository userRepository;
+    private final PopularPostRanking popularPostRanking;
+    private final FileUrlSigner fileUrlSigner;
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    // 원댓글마다 함께 내려주는 대댓글 수 (0 이면 대댓글은 답글 목록 API 로만 조회)
+    @Value("${comment.reply-preview-size:3}")
+    private int replyPreviewSize;
 
 
     @Transactional
@@ -53,19 +76,80 @@ public class CommentService {
         }
 
         Comment savedComment = commentRepository.save(comment);
-        return CommentResponseDTO.from(savedComment, userId);
+        // 카운터 벌크 업데이트가 영속성 컨텍스트를 비우므로 작성자 프로필(지연 로딩)을 읽는 응답은 그 전에 만든다
+        CommentResponseDTO response = CommentResponseDTO.of(savedComment, false,
+                savedComment.isReply() ? null : new ArrayList<>(), null, fileUrlSigner);
+        postRepository.adjustCommentCount(postId, 1);
+        if (savedComment.isReply()) {
+            commentRepository.adjustReplyCount(savedComment.getParent().getId(), 1);
+        }
+        popularPostRanking.recordComment(postId);
+        return response;
     }
 
     @Transactional(readOnly = true)
-    public List<CommentResponseDTO> getCommentsByPostId(Long postId, Long currentUserId) {
+    public CommentSliceDTO getCommentsByPostId(Long postId, Long cursor, int size, Long currentUserId) {
         if (!postRepository.existsById(postId)) {
             throw new CommentException(CommentErrorResult.POST_NOT_FOUND);
         }
 
-        List<Comment> comments = commentRepository.findByPostIdAndParentIsNull(postId);
-        return comments.stream()
-                .map(comment -> CommentResponseDTO.from(comment, currentUserId))
+        Slice<Comment> roots = commentRepository.findRootPage(
+                postId, cursor != null ? cursor : 0L, PageRequest.of(0, boundedSize(size)));
+        List<Long> rootIds = roots.getContent().stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList());
+
+        // 원댓글마다 미리보기 개수 + 1 개를 읽어 더보기 여부를 판단 (미리보기를 끄면 읽지 않는다)
+        Map<Long, List<Comment>> repliesByRoot = new HashMap<>();
+        if (!rootIds.isEmpty() && replyPreviewSize > 0) {
+            List<Long> replyIds = commentRepository.findReplyIdsPerParent(rootIds, replyPreviewSize + 1);
+            if (!replyIds.isEmpty()) {
+                commentRepository.findAllWithAuthorByIdIn(replyIds).forEach(reply ->
+                        repliesByRoot.computeIfAbsent(reply.getParent().getId(), id -> new ArrayList<>()).add(reply));
+            }
+        }
+
+        List<Long> commentIds = new ArrayList<>(rootIds);
+        repliesByRoot.values().forEach(replies -> replies.forEach(reply -> commentIds.add(reply.getId())));
+        LikeSummary likeSummary = loadLikeSummary(commentIds, currentUserId);
+
+        List<CommentResponseDTO> content = roots.getContent().stream()
+                .map(root -> {
+                    List<Comment> replies = repliesByRoot.getOrDefault(root.getId(), Collections.emptyList());
+                    Long nextReplyCursor = null;
+                    if (replies.size() > replyPreviewSize) {
+                        replies = replies.subList(0, replyPreviewSize);
+                        nextReplyCursor = replies.get(replies.size() - 1).getId();
+                    }
+                    List<CommentResponseDTO> replyResponses = replies.stream()
+                            .map(reply -> likeSummary.toResponse(reply, null, null))
+                            .collect(Collectors.toList());
+                    return likeSummary.toResponse(root, replyResponses, nextReplyCursor);
+                })
                 .collect(Collectors.toList());
+
+        return toSlice(content, roots);
+    }
+
+    @Transactional(readOnly = true)
+    public CommentSliceDTO getReplies(Long postId, Long commentId, Long cursor, int size, Long currentUserId) {
+        Comment parent = findCommentWithValidation(postId, commentId);
+        if (parent.isReply()) {
+            throw new CommentException(CommentErrorResult.INVALID_PARENT_COMMENT);
+        }
+
+        Slice<Comment> replies = commentRepository.findReplyPage(
+                commentId, cursor != null ? cursor : 0L, PageRequest.of(0, boundedSize(size)));
+        List<Long> replyIds = replies.getContent().stream()
+                .map(Comment::getId)
+                .collect(Collectors.toList());
+        LikeSummary likeSummary = loadLikeSummary(replyIds, currentUserId);
+
+        List<CommentResponseDTO> content = replies.getContent().stream()
+                .map(reply -> likeSummary.toResponse(reply, null, null))
+                .collect(Collectors.toList());
+
+        return toSlice(content, replies);
     }
 
     @Transactional
@@ -78,38 +162,101 @@ public class CommentService {
 
         Comment updatedComment = comment.updateContent(commentCreateDTO.getContent());
         Comment savedComment = commentRepository.save(updatedComment);
-        return CommentResponseDTO.from(savedComment, comment.getAuthor().getId());
+        Long authorId = comment.getAuthor().getId();
+
+        if (savedComment.isReply()) {
+            return loadLikeSummary(List.of(savedComment.getId()), authorId).toResponse(savedComment, null, null);
+        }
+
+        // 원댓글은 목록 조회와 같은 크기의 대댓글 미리보기를 함께 내려준다
+        Slice<Comment> replies = commentRepository.findReplyPage(
+                savedComment.getId(), 0L, PageRequest.of(0, replyPreviewSize));
+        List<Long> commentIds = new ArrayList<>();
+        commentIds.add(savedComment.getId());
+        replies.getContent().forEach(reply -> commentIds.add(reply.getId()));
+        LikeSummary likeSummary = loadLikeSummary(commentIds, authorId);
+
+        List<CommentResponseDTO> replyResponses = replies.getContent().stream()
+                .map(reply -> likeSummary.toResponse(reply, null, null))
+                .collect(Collectors.toList());
+        Long nextReplyCursor = replies.hasNext() && !replies.getContent().isEmpty()
+                ? replies.getContent().get(replies.getContent().size() - 1).getId()
+                : null;
+        return likeSummary.toResponse(savedComment, replyResponses, nextReplyCursor);
     }
 
     @Transactional
     public void deleteComment(Long postId, Long commentId) {
         Comment comment = findCommentWithValidation(postId, commentId);
+        Long parentId = comment.isReply() ? comment.getParent().getId() : null;
+        // 원댓글을 지우면 대댓글도 함께 삭제되므로 그만큼 게시글 댓글 수에서 뺀다
+        long replyCount = parentId == null ? commentRepository.countByParent_Id(commentId) : 0;
+
         commentRepository.delete(comment);
+        postRepository.adjustCommentCount(postId, -(int) (1 + replyCount));
+        if (parentId != null) {
+            commentRepository.adjustReplyCount(parentId, -1);
+        }
     }
 
     @Transactional
-    public CommentResponseDTO toggleLike(Long postId, Long commentId, Long userId) {
-        Comment comment = findCommentWithValidation(postId, commentId);
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new CommentException(CommentErrorResult.USER_NOT_FOUND));
+    public LikeResponseDTO toggleLike(Long postId, Long commentId, Long userId) {
+        // INSERT IGNORE 는 외래 키 오류도 무시하므로 댓글 존재 여부를 먼저 확인
+        findCommentWithValidation(postId, commentId);
 
-        boolean hasLiked = comment.getLikes().stream()
-                .anyMatch(like -> like.getUser().getId().equals(userId));
-
-        Comment updatedComment;
-        if (hasLiked) {
-            CommentLike existingLike = comment.getLikes().stream()
-                    .filter(like -> like.getUser().getId().equals(userId))
-                    .findFirst()
-                    .orElseThrow(() -> new CommentException(CommentErrorResult.COMMENT_NOT_FOUND));
-            updatedComment = comment.removeLike(existingLike);
+        LikeStatus likeStatus;
+        if (commentLikeRepository.deleteLike(commentId, userId) > 0) {
+            commentRepository.decrementLikeCount(commentId);
+            likeStatus = LikeStatus.UNLIKE;
         } else {
-            CommentLike newLike = CommentLike.createCommentLike(comment, user);
-            updatedComment = comment.addLike(newLike);
+            // 동시 요청으로 이미 추가된 경우에는 카운터를 다시 올리지 않는다
+            if (commentLikeRepository.insertLike(commentId, userId) > 0) {
+                commentRepository.incrementLikeCount(commentId);
+            }
+            likeStatus = LikeStatus.LIKE;
         }
 
-        Comment savedComment = commentRepository.save(updatedComment);
-        return CommentResponseDTO.from(savedComment, userId);
+        int likeCount = commentRepository.findLikeCountById(commentId).orElse(0);
+        return LikeResponseDTO.of(commentId, likeStatus, likeCount);
+    }
+
+    private int boundedSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private CommentSliceDTO toSlice(List<CommentResponseDTO> content, Slice<Comment> comments) {
+        Long nextCursor = comments.hasNext() && !comments.getContent().isEmpty()
+                ? comments.getContent().get(comments.getContent().size() - 1).getId()
+                : null;
+
+        return CommentSliceDTO.builder()
+                .content(content)
+                .hasNext(comments.hasNext())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // 페이지에 포함된 댓글 전체의 좋아요 여부를 한 번의 쿼리로 조회 (좋아요 수는 댓글 행의 컬럼을 사용)
+    private LikeSummary loadLikeSummary(List<Long> commentIds, Long currentUserId) {
+        if (commentIds.isEmpty() || currentUserId == null) {
+            return new LikeSummary(Collections.emptySet(), fileUrlSigner);
+        }
+
+        Set<Long> likedCommentIds = new HashSet<>(commentLikeRepository.findLikedCommentIds(currentUserId, commentIds));
+        return new LikeSummary(likedCommentIds, fileUrlSigner);
+    }
+
+    private record LikeSummary(Set<Long> likedCommentIds, FileUrlSigner fileUrlSigner) {
+
+        private CommentResponseDTO toResponse(Comment comment, List<CommentResponseDTO> replies, Long nextReplyCursor) {
+            return CommentResponseDTO.of(
+                    comment,
+                    likedCommentIds.contains(comment.getId()),
+                    replies,
+                    nextReplyCursor,
+                    fileUrlSigner
+            );
+        }
     }
 
     private Comment findCommentWithValidation(Long postId, Long commentId) {
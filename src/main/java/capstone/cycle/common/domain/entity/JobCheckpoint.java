@@ -0,0 +1,32 @@
+package capstone.cycle.common.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 한 번만 돌면 되는 보정 작업의 진행 위치.
+ * 작업마다 마지막으로 처리한 id 와 완료 시각을 남겨, 재기동 시 이어서 하거나 건너뛴다.
+ */
+@Entity
+@Table(name = "job_checkpoint")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private long lastId;
+
+    // 끝까지 처리했으면 그 시각, 아니면 null
+    private LocalDateTime completedAt;
+}
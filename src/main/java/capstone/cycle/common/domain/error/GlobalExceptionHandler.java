@@ -4,6 +4,8 @@ import capstone.cycle.comment.error.CommentErrorResult;
 import capstone.cycle.comment.error.CommentException;
 import capstone.cycle.common.security.error.TokenErrorResult;
 import capstone.cycle.common.security.error.TokenException;
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
 import capstone.cycle.like.error.LikeErrorResult;
 import capstone.cycle.like.error.LikeException;
 import capstone.cycle.post.error.PostErrorResult;
@@ -102,6 +104,14 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 .body(new ErrorResponse(errorResult.getStatus().value(), errorResult.getMessage()));
     }
 
+    @ExceptionHandler({FileException.class})
+    public ResponseEntity<ErrorResponse> handleFileException(final FileException exception) {
+        log.warn("FileException occur: {}", exception.getFileErrorResult().getMessage());
+        FileErrorResult errorResult = exception.getFileErrorResult();
+        return ResponseEntity.status(errorResult.getStatus())
+                .body(new ErrorResponse(errorResult.getStatus().value(), errorResult.getMessage()));
+    }
+
     @ExceptionHandler({LikeException.class})
     public ResponseEntity<ErrorResponse> handleLikeException(final LikeException exception) {
         log.warn("LikeException occur: {}", exception.getLikeErrorResult().getMessage(), exception);
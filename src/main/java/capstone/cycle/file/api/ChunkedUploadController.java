@@ -0,0 +1,85 @@
+package capstone.cycle.file.api;
+
+import capstone.cycle.common.security.dto.UserDetailsImpl;
+import capstone.cycle.file.dto.StagedUploadDTO;
+import capstone.cycle.file.dto.UploadSessionCreateDTO;
+import capstone.cycle.file.dto.UploadSessionDTO;
+import capstone.cycle.file.service.ChunkedUploadService;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * 큰 사진/영상/GPS 기록을 위한 이어 올리기 API.
+ * 세션을 열고 조각을 PUT 으로 보낸 뒤 완료하면 게시글 작성/수정에 쓸 업로드 토큰을 받는다.
+ */
+@RestController
+@RequestMapping("/api/p/v1/uploads")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    private static final String CONTENT_NAME = "post_";
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PostMapping
+    public ResponseEntity<UploadSessionDTO> openSession(
+            @RequestBody UploadSessionCreateDTO uploadSessionCreateDTO,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        UploadSessionDTO session = chunkedUploadService.open(uploadSessionCreateDTO, CONTENT_NAME,
+                userDetails.getUser().getId());
+        return ResponseEntity.ok(session);
+    }
+
+    // 끊긴 뒤 다시 보낼 조각 확인
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<UploadSessionDTO> getSession(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        return ResponseEntity.ok(chunkedUploadService.getStatus(sessionId, userDetails.getUser().getId()));
+    }
+
+    // 본문은 multipart 가 아닌 조각 바이트 그대로 (요청 스트림에서 파일로 바로 기록)
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PutMapping(value = "/{sessionId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDTO> uploadChunk(
+            @PathVariable String sessionId,
+            @PathVariable int index,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) throws IOException {
+        UploadSessionDTO session = chunkedUploadService.writeChunk(sessionId, index, request.getContentLengthLong(),
+                request.getInputStream(), userDetails.getUser().getId());
+        return ResponseEntity.ok(session);
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PostMapping("/{sessionId}/complete")
+    public ResponseEntity<StagedUploadDTO> completeSession(
+            @PathVariable String sessionId,
+            @RequestParam(required = false) String checksum,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        return ResponseEntity.ok(chunkedUploadService.complete(sessionId, checksum, userDetails.getUser().getId()));
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> abortSession(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        chunkedUploadService.abort(sessionId, userDetails.getUser().getId());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,48 +4,86 @@ import capstone.cycle.file.entity.File;
 import capstone.cycle.file.error.FileErrorResult;
 import capstone.cycle.file.error.FileException;
 import capstone.cycle.file.service.FileService;
+import capstone.cycle.file.service.FileUrlSigner;
+import capstone.cycle.file.service.ImageVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/files")
 @RequiredArgsConstructor
 public class FileController {
 
-    @Value("${file.upload-dir}")
-    private String uploadDir;
-
     private final FileService fileService;
+    private final FileResponseWriter fileResponseWriter;
+    private final ImageVariantService imageVariantService;
+    private final FileUrlSigner fileUrlSigner;
 
+    // 저장된 경로에서 바로 내보내며 ETag/304, Range/206 을 지원한다
+    // width 를 주면 그 이상인 가장 작은 이미지 변형으로 응답한다 (변형이 없거나 원본이 더 작으면 원본)
     @GetMapping("/{fileId}")
-    public ResponseEntity<Resource> serveFile(@PathVariable Long fileId) throws IOException {
+    public void serveFile(@PathVariable Long fileId,
+                          @RequestParam(required = false) Integer width,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        int variantWidth = width != null && width > 0 ? imageVariantService.selectWidth(width) : 0;
+        // 자주 요청되는 작은 파일은 DB 조회 없이 메모리에서
+        if (fileResponseWriter.writeCached(fileId, variantWidth, request, response)) {
+            return;
+        }
+
         File file = fileService.getFile(fileId);
 
-        Path filePath = Paths.get(uploadDir).resolve(file.getName());
-        Resource resource = new UrlResource(filePath.toUri());
+        if (variantWidth > 0) {
+            Optional<Path> variant = imageVariantService.resolve(file, width);
+            if (variant.isPresent()) {
+                fileResponseWriter.writeVariant(file, variant.get(), variantWidth, request, response);
+                return;
+            }
+        }
+
+        // 변형을 아직 만들지 못해 원본으로 대신한 응답은 변형 키로 캐시하지 않는다
+        boolean originalIsVariant = variantWidth == 0 || (file.getWidth() != null && file.getWidth() <= variantWidth);
+        fileResponseWriter.write(file, originalIsVariant ? variantWidth : -1, request, response);
+    }
+
+    // 서명 주소: 서명이 맞으면 DB 조회 없이 주소에 담긴 저장 경로를 내보낸다
+    // 변형이 아직 없거나 파일이 다른 경로로 옮겨졌으면 id 로 조회하는 위 경로로 넘긴다
+    @GetMapping("/s/{fileId}/{name}")
+    public void serveSignedFile(@PathVariable Long fileId,
+                                @PathVariable String name,
+                                @RequestParam(required = false) Integer w,
+                                @RequestParam long exp,
+                                @RequestParam String sig,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        FileUrlSigner.SignedFile signedFile = fileUrlSigner.verify(fileId, name, w, exp, sig)
+                .orElseThrow(() -> new FileException(FileErrorResult.INVALID_FILE_URL));
 
-        if (resource.exists() || resource.isReadable()) {
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + file.getOriginalName() + "\"")
-                    .contentType(MediaType.parseMediaType(file.getContentType()))
-                    .body(resource);
-        } else {
-            throw new FileException(FileErrorResult.FILE_NOT_FOUND);
+        int variantWidth = signedFile.getWidth() > 0 ? imageVariantService.selectWidth(signedFile.getWidth()) : 0;
+        if (fileResponseWriter.writeCached(fileId, variantWidth, request, response)) {
+            return;
         }
+
+        Path path = variantWidth > 0
+                ? imageVariantService.variantPath(signedFile.getPath(), variantWidth)
+                : signedFile.getPath();
+        if (Files.isReadable(path)) {
+            fileResponseWriter.writeSigned(signedFile, path, variantWidth, request, response);
+            return;
+        }
+
+        serveFile(fileId, signedFile.getWidth() > 0 ? signedFile.getWidth() : null, request, response);
     }
 }
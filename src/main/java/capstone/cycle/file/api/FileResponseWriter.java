@@ -0,0 +1,261 @@
+package capstone.cycle.file.api;
+
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
+import capstone.cycle.file.service.FileStorageLayout;
+import capstone.cycle.file.service.FileUrlSigner;
+import capstone.cycle.file.service.HotFileCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * 저장된 파일을 HTTP 응답으로 내보낸다.
+ *
+ * 파일 id 의 내용은 바뀌지 않으므로(수정 시 새 파일이 만들어진다) 저장 파일 이름(내용 주소 저장소에서는 체크섬)과
+ * 변형 너비로 강한 ETag 를 만들고 오래 캐시하게 한다. 어느 주소로 받든 같은 본문에는 같은 ETag 가 붙는다.
+ * If-None-Match 는 304 로, 단일 Range 는 206 으로 응답하며, 본문은 Tomcat sendfile 을 쓸 수 있으면 커널에 맡기고
+ * 아니면 FileChannel.transferTo 로 복사한다. 작은 파일은 HotFileCache 의 메모리 본문으로 응답한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class FileResponseWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FileStorageLayout fileStorageLayout;
+    private final HotFileCache hotFileCache;
+
+    @Value("${file.serve.cache-max-age-seconds:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    // 메모리 캐시에 있으면 바로 내보내고 true (DB 조회 전에 호출)
+    public boolean writeCached(Long fileId, int width,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<HotFileCache.CachedFile> cached = hotFileCache.get(fileId, width);
+        if (cached.isEmpty()) {
+            return false;
+        }
+
+        HotFileCache.CachedFile file = cached.get();
+        long[] range = prepare(file.getEtag(), file.getContentType(), file.getDownloadName(), file.size(),
+                request, response);
+        if (range != null) {
+            writeBuffer(file.getBody(), range[0], range[1], response);
+        }
+        return true;
+    }
+
+    // width 는 요청한 이미지 변형 너비로 캐시 키에 쓰인다 (원본 요청이면 0, 음수면 캐시하지 않음)
+    public void write(File file, int width, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = fileStorageLayout.resolve(file.getPath());
+        write(file.getId(), width, path, etag(path, 0), file.getContentType(), downloadName(file), request, response);
+    }
+
+    // 이미지 변형
+    public void writeVariant(File file, Path variant, int width,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = etag(fileStorageLayout.resolve(file.getPath()), width);
+        write(file.getId(), width, variant, etag, MediaType.IMAGE_JPEG_VALUE, downloadName(file), request, response);
+    }
+
+    // 서명 주소 (파일 행 없이 주소에 담긴 저장 경로로 응답한다)
+    public void writeSigned(FileUrlSigner.SignedFile file, Path path, int width,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String name = file.getPath().getFileName().toString();
+        String etag = etag(file.getPath(), width);
+        String contentType = width > 0
+                ? MediaType.IMAGE_JPEG_VALUE
+                : MediaTypeFactory.getMediaType(name + file.getExtension()).map(MediaType::toString).orElse(null);
+        write(file.getFileId(), width, path, etag, contentType, file.getFileId() + file.getExtension(),
+                request, response);
+    }
+
+    private void write(Long fileId, int width, Path path, String etag, String contentType, String downloadName,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!Files.isReadable(path)) {
+            throw new FileException(FileErrorResult.FILE_NOT_FOUND);
+        }
+
+        long length = Files.size(path);
+        long[] range = prepare(etag, contentType, downloadName, length, request, response);
+        if (range == null) {
+            return;
+        }
+        long start = range[0];
+        long end = range[1];
+
+        // 작은 파일은 캐시에 올린 뒤 그 본문으로 응답
+        Optional<HotFileCache.CachedFile> cached = etag != null && width >= 0
+                ? hotFileCache.admit(fileId, width, path, length, etag, contentType, downloadName)
+                : Optional.empty();
+        if (cached.isPresent()) {
+            writeBuffer(cached.get().getBody(), start, end, response);
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 응답 본문은 컨테이너가 sendfile 로 직접 보낸다
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = end - start + 1;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, out);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * 상태 코드와 헤더를 정한다. 본문을 보내야 하면 {start, end}, 304/416/HEAD/빈 파일처럼 본문이 없으면 null.
+     */
+    private long[] prepare(String etag, String contentType, String downloadName, long length,
+                           HttpServletRequest request, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + cacheMaxAgeSeconds + ", immutable");
+        }
+
+        if (etag != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+
+        response.setContentType(contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                .filename(downloadName, StandardCharsets.UTF_8)
+                .build().toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && isRangeApplicable(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            long[] parsed = parseRange(range, length);
+            if (parsed == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return null;
+            }
+            if (parsed.length == 2) {
+                start = parsed[0];
+                end = parsed[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = length == 0 ? 0 : end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || count == 0) {
+            return null;
+        }
+        return new long[]{start, end};
+    }
+
+    private void writeBuffer(ByteBuffer body, long start, long end, HttpServletResponse response) throws IOException {
+        body.position((int) start).limit((int) end + 1);
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        while (body.hasRemaining()) {
+            out.write(body);
+        }
+    }
+
+    // 원본 저장 파일 이름 + 변형 너비 (원본이면 0)
+    private String etag(Path original, int width) {
+        return "\"" + original.getFileName() + (width > 0 ? "-w" + width : "") + "\"";
+    }
+
+    private String downloadName(File file) {
+        return file.getOriginalName() != null ? file.getOriginalName() : file.getName();
+    }
+
+    // If-None-Match: "*" 또는 쉼표로 구분된 목록 (약한 비교)
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Range 가 없거나 현재 ETag 와 강하게 일치할 때만 Range 를 적용 (날짜 형식은 비교하지 않고 전체 응답)
+    private boolean isRangeApplicable(String ifRange, String etag) {
+        return ifRange == null || (etag != null && ifRange.trim().equals(etag));
+    }
+
+    /**
+     * 단일 bytes 범위를 해석한다.
+     * 적용할 범위면 {start, end}, 만족할 수 없으면 null, 형식이 잘못됐거나 여러 범위면 빈 배열(전체 응답)을 반환한다.
+     */
+    private long[] parseRange(String range, long length) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return new long[0];
+        }
+
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // 끝에서부터 N 바이트
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return null;
+                }
+                return new long[]{Math.max(length - suffix, 0), length - 1};
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
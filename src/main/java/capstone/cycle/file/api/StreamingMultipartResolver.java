@@ -0,0 +1,72 @@
+package capstone.cycle.file.api;
+
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
+import capstone.cycle.file.service.MultipartStreamReader;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 기본 multipart 해석기를 대신한다.
+ *
+ * 지정한 업로드 경로의 POST 요청은 multipart 로 보지 않아 컨테이너가 파트를 임시 파일로 먼저 받아 두지 않게 하고,
+ * 컨트롤러가 요청 본문을 MultipartStreamReader 로 읽어 저장소에 바로 기록하도록 한다.
+ * 이때 컨테이너의 multipart 크기 한도가 적용되지 않으므로, 같은 설정값을 요청 본문 스트림에 직접 적용한다.
+ * 그 밖의 요청은 기존과 같이 처리한다.
+ */
+@Component(DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+public class StreamingMultipartResolver extends StandardServletMultipartResolver {
+
+    @Value("${file.upload.streaming-enabled:true}")
+    private boolean streamingEnabled;
+
+    @Value("${file.upload.streaming-paths:/api/p/v1/images}")
+    private List<String> streamingPaths;
+
+    @Value("${spring.servlet.multipart.max-file-size:1MB}")
+    private DataSize maxFileSize;
+
+    @Value("${spring.servlet.multipart.max-request-size:10MB}")
+    private DataSize maxRequestSize;
+
+    @Override
+    public boolean isMultipart(HttpServletRequest request) {
+        if (streamingEnabled && isStreamingRequest(request)) {
+            return false;
+        }
+        return super.isMultipart(request);
+    }
+
+    /**
+     * multipart 로 해석하지 않은 요청의 본문을 파트 단위로 읽는다.
+     * Content-Length 가 요청 한도를 넘으면 본문을 읽지 않고 413 으로 거절하며, 길이를 모르면 읽는 도중에 검사한다.
+     */
+    public MultipartStreamReader openStream(HttpServletRequest request) throws IOException {
+        long maxRequestBytes = toLimit(maxRequestSize);
+        if (request.getContentLengthLong() > maxRequestBytes) {
+            throw new FileException(FileErrorResult.REQUEST_TOO_LARGE);
+        }
+        return MultipartStreamReader.of(request.getContentType(), request.getInputStream(),
+                maxRequestBytes, toLimit(maxFileSize));
+    }
+
+    // 스프링 설정과 같이 음수는 제한 없음
+    private long toLimit(DataSize size) {
+        return size.isNegative() ? Long.MAX_VALUE : size.toBytes();
+    }
+
+    private boolean isStreamingRequest(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return false;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return streamingPaths.contains(path);
+    }
+}
@@ -0,0 +1,38 @@
+package capstone.cycle.file.dto;
+
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.entity.StagedUpload;
+import capstone.cycle.file.service.FileUrlSigner;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 미리 올린 파일의 업로드 토큰. 게시글 작성/수정 요청에 토큰을 담아 파일을 연결한다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StagedUploadDTO {
+    private String token;
+    private String originalName;
+    // 미리보기용 주소
+    private String url;
+    private Integer width;
+    private Integer height;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy.MM.dd HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    public static StagedUploadDTO of(StagedUpload stagedUpload, File file, FileUrlSigner fileUrlSigner) {
+        return StagedUploadDTO.builder()
+                .token(stagedUpload.getToken())
+                .originalName(file.getOriginalName())
+                .url(fileUrlSigner.urlOf(file))
+                .width(file.getWidth())
+                .height(file.getHeight())
+                .expiresAt(stagedUpload.getExpiresAt())
+                .build();
+    }
+}
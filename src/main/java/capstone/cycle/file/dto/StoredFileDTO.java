@@ -0,0 +1,29 @@
+package capstone.cycle.file.dto;
+
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.entity.ImageSize;
+import lombok.*;
+
+/**
+ * 저장소에 기록을 마쳤지만 아직 DB 에 저장하지 않은 파일의 메타데이터.
+ */
+@Getter
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StoredFileDTO {
+
+    private final String name;
+    private final String originalName;
+    private final String path;
+    private final String contentType;
+    private final long size;
+    private final String extension;
+    private final String checksum;
+    private final ImageSize imageSize;
+    // 내용 주소 저장소를 쓰는 경우, 메타데이터 저장 시 path 로 옮겨질 임시 파일 경로 (그 외에는 null)
+    private final String stagingPath;
+
+    public File toEntity() {
+        return File.createFile(name, originalName, path, contentType, size, extension, checksum, imageSize);
+    }
+}
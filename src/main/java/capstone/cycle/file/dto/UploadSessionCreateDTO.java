@@ -0,0 +1,15 @@
+package capstone.cycle.file.dto;
+
+import lombok.*;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionCreateDTO {
+    private String originalName;
+    private String contentType;
+    private long size;
+    // 알고 있으면 SHA-256 (16진수) 을 미리 보내고, 아니면 완료 요청에 담는다
+    private String checksum;
+}
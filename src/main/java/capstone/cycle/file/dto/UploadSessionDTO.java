@@ -0,0 +1,43 @@
+package capstone.cycle.file.dto;
+
+import capstone.cycle.file.entity.UploadSession;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 이어 올리기 세션 상태. 끊긴 뒤에는 missingChunks 의 조각만 다시 보내면 된다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class UploadSessionDTO {
+    private String sessionId;
+    private long size;
+    private int chunkSize;
+    private int chunkCount;
+    private List<Integer> missingChunks;
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy.MM.dd HH:mm:ss")
+    private LocalDateTime expiresAt;
+
+    public static UploadSessionDTO from(UploadSession session) {
+        List<Integer> missingChunks = new ArrayList<>();
+        for (int i = 0; i < session.getChunkCount(); i++) {
+            if (!session.hasChunk(i)) {
+                missingChunks.add(i);
+            }
+        }
+        return UploadSessionDTO.builder()
+                .sessionId(session.getId())
+                .size(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .missingChunks(missingChunks)
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
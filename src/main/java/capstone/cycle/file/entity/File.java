@@ -28,6 +28,10 @@ public class File {
     private String extension;
     private String checksum;
 
+    // 이미지 파일의 가로/세로 크기 (이미지가 아니거나 읽지 못하면 null)
+    private Integer width;
+    private Integer height;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -38,6 +42,11 @@ public class File {
     // 정적 팩토리 메서드
     public static File createFile(String name, String originalName, String path,
                                   String contentType, long size, String extension, String checksum) {
+        return createFile(name, originalName, path, contentType, size, extension, checksum, null);
+    }
+
+    public static File createFile(String name, String originalName, String path, String contentType,
+                                  long size, String extension, String checksum, ImageSize imageSize) {
         return File.builder()
                 .name(name)
                 .originalName(originalName)
@@ -46,6 +55,8 @@ public class File {
                 .size(size)
                 .extension(extension)
                 .checksum(checksum)
+                .width(imageSize != null ? imageSize.getWidth() : null)
+                .height(imageSize != null ? imageSize.getHeight() : null)
                 .build();
     }
 
@@ -59,6 +70,8 @@ public class File {
                 .size(this.size)
                 .extension(this.extension)
                 .checksum(this.checksum)
+                .width(this.width)
+                .height(this.height)
                 .createdAt(this.createdAt)
                 .fileGroup(fileGroup)
                 .build();
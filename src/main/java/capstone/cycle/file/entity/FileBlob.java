@@ -0,0 +1,37 @@
+package capstone.cycle.file.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용 주소 저장소의 실제 파일 (SHA-256 체크섬으로 식별).
+ * 같은 내용의 업로드는 File 행만 새로 만들고 이 행의 참조 수를 올린다.
+ */
+@Entity
+@Table(name = "file_blob")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class FileBlob {
+
+    @Id
+    @Column(length = 64)
+    private String checksum;
+
+    @Column(nullable = false)
+    private String path;
+
+    private long size;
+
+    // 이 파일을 가리키는 File 행 수 (원자적 UPDATE 쿼리로만 변경)
+    @Column(nullable = false, updatable = false)
+    private int refCount;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,59 @@
+package capstone.cycle.file.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 커밋 후 백그라운드에서 처리할 삭제 작업.
+ * 파일 그룹 삭제(fileGroupId) 또는 더 이상 참조되지 않는 저장소 파일 삭제(path) 중 하나를 담는다.
+ */
+@Entity
+@Table(name = "file_tombstone")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class FileTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long fileGroupId;
+
+    private String path;
+
+    // 내용 주소 저장소의 파일이면 지우기 전에 같은 내용이 다시 올라왔는지 확인하는 데 쓴다
+    @Column(length = 64)
+    private String checksum;
+
+    // 실패한 횟수 (원자적 UPDATE 쿼리로만 변경)
+    @Column(nullable = false, updatable = false)
+    private int attempts;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    public static FileTombstone ofFileGroup(Long fileGroupId) {
+        return FileTombstone.builder()
+                .fileGroupId(fileGroupId)
+                .attempts(0)
+                .build();
+    }
+
+    public static FileTombstone ofPath(String path, String checksum) {
+        return FileTombstone.builder()
+                .path(path)
+                .checksum(checksum)
+                .attempts(0)
+                .build();
+    }
+
+    public boolean isFileGroup() {
+        return fileGroupId != null;
+    }
+}
@@ -0,0 +1,170 @@
+package capstone.cycle.file.entity;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * JPEG EXIF 의 Orientation 값 (1 ~ 8).
+ * 휴대폰 사진은 픽셀을 눕힌 채 저장하고 이 값으로 보여 줄 방향을 알려 주는데, ImageIO 는 이를 무시하므로
+ * 크기를 읽거나 변형을 만들 때 직접 적용한다.
+ */
+public final class ImageOrientation {
+
+    public static final ImageOrientation NORMAL = new ImageOrientation(1);
+
+    private static final int EXIF_ORIENTATION_TAG = 0x0112;
+    // EXIF 가 이보다 뒤에 있으면 찾지 않는다
+    private static final int MAX_SCAN_BYTES = 256 * 1024;
+
+    private final int value;
+
+    private ImageOrientation(int value) {
+        this.value = value;
+    }
+
+    public static ImageOrientation of(int value) {
+        return value >= 2 && value <= 8 ? new ImageOrientation(value) : NORMAL;
+    }
+
+    // JPEG 가 아니거나 값이 없으면 NORMAL
+    public static ImageOrientation read(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            return of(readExifOrientation(new DataInputStream(new BufferedInputStream(in))));
+        } catch (IOException | RuntimeException e) {
+            return NORMAL;
+        }
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    // 90도 돌려서 보여 주는 방향이면 가로/세로가 바뀐다
+    public boolean isQuarterTurn() {
+        return value >= 5;
+    }
+
+    /**
+     * 보여 줄 방향으로 돌리거나 뒤집은 이미지 (NORMAL 이면 그대로).
+     */
+    public BufferedImage apply(BufferedImage image) {
+        if (value == 1) {
+            return image;
+        }
+
+        int w = image.getWidth();
+        int h = image.getHeight();
+        // x' = m00 x + m01 y + m02, y' = m10 x + m11 y + m12
+        AffineTransform transform = switch (value) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            default -> new AffineTransform(0, -1, 1, 0, 0, w);
+        };
+
+        BufferedImage oriented = isQuarterTurn()
+                ? new BufferedImage(h, w, BufferedImage.TYPE_INT_RGB)
+                : new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, oriented.getWidth(), oriented.getHeight());
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return oriented;
+    }
+
+    // SOI 다음 마커들을 훑어 APP1(Exif) 의 IFD0 에서 Orientation 을 찾는다
+    private static int readExifOrientation(DataInputStream in) throws IOException {
+        if (in.readUnsignedShort() != 0xFFD8) {
+            return 1;
+        }
+
+        int scanned = 2;
+        while (scanned < MAX_SCAN_BYTES) {
+            int marker = in.readUnsignedShort();
+            if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                return 1;
+            }
+            int length = in.readUnsignedShort();
+            if (length < 2) {
+                return 1;
+            }
+            if (marker == 0xFFE1) {
+                byte[] segment = new byte[length - 2];
+                in.readFully(segment);
+                int orientation = parseExif(segment);
+                if (orientation != 0) {
+                    return orientation;
+                }
+            } else if (in.skipBytes(length - 2) != length - 2) {
+                throw new EOFException();
+            }
+            scanned += 2 + length;
+        }
+        return 1;
+    }
+
+    // "Exif\0\0" + TIFF 헤더 + IFD0. 찾지 못하면 0
+    private static int parseExif(byte[] segment) {
+        if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i' || segment[3] != 'f'
+                || segment[4] != 0 || segment[5] != 0) {
+            return 0;
+        }
+
+        int tiff = 6;
+        boolean littleEndian;
+        if (segment[tiff] == 'I' && segment[tiff + 1] == 'I') {
+            littleEndian = true;
+        } else if (segment[tiff] == 'M' && segment[tiff + 1] == 'M') {
+            littleEndian = false;
+        } else {
+            return 0;
+        }
+
+        long ifdOffset = readInt(segment, tiff + 4, littleEndian);
+        if (ifdOffset < 8 || tiff + ifdOffset + 2 > segment.length) {
+            return 0;
+        }
+        int ifd = tiff + (int) ifdOffset;
+        int entries = readShort(segment, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > segment.length) {
+                return 0;
+            }
+            if (readShort(segment, entry, littleEndian) == EXIF_ORIENTATION_TAG) {
+                return readShort(segment, entry + 8, littleEndian);
+            }
+        }
+        return 0;
+    }
+
+    private static int readShort(byte[] data, int offset, boolean littleEndian) {
+        int b0 = data[offset] & 0xFF;
+        int b1 = data[offset + 1] & 0xFF;
+        return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+    }
+
+    private static long readInt(byte[] data, int offset, boolean littleEndian) {
+        long high = readShort(data, littleEndian ? offset + 2 : offset, littleEndian);
+        long low = readShort(data, littleEndian ? offset : offset + 2, littleEndian);
+        return (high << 16) | low;
+    }
+}
@@ -0,0 +1,51 @@
+package capstone.cycle.file.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * 이미지의 가로/세로 크기.
+ * 픽셀을 디코딩하지 않고 이미지 헤더만 읽어 구하며, EXIF 방향을 적용한 보이는 크기를 돌려준다.
+ */
+@Getter
+@AllArgsConstructor
+public class ImageSize {
+
+    private final int width;
+    private final int height;
+
+    // 이미지가 아니거나 형식을 알 수 없으면 null
+    public static ImageSize read(Path path) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(path.toFile())) {
+            if (input == null) {
+                return null;
+            }
+
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                return ImageOrientation.read(path).isQuarterTurn()
+                        ? new ImageSize(height, width)
+                        : new ImageSize(width, height);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+}
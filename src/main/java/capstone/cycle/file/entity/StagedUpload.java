@@ -0,0 +1,57 @@
+package capstone.cycle.file.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * 게시글에 아직 연결되지 않은 업로드 파일.
+ * 업로드한 사용자만 만료 전까지 토큰으로 한 번 가져갈 수 있으며, 가져가지 않은 파일은 만료 후 정리된다.
+ */
+@Entity
+@Table(name = "staged_upload", indexes = @Index(name = "idx_staged_upload_expires_at", columnList = "expiresAt"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class StagedUpload {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 24;
+
+    @Id
+    @Column(length = 32)
+    private String token;
+
+    @Column(nullable = false, unique = true)
+    private Long fileId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    public static StagedUpload issue(Long fileId, Long userId, LocalDateTime expiresAt) {
+        byte[] token = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(token);
+        return StagedUpload.builder()
+                .token(Base64.getUrlEncoder().withoutPadding().encodeToString(token))
+                .fileId(fileId)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    public boolean isClaimableBy(Long userId, LocalDateTime now) {
+        return this.userId.equals(userId) && expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,125 @@
+package capstone.cycle.file.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 이어 올리기(조각 업로드) 세션.
+ * 고정 크기 조각을 받을 때마다 받은 조각 비트맵을 갱신하며, 마지막 조각 이후 만료 시각이 지나면 회수된다.
+ */
+@Entity
+@Table(name = "upload_session", indexes = @Index(name = "idx_upload_session_expires_at", columnList = "expiresAt"))
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder(toBuilder = true)
+public class UploadSession {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int ID_BYTES = 18;
+
+    @Id
+    @Column(length = 24)
+    private String id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private String contentName;
+
+    private String originalName;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private long totalSize;
+
+    @Column(nullable = false)
+    private int chunkSize;
+
+    @Column(nullable = false)
+    private int chunkCount;
+
+    // 받은 조각 비트맵 (조각 i 는 i / 8 번째 바이트의 i % 8 번째 비트)
+    @Column(nullable = false, length = 1024)
+    private byte[] receivedChunks;
+
+    // 조각을 기록한 횟수 (다시 보낸 조각 포함). 누적 체크섬을 만든 서버가 모든 기록을 봤는지 확인하는 데 쓴다
+    @Column(nullable = false)
+    private int chunkWrites;
+
+    // 클라이언트가 미리 알려 준 SHA-256 (없으면 완료 요청에서 받는다)
+    @Column(length = 64)
+    private String expectedChecksum;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    public static UploadSession open(Long userId, String contentName, String originalName, String contentType,
+                                     long totalSize, int chunkSize, String expectedChecksum, LocalDateTime expiresAt) {
+        byte[] id = new byte[ID_BYTES];
+        RANDOM.nextBytes(id);
+        int chunkCount = (int) Math.max((totalSize + chunkSize - 1) / chunkSize, 1);
+        return UploadSession.builder()
+                .id(Base64.getUrlEncoder().withoutPadding().encodeToString(id))
+                .userId(userId)
+                .contentName(contentName)
+                .originalName(originalName)
+                .contentType(contentType)
+                .totalSize(totalSize)
+                .chunkSize(chunkSize)
+                .chunkCount(chunkCount)
+                .receivedChunks(new byte[(chunkCount + 7) / 8])
+                .expectedChecksum(expectedChecksum)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    // 조각을 받은 것으로 표시하고 만료 시각을 늦춘 사본
+    public UploadSession withReceivedChunk(int index, LocalDateTime expiresAt) {
+        byte[] received = Arrays.copyOf(receivedChunks, receivedChunks.length);
+        received[index / 8] |= (byte) (1 << (index % 8));
+        return toBuilder()
+                .receivedChunks(received)
+                .chunkWrites(chunkWrites + 1)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    public boolean isOwnedBy(Long userId, LocalDateTime now) {
+        return this.userId.equals(userId) && expiresAt.isAfter(now);
+    }
+
+    public boolean hasChunk(int index) {
+        return (receivedChunks[index / 8] & (1 << (index % 8))) != 0;
+    }
+
+    public boolean isComplete() {
+        for (int i = 0; i < chunkCount; i++) {
+            if (!hasChunk(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long chunkOffset(int index) {
+        return (long) index * chunkSize;
+    }
+
+    // 마지막 조각만 짧을 수 있다
+    public long chunkLength(int index) {
+        return Math.min(chunkSize, totalSize - chunkOffset(index));
+    }
+}
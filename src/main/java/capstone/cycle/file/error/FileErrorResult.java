@@ -12,6 +12,15 @@ public enum FileErrorResult {
     UPLOAD_FAIL(HttpStatus.INTERNAL_SERVER_ERROR, "파일 업로드에 실패하였습니다."),
     FILE_GROUP_NOT_FOUND(HttpStatus.NOT_FOUND, "요청 파일 그룹을 찾을 수 없습니다."),
     FILE_NOT_FOUND(HttpStatus.NOT_FOUND, "요청 파일을 찾을 수 없습니다."),
+    INVALID_FILE_URL(HttpStatus.FORBIDDEN, "만료되었거나 잘못된 파일 주소입니다."),
+    INVALID_UPLOAD_TOKEN(HttpStatus.BAD_REQUEST, "만료되었거나 잘못된 업로드 토큰입니다."),
+    UPLOAD_SESSION_NOT_FOUND(HttpStatus.NOT_FOUND, "업로드 세션을 찾을 수 없거나 만료되었습니다."),
+    FILE_TOO_LARGE(HttpStatus.PAYLOAD_TOO_LARGE, "파일 크기가 제한을 초과했습니다."),
+    REQUEST_TOO_LARGE(HttpStatus.PAYLOAD_TOO_LARGE, "요청 크기가 제한을 초과했습니다."),
+    INVALID_CHUNK(HttpStatus.BAD_REQUEST, "조각 번호나 크기가 올바르지 않습니다."),
+    UPLOAD_INCOMPLETE(HttpStatus.CONFLICT, "아직 받지 못한 조각이 있습니다."),
+    INVALID_MULTIPART(HttpStatus.BAD_REQUEST, "multipart 요청 형식이 올바르지 않습니다."),
+    CHECKSUM_MISMATCH(HttpStatus.BAD_REQUEST, "파일 체크섬이 일치하지 않습니다."),
     DELETE_FAIL(HttpStatus.INTERNAL_SERVER_ERROR, "요청 파일의 삭제를 실패했습니다.")
     ;
 
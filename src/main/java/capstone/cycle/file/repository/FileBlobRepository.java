@@ -0,0 +1,31 @@
+package capstone.cycle.file.repository;
+
+import capstone.cycle.file.entity.FileBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+    // 참조 추가 (처음 보는 내용이면 1, 이미 있던 내용이면 2 반환)
+    @Query(value = "INSERT INTO file_blob (checksum, path, size, ref_count, created_at) " +
+            "VALUES (:checksum, :path, :size, 1, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1",
+            nativeQuery = true)
+    @Modifying
+    int addReference(@Param("checksum") String checksum, @Param("path") String path, @Param("size") long size);
+
+    // 참조 해제 전에 행을 잠가 같은 내용의 동시 업로드와 순서를 맞춘다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM FileBlob b WHERE b.checksum = :checksum")
+    Optional<FileBlob> findForUpdate(@Param("checksum") String checksum);
+
+    @Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.checksum = :checksum AND b.refCount > 0")
+    @Modifying
+    int removeReference(@Param("checksum") String checksum);
+}
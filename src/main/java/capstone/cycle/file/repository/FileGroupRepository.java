@@ -1,10 +1,12 @@
 package capstone.cycle.file.repository;
 
 import capstone.cycle.file.entity.FileGroup;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,8 +18,17 @@ public interface FileGroupRepository extends CrudRepository<FileGroup, Long> {
             "WHERE fg.id = :fileGroupId")
     Optional<FileGroup> findFileGroupWithFiles(@Param("fileGroupId") Long fileGroupId);
 
-    @Query("SELECT fg FROM FileGroup fg " +
-            "LEFT JOIN FETCH fg.files " +
-            "WHERE fg.id IN :fileGroupIds")
-    List<FileGroup> findFileGroupsWithFiles(@Param("fileGroupIds") List<Long> fileGroupIds);
+    @Query("SELECT COUNT(p) > 0 FROM Post p WHERE p.contentImageGroup.id = :fileGroupId")
+    boolean isReferencedByPost(@Param("fileGroupId") Long fileGroupId);
+
+    // 어떤 게시글도 참조하지 않는 파일 그룹 (삭제 예약된 그룹 제외, id 키셋)
+    @Query("SELECT g.id FROM FileGroup g " +
+            "WHERE g.id > :afterId AND g.createdAt < :before " +
+            "AND NOT EXISTS (SELECT p FROM Post p WHERE p.contentImageGroup = g) " +
+            "AND NOT EXISTS (SELECT t FROM FileTombstone t WHERE t.fileGroupId = g.id) " +
+            "ORDER BY g.id ASC")
+    List<Long> findOrphanIds(
+            @Param("afterId") Long afterId,
+            @Param("before") LocalDateTime before,
+            Pageable pageable);
 }
@@ -1,8 +1,36 @@
 package capstone.cycle.file.repository;
 
 import capstone.cycle.file.entity.File;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface FileRepository extends CrudRepository<File, Long> {
 
+    // 그룹에 속하지 않고 프로필 이미지나 대기 중인 업로드도 아닌 파일 (id 키셋)
+    @Query("SELECT f FROM File f " +
+            "WHERE f.id > :afterId AND f.fileGroup IS NULL AND f.createdAt < :before " +
+            "AND NOT EXISTS (SELECT u FROM User u WHERE u.profileImage = f) " +
+            "AND NOT EXISTS (SELECT s FROM StagedUpload s WHERE s.fileId = f.id) " +
+            "ORDER BY f.id ASC")
+    List<File> findOrphans(
+            @Param("afterId") Long afterId,
+            @Param("before") LocalDateTime before,
+            Pageable pageable);
+
+    @Query("SELECT f.id FROM File f WHERE f.fileGroup.id = :fileGroupId")
+    List<Long> findIdsByFileGroupId(@Param("fileGroupId") Long fileGroupId);
+
+    @Query("SELECT f FROM File f WHERE f.id > :afterId ORDER BY f.id ASC")
+    List<File> findAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 읽은 뒤 경로가 바뀌지 않았을 때만 옮긴다 (0 이면 그사이 삭제되었거나 다른 곳에서 옮김)
+    @Modifying
+    @Query("UPDATE File f SET f.path = :newPath WHERE f.id = :id AND f.path = :oldPath")
+    int updatePath(@Param("id") Long id, @Param("oldPath") String oldPath, @Param("newPath") String newPath);
 }
@@ -0,0 +1,23 @@
+package capstone.cycle.file.repository;
+
+import capstone.cycle.file.entity.FileTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface FileTombstoneRepository extends JpaRepository<FileTombstone, Long> {
+
+    // 처리할 삭제 작업 (오래된 것부터, 실패가 반복된 작업은 제외)
+    @Query("SELECT t FROM FileTombstone t WHERE t.attempts < :maxAttempts ORDER BY t.id ASC")
+    List<FileTombstone> findPending(@Param("maxAttempts") int maxAttempts, Pageable pageable);
+
+    @Transactional
+    @Query("UPDATE FileTombstone t SET t.attempts = t.attempts + 1 WHERE t.id = :id")
+    @Modifying
+    int incrementAttempts(@Param("id") Long id);
+}
@@ -0,0 +1,24 @@
+package capstone.cycle.file.repository;
+
+import capstone.cycle.file.entity.StagedUpload;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface StagedUploadRepository extends JpaRepository<StagedUpload, String> {
+
+    // 같은 토큰으로 동시에 두 게시글에 연결하지 못하도록 잠근다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StagedUpload s WHERE s.token IN :tokens")
+    List<StagedUpload> findAllForUpdate(@Param("tokens") Collection<String> tokens);
+
+    @Query("SELECT s FROM StagedUpload s WHERE s.expiresAt < :now ORDER BY s.expiresAt ASC")
+    List<StagedUpload> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,24 @@
+package capstone.cycle.file.repository;
+
+import capstone.cycle.file.entity.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    // 동시에 도착한 조각들의 비트맵 갱신이 서로 덮어쓰지 않도록 잠근다
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findForUpdate(@Param("id") String id);
+
+    @Query("SELECT s.id FROM UploadSession s WHERE s.expiresAt < :now ORDER BY s.expiresAt ASC")
+    List<String> findExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+}
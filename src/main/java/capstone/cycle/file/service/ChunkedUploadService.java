@@ -0,0 +1,398 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.dto.StagedUploadDTO;
+import capstone.cycle.file.dto.StoredFileDTO;
+import capstone.cycle.file.dto.UploadSessionCreateDTO;
+import capstone.cycle.file.dto.UploadSessionDTO;
+import capstone.cycle.file.entity.UploadSession;
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
+import capstone.cycle.file.repository.UploadSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 이어 올리기(조각 업로드).
+ *
+ * 세션을 열면 파일 하나를 만들고, 고정 크기 조각을 받을 때마다 요청 본문을 그 조각 위치에 바로 기록한다
+ * (Tomcat 임시 파일이나 조각 파일을 거치지 않는다). 받은 조각은 세션 행의 비트맵에 표시하므로
+ * 연결이 끊겨도 빠진 조각만 다시 보내면 된다.
+ * 체크섬은 앞에서부터 이어진 조각이 도착하는 대로 누적하고, 완료 시 남은 구간만 읽어 마저 계산해 비교한다.
+ * 같은 조각을 동시에 쓰거나 이미 반영된 구간을 다시 썼거나 다른 서버도 조각을 기록했으면, 누적값이 디스크 내용과
+ * 어긋날 수 있으므로 버리고 완료 시 파일 전체를 읽어 계산한다 (틀린 체크섬으로 내용 주소 저장소에 들어가지 않도록).
+ * 완료된 파일은 복사 없이 저장소로 옮겨 업로드 토큰을 발급하며, 만료된 세션은 주기적으로 회수한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadService {
+
+    private static final int MAX_CHUNKS = 8192;
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final FileStorageLayout fileStorageLayout;
+    private final FileUploadPipeline fileUploadPipeline;
+    private final FileService fileService;
+    private final TransactionTemplate transactionTemplate;
+
+    // 세션별로 앞에서부터 이어서 받은 구간의 체크섬 (서버가 재시작되면 완료 시 처음부터 읽는다)
+    // 다른 서버에서 완료되거나 만료된 세션의 항목은 세션 유지 시간 동안 쓰이지 않으면 회수 작업이 지운다
+    private final Map<String, RunningDigest> digests = new ConcurrentHashMap<>();
+
+    @Value("${file.chunked.chunk-size:4194304}")
+    private int chunkSize;
+
+    @Value("${file.chunked.max-size:2147483648}")
+    private long maxSize;
+
+    // 마지막 조각을 받은 뒤 이 시간 동안 이어서 올릴 수 있다
+    @Value("${file.chunked.session-ttl-minutes:1440}")
+    private long sessionTtlMinutes;
+
+    @Value("${file.chunked.reclaim-batch-size:100}")
+    private int reclaimBatchSize;
+
+    public UploadSessionDTO open(UploadSessionCreateDTO request, String contentName, Long userId) {
+        if (request.getSize() <= 0) {
+            throw new FileException(FileErrorResult.EMPTY_FILE);
+        }
+        if (request.getSize() > maxSize || (request.getSize() + chunkSize - 1) / chunkSize > MAX_CHUNKS) {
+            throw new FileException(FileErrorResult.FILE_TOO_LARGE);
+        }
+
+        UploadSession session = UploadSession.open(userId, contentName, request.getOriginalName(),
+                request.getContentType(), request.getSize(), chunkSize, normalizeChecksum(request.getChecksum()),
+                LocalDateTime.now().plusMinutes(sessionTtlMinutes));
+
+        Path path = fileStorageLayout.chunkedUploadPath(session.getId());
+        try {
+            Files.createDirectories(path.getParent());
+            Files.createFile(path);
+        } catch (IOException e) {
+            log.error("Failed to create upload session file: {}", path, e);
+            throw new FileException(FileErrorResult.UPLOAD_FAIL);
+        }
+
+        digests.put(session.getId(), new RunningDigest());
+        return UploadSessionDTO.from(uploadSessionRepository.save(session));
+    }
+
+    public UploadSessionDTO getStatus(String sessionId, Long userId) {
+        return UploadSessionDTO.from(findOwnedSession(sessionId, userId));
+    }
+
+    /**
+     * 조각 하나를 요청 본문에서 파일의 해당 위치로 바로 기록한다. 같은 조각을 다시 보내면 덮어쓴다.
+     * contentLength 를 모르면 -1.
+     */
+    public UploadSessionDTO writeChunk(String sessionId, int index, long contentLength, InputStream body, Long userId) {
+        UploadSession session = findOwnedSession(sessionId, userId);
+        if (index < 0 || index >= session.getChunkCount()) {
+            throw new FileException(FileErrorResult.INVALID_CHUNK);
+        }
+        long offset = session.chunkOffset(index);
+        long length = session.chunkLength(index);
+        if (contentLength >= 0 && contentLength != length) {
+            throw new FileException(FileErrorResult.INVALID_CHUNK);
+        }
+
+        RunningDigest running = digests.computeIfAbsent(sessionId, id -> new RunningDigest());
+        MessageDigest working = running.begin(index, offset);
+
+        boolean completed = false;
+        try (FileChannel channel = FileChannel.open(fileStorageLayout.chunkedUploadPath(sessionId),
+                StandardOpenOption.WRITE)) {
+            byte[] bytes = new byte[IO_BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long written = 0;
+            int read;
+            while (written < length
+                    && (read = body.read(bytes, 0, (int) Math.min(bytes.length, length - written))) > 0) {
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer, offset + written + buffer.position());
+                }
+                if (working != null) {
+                    working.update(bytes, 0, read);
+                }
+                written += read;
+            }
+            if (written != length || body.read() != -1) {
+                throw new FileException(FileErrorResult.INVALID_CHUNK);
+            }
+            completed = true;
+        } catch (NoSuchFileException e) {
+            throw new FileException(FileErrorResult.UPLOAD_SESSION_NOT_FOUND);
+        } catch (IOException e) {
+            log.warn("Failed to write chunk. sessionId: {}, index: {}", sessionId, index, e);
+            throw new FileException(FileErrorResult.UPLOAD_FAIL);
+        } finally {
+            // 실패한 기록은 체크섬을 앞으로 옮기지 않는다 (그 구간은 아직 반영 전이라 다시 보내면 된다)
+            running.end(index, offset, length, working, completed);
+        }
+
+        UploadSession updated = transactionTemplate.execute(status -> {
+            UploadSession locked = uploadSessionRepository.findForUpdate(sessionId)
+                    .orElseThrow(() -> new FileException(FileErrorResult.UPLOAD_SESSION_NOT_FOUND));
+            return uploadSessionRepository.save(
+                    locked.withReceivedChunk(index, LocalDateTime.now().plusMinutes(sessionTtlMinutes)));
+        });
+        return UploadSessionDTO.from(updated);
+    }
+
+    /**
+     * 모든 조각을 받았으면 체크섬을 확인하고 저장소로 옮겨 업로드 토큰을 발급한다.
+     * 체크섬이 다르면 세션을 버리므로 처음부터 다시 올려야 한다.
+     */
+    public StagedUploadDTO complete(String sessionId, String checksum, Long userId) {
+        // 형식이 잘못된 체크섬은 세션 행을 지우기 전에 거절한다 (지운 뒤에 실패하면 조립 파일이 남는다)
+        String requestedChecksum = checksum != null ? normalizeChecksum(checksum) : null;
+        UploadSession session = findOwnedSession(sessionId, userId);
+        if (!session.isComplete()) {
+            throw new FileException(FileErrorResult.UPLOAD_INCOMPLETE);
+        }
+
+        // 이 서버에서 아직 기록 중인 조각이 없을 때만 닫고, 닫은 뒤에는 새 조각 기록을 받지 않는다
+        // (항목은 지우지 않고 남겨 두어, 완료 중에 도착한 조각이 새 항목을 만들어 파일에 쓰지 못하게 한다)
+        RunningDigest running = digests.computeIfAbsent(sessionId, id -> new RunningDigest());
+        if (!running.close()) {
+            throw new FileException(FileErrorResult.UPLOAD_INCOMPLETE);
+        }
+
+        // 세션 행을 먼저 지운 요청만 완료를 진행한다 (동시 완료 요청 방지)
+        UploadSession claimed = transactionTemplate.execute(status -> uploadSessionRepository.findForUpdate(sessionId)
+                .map(locked -> {
+                    uploadSessionRepository.delete(locked);
+                    return locked;
+                })
+                .orElse(null));
+        if (claimed == null) {
+            throw new FileException(FileErrorResult.UPLOAD_SESSION_NOT_FOUND);
+        }
+
+        // 여기부터는 세션 행이 없어 회수 작업이 파일을 찾지 못하므로, 실패하면 직접 지운다
+        Path path = fileStorageLayout.chunkedUploadPath(sessionId);
+        String expected = requestedChecksum != null ? requestedChecksum : claimed.getExpectedChecksum();
+        StoredFileDTO storedFile;
+        try {
+            String actual = finishDigest(running, claimed.getChunkWrites(), path, claimed.getTotalSize());
+            if (expected != null && !expected.equals(actual)) {
+                throw new FileException(FileErrorResult.CHECKSUM_MISMATCH);
+            }
+            storedFile = fileUploadPipeline.adopt(path, claimed.getContentName(),
+                    claimed.getOriginalName(), claimed.getContentType(), claimed.getTotalSize(), actual);
+        } catch (RuntimeException e) {
+            deleteQuietly(path);
+            throw e;
+        }
+        return fileService.stageStoredFiles(List.of(storedFile), userId).get(0);
+    }
+
+    public void abort(String sessionId, Long userId) {
+        findOwnedSession(sessionId, userId);
+        uploadSessionRepository.deleteById(sessionId);
+        digests.remove(sessionId);
+        deleteQuietly(fileStorageLayout.chunkedUploadPath(sessionId));
+    }
+
+    // 만료된 세션의 행과 파일을 지운다 (그사이 조각이 도착해 연장된 세션은 남긴다)
+    @Scheduled(fixedDelayString = "${file.chunked.reclaim-interval-ms:600000}")
+    public void reclaimExpired() {
+        int reclaimed = 0;
+        List<String> expiredIds;
+        do {
+            expiredIds = uploadSessionRepository.findExpiredIds(LocalDateTime.now(),
+                    PageRequest.of(0, reclaimBatchSize));
+            for (String sessionId : expiredIds) {
+                try {
+                    Boolean deleted = transactionTemplate.execute(status -> uploadSessionRepository
+                            .findForUpdate(sessionId)
+                            .filter(session -> session.getExpiresAt().isBefore(LocalDateTime.now()))
+                            .map(session -> {
+                                uploadSessionRepository.delete(session);
+                                return true;
+                            })
+                            .orElse(false));
+                    if (Boolean.TRUE.equals(deleted)) {
+                        digests.remove(sessionId);
+                        deleteQuietly(fileStorageLayout.chunkedUploadPath(sessionId));
+                        reclaimed++;
+                    }
+                } catch (Exception e) {
+                    log.warn("Failed to reclaim upload session. sessionId: {}", sessionId, e);
+                }
+            }
+        } while (expiredIds.size() == reclaimBatchSize);
+
+        // 다른 서버에서 완료되거나 회수된 세션의 누적 체크섬
+        long idleBefore = System.nanoTime() - TimeUnit.MINUTES.toNanos(sessionTtlMinutes);
+        digests.values().removeIf(running -> running.isIdleSince(idleBefore));
+
+        if (reclaimed > 0) {
+            log.info("Expired upload sessions reclaimed: {}", reclaimed);
+        }
+    }
+
+    private UploadSession findOwnedSession(String sessionId, Long userId) {
+        return uploadSessionRepository.findById(sessionId)
+                .filter(session -> session.isOwnedBy(userId, LocalDateTime.now()))
+                .orElseThrow(() -> new FileException(FileErrorResult.UPLOAD_SESSION_NOT_FOUND));
+    }
+
+    // 누적한 체크섬에 이어서 남은 구간만 읽어 마저 계산 (누적값을 믿을 수 없으면 처음부터)
+    private String finishDigest(RunningDigest running, int chunkWrites, Path path, long totalSize) {
+        MessageDigest digest = running.resume(chunkWrites);
+        long offset = digest != null ? running.hashedOffset() : 0;
+        if (digest == null) {
+            digest = RunningDigest.newDigest();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != totalSize) {
+                throw new FileException(FileErrorResult.UPLOAD_INCOMPLETE);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(IO_BUFFER_SIZE);
+            while (offset < totalSize) {
+                buffer.clear();
+                int read = channel.read(buffer, offset);
+                if (read < 0) {
+                    break;
+                }
+                buffer.flip();
+                digest.update(buffer);
+                offset += read;
+            }
+        } catch (IOException e) {
+            log.error("Failed to read uploaded file: {}", path, e);
+            throw new FileException(FileErrorResult.UPLOAD_FAIL);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private String normalizeChecksum(String checksum) {
+        if (checksum == null || checksum.isBlank()) {
+            return null;
+        }
+        String normalized = checksum.trim().toLowerCase();
+        if (!SHA256_HEX.matcher(normalized).matches()) {
+            throw new FileException(FileErrorResult.CHECKSUM_MISMATCH);
+        }
+        return normalized;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete upload session file: {}", path, e);
+        }
+    }
+
+    /**
+     * 파일 앞부분부터 빈틈없이 받은 구간의 SHA-256.
+     * 그 구간 바로 뒤 조각을 기록할 때 사본을 받아 본문을 기록하면서 갱신하고, 기록이 끝나면 되돌려 놓는다.
+     * 같은 조각을 동시에 쓰거나 이미 반영된 구간을 다시 쓰기 시작하면 디스크 내용과 어긋날 수 있으므로 더 쓰지 않는다.
+     */
+    private static final class RunningDigest {
+        private MessageDigest digest = newDigest();
+        private long hashedOffset;
+        private boolean valid = true;
+        private boolean closed;
+        // 이 서버에서 기록을 마친 조각 수
+        private int writes;
+        // 기록 중인 조각 번호
+        private final Set<Integer> writing = new HashSet<>();
+        private long lastUsedNanos = System.nanoTime();
+
+        private static MessageDigest newDigest() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        // 조각 기록 시작. offset 이 이어진 구간 끝이면 갱신할 사본, 아니면 null
+        private synchronized MessageDigest begin(int index, long offset) {
+            if (closed) {
+                throw new FileException(FileErrorResult.UPLOAD_SESSION_NOT_FOUND);
+            }
+            lastUsedNanos = System.nanoTime();
+            if (!writing.add(index) || offset < hashedOffset) {
+                valid = false;
+            }
+            return valid && offset == hashedOffset ? copy() : null;
+        }
+
+        private synchronized void end(int index, long offset, long length, MessageDigest advanced, boolean completed) {
+            writing.remove(index);
+            lastUsedNanos = System.nanoTime();
+            if (!completed) {
+                return;
+            }
+            writes++;
+            if (advanced != null && valid && offset == hashedOffset) {
+                digest = advanced;
+                hashedOffset += length;
+            }
+        }
+
+        // 기록 중인 조각이 없으면 닫고 true
+        private synchronized boolean close() {
+            if (!writing.isEmpty()) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        // 모든 조각 기록을 이 서버가 했고 누적값이 유효하면 이어서 계산할 사본, 아니면 null
+        private synchronized MessageDigest resume(int chunkWrites) {
+            return valid && writes == chunkWrites ? copy() : null;
+        }
+
+        private synchronized long hashedOffset() {
+            return hashedOffset;
+        }
+
+        private synchronized boolean isIdleSince(long nanos) {
+            return writing.isEmpty() && lastUsedNanos - nanos < 0;
+        }
+
+        private MessageDigest copy() {
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                valid = false;
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.dto.StoredFileDTO;
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.entity.FileBlob;
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
+import capstone.cycle.file.repository.FileBlobRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 내용 주소(체크섬) 기반 파일 저장소.
+ *
+ * 업로드는 임시 경로에 기록한 뒤, 메타데이터를 저장하는 트랜잭션 안에서 file_blob 참조를 추가한다.
+ * 처음 보는 내용이면 임시 파일을 FileStorageLayout.blobPath 로 옮기고, 이미 있는 내용이면 임시 파일을 버린다.
+ * 마지막 참조가 사라지면 행만 지우고, 실제 파일은 FileReaper 가 커밋 후 행(자리)을 다시 잠근 채로 지운다.
+ * 그동안 같은 내용의 업로드는 행 잠금에서 기다렸다가 새 행을 만들고 파일을 다시 놓는다.
+ */
+@Slf4j
+@Component
+public class FileBlobStore {
+
+    private final FileBlobRepository fileBlobRepository;
+    private final FileStorageLayout fileStorageLayout;
+    private final boolean enabled;
+
+    private final LongAdder storedUploads = new LongAdder();
+    private final LongAdder deduplicatedUploads = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public FileBlobStore(
+            FileBlobRepository fileBlobRepository,
+            FileStorageLayout fileStorageLayout,
+            @Value("${file.storage.dedup-enabled:true}") boolean enabled,
+            MeterRegistry meterRegistry
+    ) {
+        this.fileBlobRepository = fileBlobRepository;
+        this.fileStorageLayout = fileStorageLayout;
+        this.enabled = enabled;
+
+        FunctionCounter.builder("file.storage.uploads", storedUploads, LongAdder::sum)
+                .tag("result", "stored").register(meterRegistry);
+        FunctionCounter.builder("file.storage.uploads", deduplicatedUploads, LongAdder::sum)
+                .tag("result", "deduplicated").register(meterRegistry);
+        FunctionCounter.builder("file.storage.bytes.saved", bytesSaved, LongAdder::sum)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("file.storage.dedup.ratio", this, FileBlobStore::dedupRatio)
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 메타데이터 저장 트랜잭션 안에서 호출. 참조를 추가하고 임시 파일을 옮기거나 버린다.
+     */
+    public void commit(StoredFileDTO storedFile) {
+        Path staging = fileStorageLayout.resolve(storedFile.getStagingPath());
+        Path target = fileStorageLayout.resolve(storedFile.getPath());
+        try {
+            if (fileBlobRepository.addReference(storedFile.getChecksum(), storedFile.getPath(), storedFile.getSize()) == 1) {
+                Files.createDirectories(target.getParent());
+                Files.move(staging, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                storedUploads.increment();
+            } else {
+                Files.deleteIfExists(staging);
+                deduplicatedUploads.increment();
+                bytesSaved.add(storedFile.getSize());
+            }
+        } catch (IOException e) {
+            log.error("Failed to commit blob: {}", storedFile.getChecksum(), e);
+            throw new FileException(FileErrorResult.UPLOAD_FAIL);
+        }
+    }
+
+    /**
+     * 파일 행 삭제 전에 호출. 저장소가 관리하는 파일이면 참조를 해제한다.
+     * 더 이상 아무도 참조하지 않는 경로가 되면(마지막 참조이거나 저장소 도입 전 파일) true 를 반환하며,
+     * 실제 파일 삭제는 호출한 쪽이 커밋 후에 한다.
+     */
+    public boolean release(File file) {
+        if (file.getChecksum() == null) {
+            return true;
+        }
+
+        Optional<FileBlob> blob = fileBlobRepository.findForUpdate(file.getChecksum());
+        if (blob.isEmpty() || !blob.get().getPath().equals(file.getPath())) {
+            return true;
+        }
+
+        if (blob.get().getRefCount() <= 1) {
+            fileBlobRepository.deleteById(blob.get().getChecksum());
+            return true;
+        }
+        fileBlobRepository.removeReference(blob.get().getChecksum());
+        return false;
+    }
+
+    /**
+     * 경로의 파일을 지워도 되는지 확인. 같은 내용이 다시 올라와 file_blob 행이 그 경로를 가리키면 false.
+     * 행(또는 행이 들어갈 자리)을 잠그므로, 호출한 트랜잭션이 끝날 때까지 같은 내용의 업로드는 기다린다.
+     */
+    public boolean isDeletable(String path, String checksum) {
+        if (checksum == null) {
+            return true;
+        }
+        return fileBlobRepository.findForUpdate(checksum)
+                .map(blob -> !blob.getPath().equals(path))
+                .orElse(true);
+    }
+
+    /**
+     * 체크섬의 file_blob 행이 있는지 확인. 행에 저장된 경로와 관계없이 내용이 아직 쓰이고 있다는 뜻이다.
+     * isDeletable 과 같이 행(또는 행이 들어갈 자리)을 잠근다.
+     */
+    public boolean isReferenced(String checksum) {
+        return fileBlobRepository.findForUpdate(checksum).isPresent();
+    }
+
+    private double dedupRatio() {
+        long deduplicated = deduplicatedUploads.sum();
+        long total = deduplicated + storedUploads.sum();
+        return total == 0 ? 0 : (double) deduplicated / total;
+    }
+}
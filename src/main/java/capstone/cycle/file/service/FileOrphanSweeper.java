@@ -0,0 +1,197 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.repository.FileGroupRepository;
+import capstone.cycle.file.repository.FileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 아무도 참조하지 않는 파일을 찾아 지우는 주기 작업 (mark-and-sweep).
+ *
+ * 1. 어떤 게시글도 참조하지 않는 FileGroup 을 삭제 예약한다.
+ * 2. 그룹에 속하지 않고 프로필 이미지로도 쓰이지 않는 File 을 삭제 예약한다.
+ * 3. 내용 주소 저장소에서 file_blob 행이 없는 파일과 남은 임시 파일을 지운다.
+ * 업로드 직후 아직 연결되지 않은 파일을 건드리지 않도록 유예 시간이 지난 것만 보며,
+ * 묶음 사이에 쉬어 DB 와 디스크 부하를 제한한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileOrphanSweeper {
+
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern VARIANT_NAME = Pattern.compile("([0-9a-f]{64})\\.w\\d+\\.jpg");
+
+    private final FileGroupRepository fileGroupRepository;
+    private final FileRepository fileRepository;
+    private final FileReaper fileReaper;
+    private final FileBlobStore fileBlobStore;
+    private final FileStorageLayout fileStorageLayout;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${file.sweeper.grace-minutes:60}")
+    private long graceMinutes;
+
+    @Value("${file.sweeper.batch-size:500}")
+    private int batchSize;
+
+    @Value("${file.sweeper.batch-pause-ms:200}")
+    private long batchPauseMillis;
+
+    @Scheduled(cron = "${file.sweeper.cron:0 0 5 * * *}")
+    public void sweep() {
+        LocalDateTime before = LocalDateTime.now().minusMinutes(graceMinutes);
+        try {
+            int groups = sweepFileGroups(before);
+            int files = sweepFiles(before);
+            int blobs = sweepBlobDirectory(Instant.now().minus(Duration.ofMinutes(graceMinutes)));
+            log.info("File orphan sweep finished. groups: {}, files: {}, blobs: {}", groups, files, blobs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int sweepFileGroups(LocalDateTime before) throws InterruptedException {
+        int swept = 0;
+        long afterId = 0;
+        List<Long> orphanIds;
+        do {
+            orphanIds = fileGroupRepository.findOrphanIds(afterId, before, PageRequest.of(0, batchSize));
+            if (!orphanIds.isEmpty()) {
+                List<Long> batch = orphanIds;
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(fileReaper::retireFileGroup));
+                afterId = orphanIds.get(orphanIds.size() - 1);
+                swept += orphanIds.size();
+                Thread.sleep(batchPauseMillis);
+            }
+        } while (orphanIds.size() == batchSize);
+        return swept;
+    }
+
+    private int sweepFiles(LocalDateTime before) throws InterruptedException {
+        int swept = 0;
+        long afterId = 0;
+        List<File> orphans;
+        do {
+            orphans = fileRepository.findOrphans(afterId, before, PageRequest.of(0, batchSize));
+            if (!orphans.isEmpty()) {
+                List<File> batch = orphans;
+                transactionTemplate.executeWithoutResult(status -> batch.forEach(file -> {
+                    fileReaper.retire(file);
+                    fileRepository.deleteById(file.getId());
+                }));
+                afterId = orphans.get(orphans.size() - 1).getId();
+                swept += orphans.size();
+                Thread.sleep(batchPauseMillis);
+            }
+        } while (orphans.size() == batchSize);
+        return swept;
+    }
+
+    // blobs/ 아래에서 행이 없는 내용 파일과 오래된 임시 파일을 지운다 (변형 파일은 원본과 함께 지워진다)
+    private int sweepBlobDirectory(Instant before) throws InterruptedException {
+        Path root = fileStorageLayout.blobRoot();
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        int swept = 0;
+        List<Path> batch = new ArrayList<>(batchSize);
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isRegularFile(path) && isOlderThan(path, before)) {
+                    batch.add(path);
+                }
+                if (batch.size() == batchSize) {
+                    swept += sweepBlobs(batch);
+                    batch.clear();
+                    Thread.sleep(batchPauseMillis);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to walk blob directory: {}", root, e);
+        }
+        return swept + sweepBlobs(batch);
+    }
+
+    private int sweepBlobs(List<Path> paths) {
+        int swept = 0;
+        for (Path path : paths) {
+            String name = path.getFileName().toString();
+
+            // 원본이 없는 변형
+            Matcher variant = VARIANT_NAME.matcher(name);
+            if (variant.matches()) {
+                if (!Files.exists(path.resolveSibling(variant.group(1)))) {
+                    swept += deleteQuietly(path);
+                }
+                continue;
+            }
+
+            boolean staging = name.endsWith(".part");
+            if (!staging && !BLOB_NAME.matcher(name).matches()) {
+                continue;
+            }
+
+            try {
+                // 행(자리)을 잠근 채로 확인하고 지워 같은 내용의 동시 업로드와 겹치지 않게 한다.
+                // 파일 이름이 체크섬이므로, 행에 적힌 경로 표기와 관계없이 행이 있으면 남긴다
+                Boolean deleted = transactionTemplate.execute(status -> {
+                    if (!staging && fileBlobStore.isReferenced(name)) {
+                        return false;
+                    }
+                    try {
+                        return Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                if (Boolean.TRUE.equals(deleted)) {
+                    imageVariantService.deleteVariants(path);
+                    swept++;
+                }
+            } catch (Exception e) {
+                log.warn("Failed to sweep blob file: {}", path, e);
+            }
+        }
+        return swept;
+    }
+
+    private int deleteQuietly(Path path) {
+        try {
+            return Files.deleteIfExists(path) ? 1 : 0;
+        } catch (IOException e) {
+            log.warn("Failed to sweep file: {}", path, e);
+            return 0;
+        }
+    }
+
+    private boolean isOlderThan(Path path, Instant before) {
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            return modified.toInstant().isBefore(before);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
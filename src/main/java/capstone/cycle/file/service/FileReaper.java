@@ -0,0 +1,168 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.entity.FileGroup;
+import capstone.cycle.file.entity.FileTombstone;
+import capstone.cycle.file.repository.FileGroupRepository;
+import capstone.cycle.file.repository.FileTombstoneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 파일 삭제 처리기.
+ *
+ * 요청 트랜잭션에서는 DB 행 변경과 file_tombstone 기록만 하고, 디스크 삭제는 커밋 후 이 작업이 묶음 단위로 한다.
+ * 롤백되면 묘비도 함께 사라지므로 DB 가 지워진 파일을 가리키는 일이 없다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileReaper {
+
+    private final FileTombstoneRepository fileTombstoneRepository;
+    private final FileGroupRepository fileGroupRepository;
+    private final FileBlobStore fileBlobStore;
+    private final FileStorageLayout fileStorageLayout;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+
+    private final AtomicBoolean runRequested = new AtomicBoolean();
+    private final ReentrantLock running = new ReentrantLock();
+
+    @Value("${file.reaper.batch-size:200}")
+    private int batchSize;
+
+    @Value("${file.reaper.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * 파일 행을 지우기 전에 호출(요청 트랜잭션 안). 참조를 해제하고, 더 이상 참조되지 않는 경로면 삭제를 예약한다.
+     */
+    public void retire(File file) {
+        if (fileBlobStore.release(file)) {
+            fileTombstoneRepository.save(FileTombstone.ofPath(file.getPath(), file.getChecksum()));
+            requestRunAfterCommit();
+        }
+    }
+
+    // 다른 경로로 옮긴 뒤 남은 이전 경로의 삭제 예약 (파일 행은 이미 새 경로를 가리킨다)
+    public void retirePath(String path) {
+        fileTombstoneRepository.save(FileTombstone.ofPath(path, null));
+        requestRunAfterCommit();
+    }
+
+    // 파일 그룹 전체 삭제 예약 (파일 수와 관계없이 행 하나만 기록)
+    public void retireFileGroup(Long fileGroupId) {
+        fileTombstoneRepository.save(FileTombstone.ofFileGroup(fileGroupId));
+        requestRunAfterCommit();
+    }
+
+    @Scheduled(fixedDelayString = "${file.reaper.interval-ms:30000}")
+    public void reap() {
+        runRequested.set(false);
+        // 예약 실행과 커밋 후 실행이 겹치면 먼저 시작한 쪽이 남은 묘비까지 처리한다
+        if (!running.tryLock()) {
+            return;
+        }
+        try {
+            int processed;
+            List<FileTombstone> tombstones;
+            do {
+                processed = 0;
+                tombstones = fileTombstoneRepository.findPending(maxAttempts, PageRequest.of(0, batchSize));
+                for (FileTombstone tombstone : tombstones) {
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> process(tombstone));
+                        processed++;
+                    } catch (Exception e) {
+                        log.warn("Failed to reap file tombstone. id: {}", tombstone.getId(), e);
+                        fileTombstoneRepository.incrementAttempts(tombstone.getId());
+                    }
+                }
+                // 묶음이 가득 찼고 처리한 것이 있을 때만 다음 묶음으로 (실패만 반복되는 경우 방지)
+            } while (tombstones.size() == batchSize && processed > 0);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private void process(FileTombstone tombstone) {
+        if (tombstone.isFileGroup()) {
+            reapFileGroup(tombstone.getFileGroupId());
+        } else {
+            reapPath(tombstone.getPath(), tombstone.getChecksum());
+        }
+        fileTombstoneRepository.deleteById(tombstone.getId());
+    }
+
+    // 그룹의 파일마다 참조를 해제하고 경로 묘비를 남긴 뒤 그룹과 파일 행을 지운다 (디스크 삭제는 다음 묶음에서)
+    private void reapFileGroup(Long fileGroupId) {
+        FileGroup fileGroup = fileGroupRepository.findFileGroupWithFiles(fileGroupId).orElse(null);
+        if (fileGroup == null) {
+            return;
+        }
+        if (fileGroupRepository.isReferencedByPost(fileGroupId)) {
+            log.warn("Skip reaping file group still referenced by a post. fileGroupId: {}", fileGroupId);
+            return;
+        }
+
+        for (File file : fileGroup.getFiles()) {
+            if (fileBlobStore.release(file)) {
+                fileTombstoneRepository.save(FileTombstone.ofPath(file.getPath(), file.getChecksum()));
+            }
+        }
+        fileGroupRepository.delete(fileGroup);
+    }
+
+    private void reapPath(String pathName, String checksum) {
+        // 그사이 같은 내용이 다시 올라왔으면 파일을 남긴다
+        if (!fileBlobStore.isDeletable(pathName, checksum)) {
+            return;
+        }
+
+        Path path = fileStorageLayout.resolve(pathName);
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to delete file: " + pathName, e);
+        }
+        imageVariantService.deleteVariants(path);
+    }
+
+    // 커밋 직후 한 번 실행되도록 예약 (여러 요청이 겹치면 한 번으로 합친다)
+    private void requestRunAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleRun();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleRun();
+            }
+        });
+    }
+
+    private void scheduleRun() {
+        if (runRequested.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::reap, Instant.now());
+        }
+    }
+}
@@ -2,6 +2,8 @@ package capstone.cycle.file.service;
 
 import capstone.cycle.file.dto.FileDTO;
 import capstone.cycle.file.dto.FileGroupDTO;
+import capstone.cycle.file.dto.StagedUploadDTO;
+import capstone.cycle.file.dto.StoredFileDTO;
 import capstone.cycle.file.entity.File;
 import capstone.cycle.file.entity.FileGroup;
 import capstone.cycle.user.entity.User;
@@ -9,13 +11,33 @@ import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 
 public interface FileService {
 
     FileDTO uploadFile(MultipartFile file, String contentName);
     FileGroupDTO uploadFiles(List<MultipartFile> files, String contentName);
+
+    // 저장소 기록만 수행 (DB 미접근, 트랜잭션 밖에서 호출)
+    List<StoredFileDTO> storeFiles(List<MultipartFile> files, String contentName);
+    // 기록을 마친 파일의 메타데이터 저장 (호출한 트랜잭션이 롤백되면 기록한 파일도 삭제)
+    FileGroup saveFileGroup(List<StoredFileDTO> storedFiles);
+    List<File> saveFiles(List<StoredFileDTO> storedFiles);
+    void discardStoredFiles(List<StoredFileDTO> storedFiles);
+
+    // 게시글보다 먼저 파일만 올려 두고 업로드 토큰을 받는다 (바이트 전송 중에는 트랜잭션 없음)
+    List<StagedUploadDTO> stageFiles(List<MultipartFile> files, String contentName, Long userId);
+    // 요청 본문을 받는 대로 기록해 토큰을 발급한다 (컨테이너가 multipart 를 미리 풀지 않은 요청)
+    List<StagedUploadDTO> stageFileStream(MultipartStreamReader reader, String fieldName, String contentName, Long userId);
+    // 이미 기록을 마친 파일(이어 올리기 등)에 업로드 토큰을 발급한다
+    List<StagedUploadDTO> stageStoredFiles(List<StoredFileDTO> storedFiles, Long userId);
+    // 호출한 트랜잭션 안에서 토큰의 파일들을 그룹에 붙인다 (그룹이 없으면 새로 만든다)
+    FileGroup attachStagedFiles(FileGroup fileGroup, List<String> tokens, Long userId);
+
     void deleteFile(Long fileId);
+    // 그룹에서 주어진 파일들을 한 번에 제거한 새 그룹 반환
+    FileGroup deleteFiles(FileGroup fileGroup, Collection<Long> fileIds);
     File getFile(Long fileId);
     FileGroup getFileGroup(Long fileGroupId);
     void deleteFileGroup(Long fileGroupId);
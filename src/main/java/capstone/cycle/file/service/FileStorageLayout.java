@@ -0,0 +1,115 @@
+package capstone.cycle.file.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 업로드 저장소의 경로 규칙.
+ *
+ * 한 디렉터리에 파일이 몰리지 않도록 파일 이름(UUID 또는 체크섬) 앞 네 글자로 두 단계 하위 디렉터리를 만든다.
+ *   일반 파일: {upload-dir}/{contentName}/ab/cd/{name}
+ *   내용 주소 파일: {upload-dir}/blobs/ab/cd/{checksum}
+ * 저장된 File.path 는 이전 규칙({upload-dir}/{contentName}/{name})일 수도 있으므로,
+ * 파일을 읽거나 지우는 쪽은 모두 resolve() 로 경로를 얻는다.
+ */
+@Component
+public class FileStorageLayout {
+
+    private static final String BLOB_DIR = "blobs";
+    private static final String STAGING_DIR = ".staging";
+    private static final String CHUNKED_UPLOAD_DIR = ".uploads";
+    private static final Pattern PREFIX_DIR = Pattern.compile("[0-9a-f]{2}");
+
+    private final Path uploadRoot;
+    private final Path blobRoot;
+
+    public FileStorageLayout(@Value("${file.upload-dir}") String uploadDir) {
+        this.uploadRoot = Paths.get(uploadDir);
+        this.blobRoot = uploadRoot.resolve(BLOB_DIR);
+    }
+
+    // 저장된 경로 문자열을 실제 경로로 (이전 규칙과 새 규칙 모두 그대로 읽을 수 있다)
+    public Path resolve(String storedPath) {
+        return Paths.get(storedPath);
+    }
+
+    // 저장된 경로를 업로드 루트 기준 상대 경로로 (서명 URL 의 저장 키)
+    public String toKey(String storedPath) {
+        Path path = resolve(storedPath).toAbsolutePath().normalize();
+        Path root = uploadRoot.toAbsolutePath().normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("File is outside of the upload directory: " + storedPath);
+        }
+        return root.relativize(path).toString().replace('\\', '/');
+    }
+
+    // 저장 키를 실제 경로로 (업로드 루트를 벗어나면 빈 값)
+    public Optional<Path> fromKey(String key) {
+        Path root = uploadRoot.toAbsolutePath().normalize();
+        Path path = root.resolve(key).normalize();
+        return path.startsWith(root) && !path.equals(root) ? Optional.of(path) : Optional.empty();
+    }
+
+    public Path filePath(String contentName, String fileName) {
+        return fanOut(uploadRoot.resolve(contentName), fileName);
+    }
+
+    public Path blobPath(String checksum) {
+        return fanOut(blobRoot, checksum);
+    }
+
+    public Path blobRoot() {
+        return blobRoot;
+    }
+
+    // 체크섬을 알기 전에 기록할 임시 파일 경로
+    public Path newStagingPath() {
+        return blobRoot.resolve(STAGING_DIR).resolve(UUID.randomUUID() + ".part");
+    }
+
+    // 이어 올리기 세션이 조각을 기록하는 파일 (blobs 밖에 두어 고아 파일 정리 대상에서 빠진다)
+    public Path chunkedUploadPath(String sessionId) {
+        return uploadRoot.resolve(CHUNKED_UPLOAD_DIR).resolve(sessionId + ".upload");
+    }
+
+    // 새 규칙으로 저장된 경로인지 (내용 주소 파일 포함)
+    public boolean isFannedOut(Path path) {
+        Path first = path.getParent();
+        Path second = first != null ? first.getParent() : null;
+        return first != null && second != null
+                && PREFIX_DIR.matcher(first.getFileName().toString()).matches()
+                && PREFIX_DIR.matcher(second.getFileName().toString()).matches();
+    }
+
+    // 이전 규칙 경로({contentName}/{name})를 새 규칙 경로로
+    public Path migratedPath(Path legacyPath) {
+        Path contentDir = legacyPath.getParent();
+        return fanOut(contentDir, legacyPath.getFileName().toString());
+    }
+
+    private Path fanOut(Path directory, String fileName) {
+        String prefix = hexPrefix(fileName);
+        return directory.resolve(prefix.substring(0, 2)).resolve(prefix.substring(2, 4)).resolve(fileName);
+    }
+
+    // 이름에서 16진수 글자만 골라 앞 네 글자 (UUID 의 '-' 등은 건너뛴다)
+    private String hexPrefix(String fileName) {
+        StringBuilder prefix = new StringBuilder(4);
+        for (int i = 0; i < fileName.length() && prefix.length() < 4; i++) {
+            char c = Character.toLowerCase(fileName.charAt(i));
+            if ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f')) {
+                prefix.append(c);
+            }
+        }
+        while (prefix.length() < 4) {
+            prefix.append('0');
+        }
+        return prefix.toString();
+    }
+}
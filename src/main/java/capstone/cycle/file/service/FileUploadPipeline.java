@@ -0,0 +1,325 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.dto.StoredFileDTO;
+import capstone.cycle.file.entity.ImageSize;
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드 파일을 저장소에 병렬로 기록하는 파이프라인.
+ *
+ * 서버 전체에서 공유하는 고정 크기 스레드 풀(대기열 포함)과 요청별 동시 기록 수 제한을 두고,
+ * 파일을 한 번 읽으면서 저장과 SHA-256 체크섬 계산을 함께 한다.
+ * DB 에는 접근하지 않으므로 트랜잭션 밖에서 호출해 커넥션을 잡지 않은 채로 디스크 기록을 마칠 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FileUploadPipeline {
+
+    private final FileBlobStore fileBlobStore;
+    private final FileStorageLayout fileStorageLayout;
+
+    // 서버 전체 동시 기록 수
+    @Value("${file.upload.threads:8}")
+    private int threads;
+
+    @Value("${file.upload.queue-capacity:64}")
+    private int queueCapacity;
+
+    // 요청 하나가 동시에 기록할 수 있는 파일 수
+    @Value("${file.upload.max-parallel-per-request:4}")
+    private int maxParallelPerRequest;
+
+    @Value("${file.upload.timeout-seconds:60}")
+    private long timeoutSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "file-upload-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 대기열까지 가득 차면 요청 스레드가 직접 기록한다 (자연스러운 배압)
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * 파일들을 병렬로 기록하고 입력 순서대로 메타데이터를 반환한다.
+     * 하나라도 실패하면 이미 기록한 파일을 지우고 예외를 던진다.
+     */
+    public List<StoredFileDTO> store(List<MultipartFile> files, String contentName) {
+        if (files == null || files.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (files.size() == 1) {
+            return List.of(storeOne(files.get(0), contentName));
+        }
+
+        Semaphore permits = new Semaphore(maxParallelPerRequest);
+        StoreBatch batch = new StoreBatch();
+        List<Future<StoredFileDTO>> futures = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                permits.acquire();
+                futures.add(executor.submit(() -> {
+                    try {
+                        return batch.register(storeOne(file, contentName));
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(batch, futures);
+            throw new FileException(FileErrorResult.UPLOAD_FAIL);
+        }
+
+        return awaitAll(batch, futures);
+    }
+
+    // 저장에 성공했지만 DB 반영에 실패한 파일 정리
+    // (내용 주소 저장소의 파일은 다른 File 행이 공유할 수 있으므로 아직 옮기지 않은 임시 파일만 지운다)
+    public void discard(List<StoredFileDTO> storedFiles) {
+        for (StoredFileDTO storedFile : storedFiles) {
+            String path = storedFile.getStagingPath() != null ? storedFile.getStagingPath() : storedFile.getPath();
+            try {
+                Files.deleteIfExists(fileStorageLayout.resolve(path));
+            } catch (IOException e) {
+                log.warn("Failed to discard stored file: {}", path, e);
+            }
+        }
+    }
+
+    private List<StoredFileDTO> awaitAll(StoreBatch batch, List<Future<StoredFileDTO>> futures) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        List<StoredFileDTO> storedFiles = new ArrayList<>(futures.size());
+        try {
+            for (Future<StoredFileDTO> future : futures) {
+                storedFiles.add(future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS));
+            }
+            return storedFiles;
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.error("File upload failed", e);
+            abandon(batch, futures);
+            throw new FileException(FileErrorResult.UPLOAD_FAIL);
+        }
+    }
+
+    // 취소해도 이미 기록 중인 작업은 끝까지 돌 수 있으므로 (Files.copy 는 인터럽트에 멈추지 않는다)
+    // 지금까지 끝난 파일을 지우고, 늦게 끝나는 작업은 스스로 지우게 한다
+    private void abandon(StoreBatch batch, List<Future<StoredFileDTO>> futures) {
+        futures.forEach(future -> future.cancel(true));
+        discard(batch.abandon());
+    }
+
+    /**
+     * multipart 요청 본문을 받는 대로 저장소에 기록한다 (컨테이너의 임시 파일을 거치지 않는다).
+     * fieldName 의 파일 파트만 순서대로 기록하고 나머지 파트는 읽고 버리며,
+     * 파트와 요청 크기 한도는 reader 가 읽는 도중에 검사한다. 실패하면 이미 기록한 파일을 지우고 예외를 던진다.
+     */
+    public List<StoredFileDTO> storeStreaming(MultipartStreamReader reader, String fieldName, String contentName) {
+        List<StoredFileDTO> storedFiles = new ArrayList<>();
+        try {
+            MultipartStreamReader.Part part;
+            while ((part = reader.next()) != null) {
+                if (!fieldName.equals(part.getName()) || !part.isFile()) {
+                    continue;
+                }
+                storedFiles.add(storeOne(part::getBody, part.getFilename(), part.getContentType(), contentName));
+            }
+            return storedFiles;
+        } catch (MultipartStreamReader.LimitExceededException e) {
+            discard(storedFiles);
+            throw new FileException(e.getErrorResult());
+        } catch (IOException e) {
+            log.error("Streaming upload failed", e);
+            discard(storedFiles);
+            throw new FileException(FileErrorResult.INVALID_MULTIPART);
+        } catch (RuntimeException e) {
+            discard(storedFiles);
+            throw e;
+        }
+    }
+
+    private StoredFileDTO storeOne(MultipartFile file, String contentName) {
+        return storeOne(file, file.getOriginalFilename(), file.getContentType(), contentName);
+    }
+
+    // 임시 파일에 기록하면서 체크섬을 계산한 뒤 최종 경로로 옮긴다
+    // (내용 주소 저장소에서는 같은 내용이 이미 있을 수 있으므로 옮기는 일은 메타데이터 저장 시 FileBlobStore 가 한다)
+    private StoredFileDTO storeOne(InputStreamSource source, String originalName, String contentType,
+                                   String contentName) {
+        String extension = getFileExtension(originalName);
+        boolean contentAddressed = fileBlobStore.isEnabled();
+        String fileName = contentAddressed ? null : UUID.randomUUID() + extension;
+        Path temp = contentAddressed
+                ? fileStorageLayout.newStagingPath()
+                : fileStorageLayout.filePath(contentName, fileName + ".part");
+        Path target = null;
+
+        try {
+            Files.createDirectories(temp.getParent());
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (InputStream in = new DigestInputStream(source.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String checksum = HexFormat.of().formatHex(digest.digest());
+            ImageSize imageSize = ImageSize.read(temp);
+
+            if (contentAddressed) {
+                fileName = checksum + extension;
+                target = fileStorageLayout.blobPath(checksum);
+            } else {
+                target = fileStorageLayout.filePath(contentName, fileName);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            return StoredFileDTO.builder()
+                    .name(fileName)
+                    .originalName(originalName)
+                    .path(target.toString())
+                    .contentType(contentType)
+                    .size(size)
+                    .extension(extension)
+                    .checksum(checksum)
+                    .imageSize(imageSize)
+                    .stagingPath(contentAddressed ? temp.toString() : null)
+                    .build();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            deleteQuietly(temp);
+            if (target != null && !contentAddressed) {
+                deleteQuietly(target);
+            }
+            if (e instanceof MultipartStreamReader.LimitExceededException limitExceeded) {
+                throw new FileException(limitExceeded.getErrorResult());
+            }
+            log.error("File upload failed", e);
+            throw new FileException(FileErrorResult.UPLOAD_FAIL);
+        }
+    }
+
+    /**
+     * 다른 경로(이어 올리기 세션 등)로 이미 다 기록하고 체크섬까지 확인한 파일을 저장소 파일로 넘겨받는다.
+     * 내용 주소 저장소에서는 그 파일을 임시 파일로 쓰고, 아니면 최종 경로로 옮긴다 (복사하지 않는다).
+     */
+    public StoredFileDTO adopt(Path written, String contentName, String originalName, String contentType,
+                               long size, String checksum) {
+        String extension = getFileExtension(originalName);
+        ImageSize imageSize = ImageSize.read(written);
+        StoredFileDTO.StoredFileDTOBuilder builder = StoredFileDTO.builder()
+                .originalName(originalName)
+                .contentType(contentType)
+                .size(size)
+                .extension(extension)
+                .checksum(checksum)
+                .imageSize(imageSize);
+
+        if (fileBlobStore.isEnabled()) {
+            return builder
+                    .name(checksum + extension)
+                    .path(fileStorageLayout.blobPath(checksum).toString())
+                    .stagingPath(written.toString())
+                    .build();
+        }
+
+        String fileName = UUID.randomUUID() + extension;
+        Path target = fileStorageLayout.filePath(contentName, fileName);
+        try {
+            Files.createDirectories(target.getParent());
+            Files.move(written, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Failed to move uploaded file: {}", written, e);
+            throw new FileException(FileErrorResult.UPLOAD_FAIL);
+        }
+        return builder
+                .name(fileName)
+                .path(target.toString())
+                .build();
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete file: {}", path, e);
+        }
+    }
+
+    private String getFileExtension(String fileName) {
+        if (fileName == null || fileName.lastIndexOf(".") < 0) {
+            return "";
+        }
+        return fileName.substring(fileName.lastIndexOf("."));
+    }
+
+    // 요청 하나에서 기록을 마친 파일 (포기한 뒤에 끝난 파일은 바로 지운다)
+    private final class StoreBatch {
+        private final List<StoredFileDTO> completed = new ArrayList<>();
+        private boolean abandoned;
+
+        private StoredFileDTO register(StoredFileDTO storedFile) {
+            synchronized (this) {
+                if (!abandoned) {
+                    completed.add(storedFile);
+                    return storedFile;
+                }
+            }
+            discard(List.of(storedFile));
+            return storedFile;
+        }
+
+        private synchronized List<StoredFileDTO> abandon() {
+            abandoned = true;
+            return new ArrayList<>(completed);
+        }
+    }
+}
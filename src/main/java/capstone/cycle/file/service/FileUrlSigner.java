@@ -0,0 +1,191 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.entity.File;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * 서명된 파일 주소를 만들고 검증한다.
+ *
+ * 주소 형식: /api/files/s/{fileId}/{key}{ext}?w={width}&exp={만료 초}&sig={HMAC}
+ * key 는 업로드 루트 기준 저장 경로를 base64url 로 인코딩한 값이며, 서명이 맞으면 DB 를 거치지 않고 그 경로를 바로 내보낸다.
+ * 만료 시각은 구간 단위로 올림하므로 같은 구간 안에서는 주소가 바뀌지 않아 브라우저 캐시가 유지된다.
+ * 서명 키는 file.url.signing-secret 을 쓰고, 없으면 JWT 키에서 용도 문자열로 파생한 키를 쓴다 (JWT 서명과 키를 공유하지 않도록).
+ */
+@Component
+public class FileUrlSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String KEY_PURPOSE = "file-url";
+    private static final int SIGNATURE_BYTES = 16;
+    private static final Pattern EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final FileStorageLayout fileStorageLayout;
+    private final SecretKeySpec secretKey;
+    private final long validitySeconds;
+    private final long bucketSeconds;
+    private final ThreadLocal<Mac> macs;
+
+    private final Counter expired;
+    private final Counter invalid;
+
+    public FileUrlSigner(
+            FileStorageLayout fileStorageLayout,
+            @Value("${file.url.signing-secret:}") String secret,
+            @Value("${jwt.secret-key}") String jwtSecret,
+            @Value("${file.url.validity-seconds:86400}") long validitySeconds,
+            @Value("${file.url.bucket-seconds:3600}") long bucketSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.fileStorageLayout = fileStorageLayout;
+        this.secretKey = new SecretKeySpec(
+                secret.isBlank() ? deriveKey(jwtSecret) : secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.validitySeconds = validitySeconds;
+        this.bucketSeconds = Math.max(bucketSeconds, 1);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+
+        this.expired = Counter.builder("file.url.rejections").tag("reason", "expired").register(meterRegistry);
+        this.invalid = Counter.builder("file.url.rejections").tag("reason", "invalid").register(meterRegistry);
+    }
+
+    /**
+     * 응답 DTO 에 담을 파일 주소. 업로드 루트 밖에 저장된 파일이면 id 주소(/api/files/{id})를 만든다.
+     */
+    public String urlOf(File file) {
+        return urlOf(file.getId(), file.getPath(), file.getExtension(), file.getWidth(), 0);
+    }
+
+    // 요청 너비 이하의 원본이면 변형 없이 원본 주소
+    public String urlOf(File file, int width) {
+        return urlOf(file.getId(), file.getPath(), file.getExtension(), file.getWidth(), width);
+    }
+
+    public String urlOf(Long fileId, String path, String extension, Integer sourceWidth, int width) {
+        int variantWidth = sourceWidth != null && sourceWidth <= width ? 0 : width;
+        if (path == null) {
+            return idUrl(fileId, variantWidth);
+        }
+        try {
+            return sign(fileId, path, extension, variantWidth);
+        } catch (IllegalArgumentException e) {
+            // 업로드 루트 밖에 저장된 파일
+            return idUrl(fileId, variantWidth);
+        }
+    }
+
+    /**
+     * 서명된 주소. width 가 0 보다 크면 그 너비의 이미지 변형을 요청한다.
+     */
+    public String sign(Long fileId, String storedPath, String extension, int width) {
+        String key = ENCODER.encodeToString(fileStorageLayout.toKey(storedPath).getBytes(StandardCharsets.UTF_8));
+        String ext = extension != null && EXTENSION.matcher(extension).matches() ? extension : "";
+        long now = System.currentTimeMillis() / 1000;
+        long expires = (now / bucketSeconds + 1) * bucketSeconds + validitySeconds;
+
+        StringBuilder url = new StringBuilder("/api/files/s/").append(fileId).append('/').append(key).append(ext)
+                .append('?');
+        if (width > 0) {
+            url.append("w=").append(width).append('&');
+        }
+        return url.append("exp=").append(expires)
+                .append("&sig=").append(ENCODER.encodeToString(signature(fileId, key, ext, width, expires)))
+                .toString();
+    }
+
+    /**
+     * 만료 시각부터 확인한 뒤 서명을 비교한다. 맞으면 저장 경로를, 아니면 빈 값을 반환한다.
+     */
+    public Optional<SignedFile> verify(Long fileId, String name, Integer width, long expires, String signature) {
+        if (expires < System.currentTimeMillis() / 1000) {
+            expired.increment();
+            return Optional.empty();
+        }
+
+        int dot = name.indexOf('.');
+        String key = dot >= 0 ? name.substring(0, dot) : name;
+        String ext = dot >= 0 ? name.substring(dot) : "";
+        int variantWidth = width != null && width > 0 ? width : 0;
+
+        try {
+            byte[] expected = signature(fileId, key, ext, variantWidth, expires);
+            if (!MessageDigest.isEqual(expected, DECODER.decode(signature))) {
+                invalid.increment();
+                return Optional.empty();
+            }
+            Optional<Path> path = fileStorageLayout.fromKey(new String(DECODER.decode(key), StandardCharsets.UTF_8));
+            if (path.isEmpty()) {
+                invalid.increment();
+            }
+            return path.map(p -> new SignedFile(fileId, p, ext, variantWidth));
+        } catch (IllegalArgumentException e) {
+            // base64 형식이 아닌 값
+            invalid.increment();
+            return Optional.empty();
+        }
+    }
+
+    private String idUrl(Long fileId, int width) {
+        return "/api/files/" + fileId + (width > 0 ? "?width=" + width : "");
+    }
+
+    private byte[] signature(Long fileId, String key, String ext, int width, long expires) {
+        String payload = fileId + "\n" + key + "\n" + ext + "\n" + width + "\n" + expires;
+        byte[] mac = macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Arrays.copyOf(mac, SIGNATURE_BYTES);
+    }
+
+    // HMAC(jwtSecret, "file-url")
+    private static byte[] deriveKey(String jwtSecret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(KEY_PURPOSE.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to derive file url signing key", e);
+        }
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize file url signer", e);
+        }
+    }
+
+    /**
+     * 서명이 확인된 파일. width 는 요청한 변형 너비 (원본이면 0).
+     */
+    @Getter
+    public static final class SignedFile {
+        private final Long fileId;
+        private final Path path;
+        private final String extension;
+        private final int width;
+
+        private SignedFile(Long fileId, Path path, String extension, int width) {
+            this.fileId = fileId;
+            this.path = path;
+            this.extension = extension;
+            this.width = width;
+        }
+    }
+}
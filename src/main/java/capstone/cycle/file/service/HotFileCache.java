@@ -0,0 +1,392 @@
+package capstone.cycle.file.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 자주 요청되는 작은 파일(아바타, 목록 썸네일) 본문을 힙 밖(direct ByteBuffer)에 올려 두는 캐시.
+ *
+ * 파일 id 와 이미지 변형 너비로 찾으며, 적중하면 DB 조회와 파일 열기 없이 응답한다.
+ * 전체 크기는 바이트 예산으로 제한하고, 자리가 없을 때는 최근 요청 빈도(count-min sketch)가
+ * 밀려날 항목들보다 높은 파일만 들인다 (한 번 받고 마는 다운로드가 자주 쓰는 파일을 밀어내지 않도록).
+ * 키 해시로 나눈 구역마다 잠금, 예산, 빈도 표를 따로 두어 요청 스레드가 한 잠금에 몰리지 않게 한다.
+ * 파일 id 의 내용은 바뀌지 않으므로 삭제 시에만 무효화하며, 다른 서버의 삭제는 TTL 로 반영된다.
+ */
+@Slf4j
+@Component
+public class HotFileCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final boolean enabled;
+    private final long maxEntryBytes;
+    private final long ttlNanos;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final AtomicLong residentBytes = new AtomicLong();
+    // 무효화할 때마다 올린다. 디스크를 읽는 동안 무효화가 지나갔으면 읽은 본문을 들이지 않는다
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public HotFileCache(
+            @Value("${file.hot-cache.enabled:true}") boolean enabled,
+            @Value("${file.hot-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${file.hot-cache.max-entry-bytes:262144}") long maxEntryBytes,
+            @Value("${file.hot-cache.ttl-seconds:600}") long ttlSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled && maxBytes > 0;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+
+        // 구역 예산이 항목 최대 크기보다 작아지지 않는 만큼만 나눈다
+        long entryBytes = Math.max(Math.min(maxEntryBytes, maxBytes), 1);
+        int segmentCount = (int) Math.min(MAX_SEGMENTS, Math.max(maxBytes / entryBytes, 1));
+        segmentCount = Integer.highestOneBit(segmentCount);
+        long segmentBytes = maxBytes / segmentCount;
+        this.maxEntryBytes = Math.min(maxEntryBytes, segmentBytes);
+        this.segmentMask = segmentCount - 1;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // 평균 16KB 로 잡은 최대 항목 수의 10배만큼 빈도를 기억
+            segments[i] = new Segment(segmentBytes,
+                    (int) Math.min(Math.max(segmentBytes / 16384 * 10, 1024), 1 << 22));
+        }
+
+        FunctionCounter.builder("file.hot-cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("file.hot-cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("file.hot-cache.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        FunctionCounter.builder("file.hot-cache.rejections", rejections, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("file.hot-cache.bytes", residentBytes, AtomicLong::get)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("file.hot-cache.hit.ratio", this, HotFileCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시된 본문을 찾는다. 찾지 못해도 요청 빈도는 기록한다.
+     * width 는 이미지 변형 너비이며 원본이면 0.
+     */
+    public Optional<CachedFile> get(Long fileId, int width) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        CacheKey key = new CacheKey(fileId, width);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            segment.sketch.increment(key.hashCode());
+            CachedFile cached = segment.entries.get(key);
+            if (cached != null && System.nanoTime() - cached.loadedAtNanos < ttlNanos) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+            if (cached != null) {
+                remove(segment, key);
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * 캐시하지 못한 파일을 내보내기 직전에 호출. 들일 만한 파일이면 읽어서 올리고 그 항목을 돌려준다.
+     */
+    public Optional<CachedFile> admit(Long fileId, int width, Path path, long size,
+                                      String etag, String contentType, String downloadName) {
+        if (!enabled || size <= 0 || size > maxEntryBytes) {
+            return Optional.empty();
+        }
+
+        CacheKey key = new CacheKey(fileId, width);
+        Segment segment = segmentFor(key);
+        long admittedGeneration = generation.get();
+        synchronized (segment) {
+            if (!hasRoomFor(segment, key, size)) {
+                rejections.increment();
+                return Optional.empty();
+            }
+        }
+
+        // 디스크 읽기는 잠금 밖에서
+        ByteBuffer body;
+        try {
+            body = read(path, size);
+        } catch (IOException e) {
+            log.warn("Failed to load file into hot cache. fileId: {}", fileId, e);
+            return Optional.empty();
+        }
+        CachedFile cached = new CachedFile(etag, contentType, downloadName, body, System.nanoTime());
+
+        synchronized (segment) {
+            // 읽는 사이 다른 요청이 먼저 올렸거나, 자리가 없어졌거나, 파일이 삭제되어 무효화됐을 수 있다
+            if (generation.get() != admittedGeneration
+                    || segment.entries.containsKey(key) || !hasRoomFor(segment, key, size)) {
+                return Optional.of(cached);
+            }
+            evictFor(segment, size);
+            segment.entries.put(key, cached);
+            segment.bytes += size;
+            residentBytes.addAndGet(size);
+        }
+        return Optional.of(cached);
+    }
+
+    // 커밋된 뒤 해당 파일의 원본과 모든 변형을 비운다 (트랜잭션 밖이면 바로)
+    public void invalidateAfterCommit(Collection<Long> fileIds) {
+        if (!enabled || fileIds.isEmpty()) {
+            return;
+        }
+        List<Long> targetIds = List.copyOf(fileIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(targetIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(targetIds);
+            }
+        });
+    }
+
+    void invalidate(Collection<Long> fileIds) {
+        // 세대를 먼저 올려, 이미 디스크를 읽고 있던 admit 이 지운 뒤에 다시 넣지 못하게 한다
+        generation.incrementAndGet();
+        Set<Long> targetIds = Set.copyOf(fileIds);
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                List<CacheKey> targets = new ArrayList<>();
+                for (CacheKey key : segment.entries.keySet()) {
+                    if (targetIds.contains(key.fileId)) {
+                        targets.add(key);
+                    }
+                }
+                targets.forEach(key -> remove(segment, key));
+            }
+        }
+    }
+
+    private Segment segmentFor(CacheKey key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & segmentMask];
+    }
+
+    // 빈 자리로 충분하거나, 밀려날 항목들보다 후보가 더 자주 요청됐으면 들인다
+    private boolean hasRoomFor(Segment segment, CacheKey key, long size) {
+        long needed = segment.bytes + size - segment.maxBytes;
+        if (needed <= 0) {
+            return true;
+        }
+
+        int candidateFrequency = segment.sketch.frequency(key.hashCode());
+        long freed = 0;
+        Iterator<Map.Entry<CacheKey, CachedFile>> iterator = segment.entries.entrySet().iterator();
+        while (freed < needed && iterator.hasNext()) {
+            Map.Entry<CacheKey, CachedFile> victim = iterator.next();
+            if (segment.sketch.frequency(victim.getKey().hashCode()) >= candidateFrequency) {
+                return false;
+            }
+            freed += victim.getValue().size();
+        }
+        return freed >= needed;
+    }
+
+    private void evictFor(Segment segment, long size) {
+        Iterator<Map.Entry<CacheKey, CachedFile>> iterator = segment.entries.entrySet().iterator();
+        while (segment.bytes + size > segment.maxBytes && iterator.hasNext()) {
+            CachedFile victim = iterator.next().getValue();
+            iterator.remove();
+            segment.bytes -= victim.size();
+            residentBytes.addAndGet(-victim.size());
+            evictions.increment();
+        }
+    }
+
+    private void remove(Segment segment, CacheKey key) {
+        CachedFile removed = segment.entries.remove(key);
+        if (removed != null) {
+            segment.bytes -= removed.size();
+            residentBytes.addAndGet(-removed.size());
+        }
+    }
+
+    private ByteBuffer read(Path path, long size) throws IOException {
+        ByteBuffer body = ByteBuffer.allocateDirect((int) size);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (body.hasRemaining() && channel.read(body) >= 0) {
+                // 끝까지 읽는다
+            }
+        }
+        if (body.hasRemaining()) {
+            throw new IOException("File changed while loading: " + path);
+        }
+        body.flip();
+        return body.asReadOnlyBuffer();
+    }
+
+    private double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * 캐시된 파일 본문과 응답 헤더에 필요한 값.
+     */
+    @Getter
+    public static final class CachedFile {
+        private final String etag;
+        private final String contentType;
+        private final String downloadName;
+        private final ByteBuffer body;
+        private final long loadedAtNanos;
+
+        private CachedFile(String etag, String contentType, String downloadName, ByteBuffer body, long loadedAtNanos) {
+            this.etag = etag;
+            this.contentType = contentType;
+            this.downloadName = downloadName;
+            this.body = body;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        public long size() {
+            return body.capacity();
+        }
+
+        // 요청마다 위치가 독립적인 사본 (본문 메모리는 공유)
+        public ByteBuffer getBody() {
+            return body.duplicate();
+        }
+    }
+
+    /**
+     * 캐시의 한 구역. 필드는 모두 이 객체의 잠금 안에서만 읽고 쓴다.
+     */
+    private static final class Segment {
+        // 접근 순서 (가장 오래 안 쓴 항목이 앞)
+        private final LinkedHashMap<CacheKey, CachedFile> entries = new LinkedHashMap<>(64, 0.75f, true);
+        private final FrequencySketch sketch;
+        private final long maxBytes;
+        private long bytes;
+
+        private Segment(long maxBytes, int sketchWidth) {
+            this.maxBytes = maxBytes;
+            this.sketch = new FrequencySketch(sketchWidth);
+        }
+    }
+
+    private static final class CacheKey {
+        private final Long fileId;
+        private final int width;
+
+        private CacheKey(Long fileId, int width) {
+            this.fileId = fileId;
+            this.width = width;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey other)) {
+                return false;
+            }
+            return fileId.equals(other.fileId) && width == other.width;
+        }
+
+        @Override
+        public int hashCode() {
+            return fileId.hashCode() * 31 + width;
+        }
+    }
+
+    /**
+     * 4 비트 카운터 count-min sketch. 기록이 표 크기의 10배에 이르면 모든 카운터를 반으로 줄여 오래된 인기를 잊는다.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int width) {
+            int size = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+            this.table = new byte[DEPTH][size];
+            this.mask = size - 1;
+            this.sampleSize = size * 10;
+        }
+
+        private void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(hash, row);
+                if (table[row][index] < MAX_COUNT) {
+                    table[row][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, table[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        private void reset() {
+            for (byte[] counters : table) {
+                for (int i = 0; i < counters.length; i++) {
+                    counters[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private int index(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.entity.ImageOrientation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이미지 변형(고정 너비 JPEG) 생성기.
+ *
+ * 변형은 원본 옆에 {원본 경로}.w{너비}.jpg 로 저장하며, 업로드 커밋 후 비동기로 미리 만들거나 첫 요청 때 만든다.
+ * 픽셀만 다시 인코딩하므로 EXIF 등 메타데이터는 남지 않으며, 그 전에 EXIF 방향을 픽셀에 적용해 둔다.
+ * 디코딩은 메모리와 CPU 를 많이 쓰므로 전용 스레드 풀과 대기열 크기로 동시 작업 수를 제한한다.
+ */
+@Slf4j
+@Component
+public class ImageVariantService {
+
+    private static final String VARIANT_SUFFIX = ".jpg";
+
+    private final FileStorageLayout fileStorageLayout;
+    private final Map<Path, CompletableFuture<Path>> generating = new ConcurrentHashMap<>();
+    private final Timer generateTimer;
+
+    // 제공하는 변형 너비 (오름차순으로 정렬해 사용)
+    @Value("${file.variant.widths:160,480,1080}")
+    private int[] widths;
+
+    @Value("${file.variant.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${file.variant.threads:2}")
+    private int threads;
+
+    @Value("${file.variant.queue-capacity:256}")
+    private int queueCapacity;
+
+    // 첫 요청에서 변형 생성을 기다리는 최대 시간 (넘으면 원본으로 응답)
+    @Value("${file.variant.wait-millis:3000}")
+    private long waitMillis;
+
+    // 이보다 큰 이미지는 디코딩하지 않는다 (압축 폭탄 방지)
+    @Value("${file.variant.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    private ThreadPoolExecutor executor;
+
+    public ImageVariantService(FileStorageLayout fileStorageLayout, MeterRegistry meterRegistry) {
+        this.fileStorageLayout = fileStorageLayout;
+        this.generateTimer = Timer.builder("file.variant.generate")
+                .description("decode, resize and encode time per variant")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        widths = Arrays.stream(widths).sorted().distinct().toArray();
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variant-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 요청 너비 이상인 가장 작은 변형 너비 (가장 큰 변형보다 크면 가장 큰 변형).
+     */
+    public int selectWidth(int requestedWidth) {
+        for (int width : widths) {
+            if (width >= requestedWidth) {
+                return width;
+            }
+        }
+        return widths[widths.length - 1];
+    }
+
+    /**
+     * 변형 파일 경로. 아직 없으면 만들어 보고, 원본이 이미 충분히 작거나 만들 수 없으면 비어 있는 값을 반환한다 (원본 사용).
+     */
+    public Optional<Path> resolve(File file, int requestedWidth) {
+        if (!isResizable(file)) {
+            return Optional.empty();
+        }
+
+        int width = selectWidth(requestedWidth);
+        if (file.getWidth() != null && file.getWidth() <= width) {
+            return Optional.empty();
+        }
+
+        Path source = fileStorageLayout.resolve(file.getPath());
+        Path variant = variantPath(source, width);
+        if (Files.exists(variant)) {
+            return Optional.of(variant);
+        }
+
+        try {
+            Path generated = submit(source, variant, width).get(waitMillis, TimeUnit.MILLISECONDS);
+            return Optional.ofNullable(generated);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (Exception e) {
+            // 시간 초과, 대기열 초과, 디코딩 실패 시 원본으로 응답 (생성은 계속 진행될 수 있다)
+            log.debug("Image variant not ready. source: {}, width: {}", source, width, e);
+            return Optional.empty();
+        }
+    }
+
+    // 업로드 커밋 후 호출. 원본보다 작은 변형을 미리 만든다 (대기열이 가득 차면 첫 요청 때 만든다)
+    public void generateAsync(List<File> files) {
+        for (File file : files) {
+            if (!isResizable(file) || file.getWidth() == null) {
+                continue;
+            }
+            Path source = fileStorageLayout.resolve(file.getPath());
+            for (int width : widths) {
+                if (file.getWidth() > width && !Files.exists(variantPath(source, width))) {
+                    try {
+                        submit(source, variantPath(source, width), width);
+                    } catch (RejectedExecutionException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    // 원본이 삭제된 뒤 호출. 남은 변형 파일을 지운다
+    public void deleteVariants(Path source) {
+        if (source.getParent() == null || !Files.isDirectory(source.getParent())) {
+            return;
+        }
+        String glob = source.getFileName() + ".w*" + VARIANT_SUFFIX;
+        try (DirectoryStream<Path> variants = Files.newDirectoryStream(source.getParent(), glob)) {
+            for (Path variant : variants) {
+                Files.deleteIfExists(variant);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete image variants of {}", source, e);
+        }
+    }
+
+    public Path variantPath(Path source, int width) {
+        return source.resolveSibling(source.getFileName() + ".w" + width + VARIANT_SUFFIX);
+    }
+
+    private boolean isResizable(File file) {
+        return file.getContentType() != null && file.getContentType().startsWith("image/")
+                && !file.getContentType().equals("image/gif") && !file.getContentType().equals("image/svg+xml");
+    }
+
+    // 같은 변형의 동시 요청은 하나의 작업으로 합친다
+    private CompletableFuture<Path> submit(Path source, Path variant, int width) {
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = generating.putIfAbsent(variant, future);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(generateTimer.recordCallable(() -> generate(source, variant, width)));
+                } catch (Exception e) {
+                    log.warn("Failed to generate image variant. source: {}, width: {}", source, width, e);
+                    future.completeExceptionally(e);
+                } finally {
+                    generating.remove(variant, future);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            generating.remove(variant, future);
+            throw e;
+        }
+        return future;
+    }
+
+    Path generate(Path source, Path variant, int width) throws IOException {
+        if (Files.exists(variant)) {
+            return variant;
+        }
+
+        BufferedImage image = decode(source, width);
+        if (image == null) {
+            return null;
+        }
+
+        BufferedImage resized = resize(image, width);
+        // 같은 변형을 여러 서버나 작업이 함께 만들 수 있으므로 임시 파일 이름은 매번 새로 정한다
+        Path temp = Files.createTempFile(variant.getParent(), variant.getFileName() + ".", ".part");
+        try {
+            writeJpeg(resized, temp);
+            Files.move(temp, variant, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return variant;
+    }
+
+    // 목표 너비의 두 배 이상이 남도록 건너뛰며 읽어 디코딩 메모리와 시간을 줄이고, EXIF 방향대로 돌려 둔다
+    BufferedImage decode(Path source, int width) throws IOException {
+        ImageOrientation orientation = ImageOrientation.read(source);
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxSourcePixels) {
+                    log.warn("Image too large for variants. source: {}, size: {}x{}", source, sourceWidth, sourceHeight);
+                    return null;
+                }
+
+                // 눕혀 저장된 사진은 세로 픽셀 수가 보이는 너비다
+                int displayWidth = orientation.isQuarterTurn() ? sourceHeight : sourceWidth;
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, displayWidth / (width * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return orientation.apply(reader.read(0, param));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 절반씩 줄여 가며 마지막에 목표 크기로 맞춘다 (한 번에 크게 줄일 때의 계단 현상 방지)
+    private BufferedImage resize(BufferedImage image, int width) {
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+
+        do {
+            int nextWidth = Math.max(currentWidth / 2, width);
+            if (currentWidth <= width) {
+                nextWidth = currentWidth;
+            }
+            int nextHeight = Math.max(1, (int) Math.round((double) currentHeight * nextWidth / currentWidth));
+
+            // JPEG 는 투명도를 지원하지 않으므로 흰 배경의 RGB 로 그린다
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, nextWidth, nextHeight);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+
+            current = next;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+        } while (currentWidth > width);
+
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -2,29 +2,37 @@ package capstone.cycle.file.service;
 
 import capstone.cycle.file.dto.FileDTO;
 import capstone.cycle.file.dto.FileGroupDTO;
+import capstone.cycle.file.dto.StagedUploadDTO;
+import capstone.cycle.file.dto.StoredFileDTO;
 import capstone.cycle.file.entity.File;
 import capstone.cycle.file.entity.FileGroup;
+import capstone.cycle.file.entity.StagedUpload;
 import capstone.cycle.file.error.FileErrorResult;
 import capstone.cycle.file.error.FileException;
 import capstone.cycle.file.repository.FileGroupRepository;
 import capstone.cycle.file.repository.FileRepository;
+import capstone.cycle.file.repository.StagedUploadRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -34,82 +42,146 @@ public class LocalFileServiceImpl implements FileService {
 
     private final FileRepository fileRepository;
     private final FileGroupRepository fileGroupRepository;
+    private final FileUploadPipeline fileUploadPipeline;
+    private final FileBlobStore fileBlobStore;
+    private final ImageVariantService imageVariantService;
+    private final FileReaper fileReaper;
+    private final HotFileCache hotFileCache;
+    private final StagedUploadRepository stagedUploadRepository;
+    private final FileUrlSigner fileUrlSigner;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${file.staging.ttl-minutes:30}")
+    private long stagingTtlMinutes;
 
-    @Value("${file.upload-dir}")
-    private String UPLOAD_DIR;
+    @Override
+    public FileDTO uploadFile(MultipartFile file, String contentName) {
+        List<StoredFileDTO> storedFiles = storeFiles(List.of(file), contentName);
+        return saveInShortTransaction(storedFiles, () -> saveFiles(storedFiles).get(0).toDTO());
+    }
+
+    // 디스크 기록은 트랜잭션 밖에서 병렬로 마치고, 메타데이터만 짧은 트랜잭션 하나로 저장
+    @Override
+    public FileGroupDTO uploadFiles(List<MultipartFile> files, String contentName) {
+        List<StoredFileDTO> storedFiles = storeFiles(files, contentName);
+        return saveInShortTransaction(storedFiles, () -> saveFileGroup(storedFiles).toDTO());
+    }
+
+    @Override
+    public List<StoredFileDTO> storeFiles(List<MultipartFile> files, String contentName) {
+        return fileUploadPipeline.store(files, contentName);
+    }
 
     @Override
     @Transactional
-    public FileDTO uploadFile(MultipartFile file, String contentName) {
-        try {
-            String fileName = generateFileName(file);
-            Path targetLocation = getTargetLocation(contentName, fileName);
+    public FileGroup saveFileGroup(List<StoredFileDTO> storedFiles) {
+        FileGroup fileGroup = fileGroupRepository.save(FileGroup.createEmpty());
+        List<File> savedFiles = saveFileEntities(storedFiles, fileGroup);
+        return fileGroupRepository.save(fileGroup.withFiles(savedFiles));
+    }
+
+    @Override
+    @Transactional
+    public List<File> saveFiles(List<StoredFileDTO> storedFiles) {
+        return saveFileEntities(storedFiles, null);
+    }
 
-            Files.createDirectories(targetLocation.getParent());
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    @Override
+    public void discardStoredFiles(List<StoredFileDTO> storedFiles) {
+        fileUploadPipeline.discard(storedFiles);
+    }
 
-            File fileEntity = createFileEntity(file, targetLocation);  // null 파라미터 제거
-            File savedFile = fileRepository.save(fileEntity);
+    @Override
+    public List<StagedUploadDTO> stageFiles(List<MultipartFile> files, String contentName, Long userId) {
+        return stageStoredFiles(storeFiles(files, contentName), userId);
+    }
 
-            return savedFile.toDTO();
-        } catch (IOException e) {
-            log.error("File upload failed", e);
-            throw new FileException(FileErrorResult.UPLOAD_FAIL);
-        }
+    @Override
+    public List<StagedUploadDTO> stageFileStream(MultipartStreamReader reader, String fieldName,
+                                                 String contentName, Long userId) {
+        return stageStoredFiles(fileUploadPipeline.storeStreaming(reader, fieldName, contentName), userId);
+    }
+
+    @Override
+    public List<StagedUploadDTO> stageStoredFiles(List<StoredFileDTO> storedFiles, Long userId) {
+        return saveInShortTransaction(storedFiles, () -> {
+            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(stagingTtlMinutes);
+            List<StagedUploadDTO> stagedUploads = new ArrayList<>();
+            for (File file : saveFileEntities(storedFiles, null)) {
+                StagedUpload stagedUpload = stagedUploadRepository.save(
+                        StagedUpload.issue(file.getId(), userId, expiresAt));
+                stagedUploads.add(StagedUploadDTO.of(stagedUpload, file, fileUrlSigner));
+            }
+            return stagedUploads;
+        });
     }
 
+    // 토큰은 한 번만 쓸 수 있으며, 하나라도 없거나 만료되었거나 다른 사용자의 것이면 전체를 거부한다
     @Override
     @Transactional
-    public FileGroupDTO uploadFiles(List<MultipartFile> files, String contentName) {
-        FileGroup fileGroup = FileGroup.createEmpty();
-        fileGroup = fileGroupRepository.save(fileGroup);
-        final Long fileGroupId = fileGroup.getId();
-
-        List<File> uploadedFiles = files.stream()
-                .map(file -> {
-                    try {
-                        String fileName = generateFileName(file);
-                        Path targetLocation = getTargetLocation(contentName, fileName);
-
-                        Files.createDirectories(targetLocation.getParent());
-                        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-
-                        File fileEntity = createFileEntity(file, targetLocation);  // fileGroup 파라미터 제거
-                        return fileRepository.save(fileEntity);
-                    } catch (IOException e) {
-                        log.error("File upload failed", e);
-                        throw new FileException(FileErrorResult.UPLOAD_FAIL);
-                    }
-                })
-                .collect(Collectors.toList());
+    public FileGroup attachStagedFiles(FileGroup fileGroup, List<String> tokens, Long userId) {
+        Set<String> distinctTokens = new LinkedHashSet<>(tokens);
+        Map<String, StagedUpload> stagedUploads = stagedUploadRepository.findAllForUpdate(distinctTokens).stream()
+                .collect(Collectors.toMap(StagedUpload::getToken, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (stagedUploads.size() != distinctTokens.size()
+                || stagedUploads.values().stream().anyMatch(upload -> !upload.isClaimableBy(userId, now))) {
+            throw new FileException(FileErrorResult.INVALID_UPLOAD_TOKEN);
+        }
 
-        return fileGroupRepository.findById(fileGroupId)
-                .map(savedFileGroup -> {
-                    FileGroup updatedFileGroup = savedFileGroup.withFiles(uploadedFiles);
-                    return fileGroupRepository.save(updatedFileGroup).toDTO();
-                })
-                .orElseThrow(() -> new FileException(FileErrorResult.FILE_GROUP_NOT_FOUND));
+        Map<Long, File> filesById = new HashMap<>();
+        fileRepository.findAllById(stagedUploads.values().stream().map(StagedUpload::getFileId).toList())
+                .forEach(file -> filesById.put(file.getId(), file));
+
+        // 요청한 토큰 순서대로 붙인다
+        List<File> files = new ArrayList<>(fileGroup != null ? fileGroup.getFiles() : List.of());
+        for (String token : distinctTokens) {
+            File file = filesById.get(stagedUploads.get(token).getFileId());
+            if (file == null) {
+                throw new FileException(FileErrorResult.INVALID_UPLOAD_TOKEN);
+            }
+            files.add(file);
+        }
+        stagedUploadRepository.deleteAllInBatch(stagedUploads.values());
+
+        FileGroup target = fileGroup != null ? fileGroup : fileGroupRepository.save(FileGroup.createEmpty());
+        return fileGroupRepository.save(target.withFiles(files));
     }
 
+    // 디스크 삭제는 커밋 후 FileReaper 가 한다
     @Override
     @Transactional
     public void deleteFile(Long fileId) {
         File file = getFile(fileId);
-        try {
-            Files.deleteIfExists(Paths.get(file.getPath()));
+        fileReaper.retire(file);
+        hotFileCache.invalidateAfterCommit(List.of(fileId));
 
-            // 파일이 그룹에 속해 있는 경우, 그룹에서도 제거
-            if (file.getFileGroup() != null) {
-                FileGroup updatedGroup = file.getFileGroup().removeFile(file);
-                fileGroupRepository.save(updatedGroup);
-            }
+        // 파일이 그룹에 속해 있는 경우, 그룹에서도 제거
+        if (file.getFileGroup() != null) {
+            FileGroup updatedGroup = file.getFileGroup().removeFile(file);
+            fileGroupRepository.save(updatedGroup);
+        }
+
+        fileRepository.delete(file);
+        log.info("Successfully deleted file with ID: {}", fileId);
+    }
 
-            fileRepository.delete(file);
-            log.info("Successfully deleted file with ID: {}", fileId);
-        } catch (IOException e) {
-            log.error("File deletion failed for file ID: {}", fileId, e);
-            throw new FileException(FileErrorResult.DELETE_FAIL);
+    // 그룹에 속한 파일만 골라 한 번에 제거 (그룹을 한 번만 저장하며, 빠진 파일 행은 orphanRemoval 로 삭제)
+    @Override
+    @Transactional
+    public FileGroup deleteFiles(FileGroup fileGroup, Collection<Long> fileIds) {
+        Set<Long> targetIds = new HashSet<>(fileIds);
+        List<File> remainingFiles = new ArrayList<>();
+        for (File file : fileGroup.getFiles()) {
+            if (targetIds.contains(file.getId())) {
+                fileReaper.retire(file);
+                hotFileCache.invalidateAfterCommit(List.of(file.getId()));
+            } else {
+                remainingFiles.add(file);
+            }
         }
+        return fileGroupRepository.save(fileGroup.withFiles(remainingFiles));
     }
 
     @Override
@@ -124,74 +196,51 @@ public class LocalFileServiceImpl implements FileService {
                 .orElseThrow(() -> new FileException(FileErrorResult.FILE_GROUP_NOT_FOUND));
     }
 
+    // 묘비 한 행만 기록하고, 그룹과 파일 행 및 디스크 삭제는 커밋 후 FileReaper 가 한다
     @Override
     @Transactional
     public void deleteFileGroup(Long fileGroupId) {
-        FileGroup fileGroup = getFileGroup(fileGroupId);
-        fileGroup.getFiles().forEach(file -> {
-            try {
-                Files.deleteIfExists(Paths.get(file.getPath()));
-            } catch (IOException e) {
-                log.error("File deletion failed", e);
-            }
-        });
-        fileGroupRepository.delete(fileGroup);
+        fileReaper.retireFileGroup(fileGroupId);
+        hotFileCache.invalidateAfterCommit(fileRepository.findIdsByFileGroupId(fileGroupId));
     }
 
-    private String generateFileName(MultipartFile file) {
-        return UUID.randomUUID().toString() + getFileExtension(file.getOriginalFilename());
-    }
-
-    private Path getTargetLocation(String contentName, String fileName) {
-        return Paths.get(UPLOAD_DIR).resolve(contentName).resolve(fileName);
-    }
-
-    private File createFileEntity(MultipartFile file, Path targetLocation) throws IOException {
-        return File.createFile(
-                targetLocation.getFileName().toString(),
-                file.getOriginalFilename(),
-                targetLocation.toString(),
-                file.getContentType(),
-                file.getSize(),
-                getFileExtension(file.getOriginalFilename()),
-                calculateChecksum(file.getInputStream())
-        );
-    }
-
-
-    private String getFileExtension(String fileName) {
-        return fileName.substring(fileName.lastIndexOf("."));
-    }
+    private List<File> saveFileEntities(List<StoredFileDTO> storedFiles, FileGroup fileGroup) {
+        storedFiles.stream()
+                .filter(storedFile -> storedFile.getStagingPath() != null)
+                .forEach(fileBlobStore::commit);
 
-    private String calculateChecksum(Path file) throws IOException {
-        try (InputStream is = Files.newInputStream(file)) {
-            return calculateChecksum(is);
+        List<File> files = storedFiles.stream()
+                .map(storedFile -> fileGroup != null
+                        ? storedFile.toEntity().withFileGroup(fileGroup)
+                        : storedFile.toEntity())
+                .collect(Collectors.toList());
+        List<File> savedFiles = new ArrayList<>();
+        fileRepository.saveAll(files).forEach(savedFiles::add);
+
+        // 커밋되면 이미지 변형을 미리 만들고, 롤백되면 이미 기록한 파일을 지운다
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        imageVariantService.generateAsync(savedFiles);
+                    } else if (status == STATUS_ROLLED_BACK) {
+                        fileUploadPipeline.discard(storedFiles);
+                    }
+                }
+            });
+        } else {
+            imageVariantService.generateAsync(savedFiles);
         }
+        return savedFiles;
     }
 
-    private String calculateChecksum(InputStream inputStream) throws IOException {
+    private <T> T saveInShortTransaction(List<StoredFileDTO> storedFiles, Supplier<T> action) {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] buffer = new byte[8192];
-            int read;
-            while ((read = inputStream.read(buffer)) > 0) {
-                digest.update(buffer, 0, read);
-            }
-            byte[] hash = digest.digest();
-            return bytesToHex(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("SHA-256 algorithm not found", e);
+            return transactionTemplate.execute(status -> action.get());
+        } catch (RuntimeException e) {
+            fileUploadPipeline.discard(storedFiles);
+            throw e;
         }
     }
-
-    private static String bytesToHex(byte[] hash) {
-        StringBuilder hexString = new StringBuilder();
-        for (byte b : hash) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) hexString.append('0');
-            hexString.append(hex);
-        }
-        return hexString.toString();
-    }
-
 }
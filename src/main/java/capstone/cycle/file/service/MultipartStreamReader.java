@@ -0,0 +1,276 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
+import lombok.Getter;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * multipart/form-data 요청 본문을 파트 단위로 앞에서부터 읽는다.
+ *
+ * 파트 본문을 임시 파일이나 메모리에 미리 모으지 않고, 요청 스트림에서 경계 문자열 직전까지를 그대로 넘겨준다.
+ * 호출 측은 next() 로 받은 파트의 본문을 읽은 뒤 다음 파트로 넘어가며, 읽지 않은 본문은 다음 호출에서 건너뛴다.
+ * 컨테이너가 파트를 해석하지 않으므로 요청 전체와 파트 하나의 크기 한도는 여기서 검사한다 (건너뛰는 파트 포함).
+ */
+public class MultipartStreamReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 8 * 1024;
+
+    private final InputStream in;
+    private final long maxRequestBytes;
+    private final long maxPartBytes;
+    private long requestBytes;
+    // 파트 사이 구분자 "\r\n--{boundary}"
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head;
+    private int tail;
+    // 이 위치보다 앞에서는 구분자가 시작되지 않는다 (같은 구간을 반복 탐색하지 않도록)
+    private int searchFrom;
+    private boolean finished;
+    private PartInputStream current;
+
+    private MultipartStreamReader(InputStream in, String boundary, long maxRequestBytes, long maxPartBytes) {
+        this.in = in;
+        this.maxRequestBytes = maxRequestBytes;
+        this.maxPartBytes = maxPartBytes;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, delimiter.length * 4)];
+        // 첫 경계 앞에는 줄바꿈이 없으므로 있는 것처럼 채워 두고 같은 방식으로 찾는다
+        this.buffer[0] = '\r';
+        this.buffer[1] = '\n';
+        this.tail = 2;
+    }
+
+    /**
+     * maxRequestBytes 는 요청 본문 전체, maxPartBytes 는 파트 본문 하나의 한도이며 넘으면 읽는 중에 LimitExceededException.
+     */
+    public static MultipartStreamReader of(String contentType, InputStream in, long maxRequestBytes, long maxPartBytes) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            String boundary = mediaType.getParameter("boundary");
+            if (!MediaType.MULTIPART_FORM_DATA.includes(mediaType) || boundary == null || boundary.isEmpty()) {
+                throw new FileException(FileErrorResult.INVALID_MULTIPART);
+            }
+            if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+                boundary = boundary.substring(1, boundary.length() - 1);
+            }
+            return new MultipartStreamReader(in, boundary, maxRequestBytes, maxPartBytes);
+        } catch (IllegalArgumentException e) {
+            throw new FileException(FileErrorResult.INVALID_MULTIPART);
+        }
+    }
+
+    /**
+     * 다음 파트. 더 없으면 null.
+     */
+    public Part next() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        // 이전 파트 본문의 남은 부분(또는 첫 경계 앞 내용)을 건너뛰어 다음 구분자 뒤로 간다
+        PartInputStream remaining = current != null ? current : new PartInputStream();
+        byte[] skip = new byte[8192];
+        while (remaining.read(skip, 0, skip.length) != -1) {
+            // 버린다
+        }
+
+        // 구분자 뒤가 "--" 면 마지막, "\r\n" 이면 파트 헤더가 이어진다
+        ensure(2);
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            current = null;
+            return null;
+        }
+        String line = readLine();
+        if (!line.isBlank()) {
+            throw new IOException("Malformed multipart boundary line");
+        }
+
+        String name = null;
+        String filename = null;
+        String contentType = null;
+        int headerBytes = 0;
+        while (!(line = readLine()).isEmpty()) {
+            headerBytes += line.length();
+            if (headerBytes > MAX_HEADER_BYTES) {
+                throw new IOException("Multipart headers too large");
+            }
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String headerName = line.substring(0, colon).trim();
+            String value = line.substring(colon + 1).trim();
+            if (headerName.equalsIgnoreCase("Content-Disposition")) {
+                ContentDisposition disposition = ContentDisposition.parse(value);
+                name = disposition.getName();
+                filename = disposition.getFilename();
+            } else if (headerName.equalsIgnoreCase("Content-Type")) {
+                contentType = value;
+            }
+        }
+
+        current = new PartInputStream();
+        return new Part(name, filename, contentType, current);
+    }
+
+    // CRLF 로 끝나는 한 줄 (CRLF 제외, UTF-8)
+    private String readLine() throws IOException {
+        while (true) {
+            for (int i = head; i < tail - 1; i++) {
+                if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                    String line = new String(buffer, head, i - head, StandardCharsets.UTF_8);
+                    head = i + 2;
+                    return line;
+                }
+            }
+            if (tail - head > MAX_HEADER_BYTES) {
+                throw new IOException("Multipart header line too long");
+            }
+            if (!fill()) {
+                throw new IOException("Unexpected end of multipart stream");
+            }
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        while (tail - head < bytes) {
+            if (!fill()) {
+                throw new IOException("Unexpected end of multipart stream");
+            }
+        }
+    }
+
+    // 남은 데이터를 앞으로 당기고 뒤를 채운다
+    private boolean fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            searchFrom = Math.max(searchFrom - head, 0);
+            head = 0;
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            return false;
+        }
+        requestBytes += read;
+        if (requestBytes > maxRequestBytes) {
+            throw new LimitExceededException(FileErrorResult.REQUEST_TOO_LARGE);
+        }
+        tail += read;
+        return true;
+    }
+
+    private int findDelimiter() {
+        int start = Math.max(head, searchFrom);
+        int last = tail - delimiter.length;
+        for (int i = start; i <= last; i++) {
+            if (buffer[i] == delimiter[0] && matchesAt(i)) {
+                searchFrom = i;
+                return i;
+            }
+        }
+        searchFrom = Math.max(start, last + 1);
+        return -1;
+    }
+
+    private boolean matchesAt(int index) {
+        for (int j = 1; j < delimiter.length; j++) {
+            if (buffer[index + j] != delimiter[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Getter
+    public static final class Part {
+        private final String name;
+        private final String filename;
+        private final String contentType;
+        private final InputStream body;
+
+        private Part(String name, String filename, String contentType, InputStream body) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public boolean isFile() {
+            return filename != null && !filename.isEmpty();
+        }
+    }
+
+    /**
+     * 요청 또는 파트 크기 한도를 넘었다. errorResult 는 넘은 한도에 따라 REQUEST_TOO_LARGE 또는 FILE_TOO_LARGE.
+     */
+    @Getter
+    public static final class LimitExceededException extends IOException {
+        private final FileErrorResult errorResult;
+
+        private LimitExceededException(FileErrorResult errorResult) {
+            super(errorResult.getMessage());
+            this.errorResult = errorResult;
+        }
+    }
+
+    // 다음 구분자 직전까지만 읽히는 파트 본문
+    private final class PartInputStream extends InputStream {
+        private boolean done;
+        private long bytes;
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (done) {
+                return -1;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            while (true) {
+                int index = findDelimiter();
+                if (index >= 0) {
+                    if (index == head) {
+                        head += delimiter.length;
+                        done = true;
+                        return -1;
+                    }
+                    return copy(b, off, Math.min(len, index - head));
+                }
+                // 구분자가 걸쳐 있을 수 있는 끝부분만 남기고 넘겨준다
+                int safe = tail - head - (delimiter.length - 1);
+                if (safe > 0) {
+                    return copy(b, off, Math.min(len, safe));
+                }
+                if (!fill()) {
+                    throw new IOException("Unexpected end of multipart stream");
+                }
+            }
+        }
+
+        private int copy(byte[] b, int off, int length) throws LimitExceededException {
+            bytes += length;
+            if (bytes > maxPartBytes) {
+                throw new LimitExceededException(FileErrorResult.FILE_TOO_LARGE);
+            }
+            System.arraycopy(buffer, head, b, off, length);
+            head += length;
+            return length;
+        }
+    }
+}
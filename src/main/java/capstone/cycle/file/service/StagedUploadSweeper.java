@@ -0,0 +1,74 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.entity.StagedUpload;
+import capstone.cycle.file.repository.FileRepository;
+import capstone.cycle.file.repository.StagedUploadRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 만료될 때까지 게시글에 연결되지 않은 업로드 파일을 정리한다.
+ * 대기 행과 파일 행을 지우고 디스크 삭제는 FileReaper 에 맡긴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StagedUploadSweeper {
+
+    private final StagedUploadRepository stagedUploadRepository;
+    private final FileRepository fileRepository;
+    private final FileReaper fileReaper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${file.staging.sweep-batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${file.staging.sweep-interval-ms:300000}")
+    public void sweep() {
+        int swept = 0;
+        List<StagedUpload> expired;
+        do {
+            expired = stagedUploadRepository.findExpired(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (expired.isEmpty()) {
+                break;
+            }
+            try {
+                List<StagedUpload> batch = expired;
+                transactionTemplate.executeWithoutResult(status -> expire(batch));
+                swept += batch.size();
+            } catch (Exception e) {
+                log.warn("Failed to sweep expired staged uploads", e);
+                break;
+            }
+        } while (expired.size() == batchSize);
+
+        if (swept > 0) {
+            log.info("Expired staged uploads swept: {}", swept);
+        }
+    }
+
+    // 그사이 게시글에 연결된 토큰은 잠금 조회에서 빠진다
+    private void expire(List<StagedUpload> candidates) {
+        List<StagedUpload> locked = stagedUploadRepository.findAllForUpdate(
+                candidates.stream().map(StagedUpload::getToken).toList());
+        LocalDateTime now = LocalDateTime.now();
+        for (StagedUpload stagedUpload : locked) {
+            if (stagedUpload.getExpiresAt().isAfter(now)) {
+                continue;
+            }
+            fileRepository.findById(stagedUpload.getFileId()).ifPresent(file -> {
+                fileReaper.retire(file);
+                fileRepository.delete(file);
+            });
+            stagedUploadRepository.delete(stagedUpload);
+        }
+    }
+}
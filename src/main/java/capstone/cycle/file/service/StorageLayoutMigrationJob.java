@@ -0,0 +1,121 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.repository.FileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 이전 규칙({contentName}/{name})으로 저장된 파일을 하위 디렉터리 규칙으로 옮기는 온라인 작업.
+ *
+ * 파일마다 새 경로에 하드 링크(안 되면 복사)를 만든 뒤 경로가 그대로일 때만 File.path 를 바꾸고,
+ * 이전 경로는 커밋 후 FileReaper 가 지운다. 각 행이 자기 경로를 가지므로 옮기는 중에도 두 규칙 모두 읽힌다.
+ * 이미 옮긴 파일은 건너뛰므로 중간에 멈춰도 다시 실행하면 된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageLayoutMigrationJob {
+
+    private final FileRepository fileRepository;
+    private final FileStorageLayout fileStorageLayout;
+    private final FileReaper fileReaper;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${file.layout.migration-enabled:false}")
+    private boolean migrationEnabled;
+
+    @Value("${file.layout.migration-batch-size:200}")
+    private int batchSize;
+
+    @Value("${file.layout.migration-batch-pause-ms:500}")
+    private long batchPauseMillis;
+
+    // 기동을 막지 않도록 스케줄러 스레드에서 실행
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (migrationEnabled) {
+            taskScheduler.schedule(this::migrate, Instant.now());
+        }
+    }
+
+    public void migrate() {
+        int moved = 0;
+        int failed = 0;
+        long afterId = 0;
+        List<File> files;
+        try {
+            do {
+                files = fileRepository.findAfter(afterId, PageRequest.of(0, batchSize));
+                for (File file : files) {
+                    afterId = file.getId();
+                    Path source = fileStorageLayout.resolve(file.getPath());
+                    if (fileStorageLayout.isFannedOut(source)) {
+                        continue;
+                    }
+                    try {
+                        if (move(file, source)) {
+                            moved++;
+                        }
+                    } catch (Exception e) {
+                        failed++;
+                        log.warn("Failed to migrate file to fan-out layout. fileId: {}", file.getId(), e);
+                    }
+                }
+                if (!files.isEmpty()) {
+                    Thread.sleep(batchPauseMillis);
+                }
+            } while (files.size() == batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("File layout migration finished. moved: {}, failed: {}", moved, failed);
+    }
+
+    private boolean move(File file, Path source) throws IOException {
+        if (!Files.exists(source)) {
+            return false;
+        }
+        Path target = fileStorageLayout.migratedPath(source);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException e) {
+            // 이전 실행이 링크만 만들고 멈춘 경우
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        String oldPath = file.getPath();
+        Boolean updated = transactionTemplate.execute(status -> {
+            if (fileRepository.updatePath(file.getId(), oldPath, target.toString()) == 0) {
+                return false;
+            }
+            fileReaper.retirePath(oldPath);
+            return true;
+        });
+
+        // 그사이 삭제되었거나 경로가 바뀌었으면 만든 사본만 지운다
+        if (!Boolean.TRUE.equals(updated)) {
+            Files.deleteIfExists(target);
+            return false;
+        }
+        return true;
+    }
+}
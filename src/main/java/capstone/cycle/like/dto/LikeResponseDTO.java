@@ -0,0 +1,26 @@
+package capstone.cycle.like.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * 좋아요 토글 결과 (게시글/댓글 공용).
+ */
+@Getter
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class LikeResponseDTO {
+    private Long targetId;
+    private LikeStatus likeStatus;
+    private long likeCount;
+
+    public static LikeResponseDTO of(Long targetId, LikeStatus likeStatus, long likeCount) {
+        return LikeResponseDTO.builder()
+                .targetId(targetId)
+                .likeStatus(likeStatus)
+                .likeCount(likeCount)
+                .build();
+    }
+}
@@ -2,8 +2,13 @@ package capstone.cycle.like.repository;
 
 import capstone.cycle.like.entity.Like;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,6 +22,17 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     // 특정 게시글의 좋아요 수 카운트
     long countByPost_Id(Long postId);
 
-    // 특정 게시글의 특정 사용자의 좋아요 삭제
-    void deleteByPost_IdAndUser_Id(Long postId, Long userId);
+    // 게시글 목록 중 특정 사용자가 좋아요한 게시글 id 조회 (페이지 단위 일괄 확인)
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    // 좋아요 취소 (엔티티를 읽지 않고 한 행만 삭제)
+    @Query("DELETE FROM Like l WHERE l.post.id = :postId AND l.user.id = :userId")
+    @Modifying
+    int deleteLike(@Param("postId") Long postId, @Param("userId") Long userId);
+
+    // 좋아요 추가 (유니크 제약에 걸리면 무시하고 0 반환)
+    @Query(value = "INSERT IGNORE INTO likes (post_id, user_id) VALUES (:postId, :userId)", nativeQuery = true)
+    @Modifying
+    int insertLike(@Param("postId") Long postId, @Param("userId") Long userId);
 }
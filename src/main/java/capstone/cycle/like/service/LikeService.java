@@ -1,7 +1,6 @@
 package capstone.cycle.like.service;
 
 import capstone.cycle.like.dto.LikeStatus;
-import capstone.cycle.like.entity.Like;
 import capstone.cycle.like.error.LikeErrorResult;
 import capstone.cycle.like.error.LikeException;
 import capstone.cycle.like.repository.LikeRepository;
@@ -9,6 +8,8 @@ import capstone.cycle.post.entity.Post;
 import capstone.cycle.post.error.PostErrorResult;
 import capstone.cycle.post.error.PostException;
 import capstone.cycle.post.repository.PostRepository;
+import capstone.cycle.post.service.PopularPostRanking;
+import capstone.cycle.post.service.PostLikeCounter;
 import capstone.cycle.user.entity.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,9 @@ public class LikeService {
 
     private final LikeRepository likeRepository;
     private final PostRepository postRepository;
+    private final PopularPostRanking popularPostRanking;
+    private final PostLikeCounter postLikeCounter;
+
     @Transactional
     public LikeStatus flipLike(Post post, User user) {
         if (post == null) {
@@ -29,21 +33,17 @@ public class LikeService {
             throw new LikeException(LikeErrorResult.USER_NOT_FOUND);
         }
 
-        boolean hasLiked = likeRepository.existsByPost_IdAndUser_Id(post.getId(), user.getId());
-
-        if (hasLiked) {
-            Like existingLike = likeRepository.findByPost_IdAndUser_Id(post.getId(), user.getId())
-                    .orElseThrow(() -> new LikeException(LikeErrorResult.LIKE_NOT_FOUND));
-
-            likeRepository.delete(existingLike);
-            post.removeLike(existingLike);
+        if (likeRepository.deleteLike(post.getId(), user.getId()) > 0) {
+            postLikeCounter.decrement(post.getId());
+            popularPostRanking.recordUnlike(post.getId());
             return LikeStatus.UNLIKE;
-        } else {
-            Like newLike = Like.createLike(post, user);
-            likeRepository.save(newLike);
-            post.addLike(newLike);
-            return LikeStatus.LIKE;
         }
+
+        if (likeRepository.insertLike(post.getId(), user.getId()) > 0) {
+            postLikeCounter.increment(post.getId());
+            popularPostRanking.recordLike(post.getId());
+        }
+        return LikeStatus.LIKE;
     }
 
     @Transactional(readOnly = true)
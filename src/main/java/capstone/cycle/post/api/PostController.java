@@ -1,23 +1,28 @@
 package capstone.cycle.post.api;
 
 import capstone.cycle.common.security.dto.UserDetailsImpl;
+import capstone.cycle.file.dto.StagedUploadDTO;
+import capstone.cycle.file.api.StreamingMultipartResolver;
+import capstone.cycle.like.dto.LikeResponseDTO;
 import capstone.cycle.post.dto.PostCreateDTO;
+import capstone.cycle.post.dto.PostInfosDTO;
 import capstone.cycle.post.dto.PostResponseDTO;
 import capstone.cycle.post.dto.PostUpdateDTO;
-import capstone.cycle.post.dto.SimplePostResponseDTO;
 import capstone.cycle.post.entity.PostCategory;
 import capstone.cycle.post.service.PostService;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Slice;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -25,6 +30,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PostController {
     private final PostService postService;
+    private final StreamingMultipartResolver streamingMultipartResolver;
 
     @SecurityRequirement(name = "Bearer Authentication")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -37,6 +43,32 @@ public class PostController {
         return ResponseEntity.ok(createdPostId);
     }
 
+    // 이미지를 먼저 올려 받은 토큰(imageTokens)만 담아 작성
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Long> createPostWithStagedImages(
+            @RequestBody PostCreateDTO postCreateDTO,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        Long createdPostId = postService.createPost(postCreateDTO, null, userDetails.getUser().getId());
+        return ResponseEntity.ok(createdPostId);
+    }
+
+    // 게시글 작성/수정 전에 이미지만 올려 업로드 토큰을 받는다 (토큰은 일정 시간 뒤 만료)
+    // StreamingMultipartResolver 가 multipart 를 미리 풀지 않았으면 요청 본문을 받는 대로 저장소에 기록한다
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PostMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<StagedUploadDTO>> stageImages(
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) throws IOException {
+        Long userId = userDetails.getUser().getId();
+        List<StagedUploadDTO> stagedImages = request instanceof MultipartHttpServletRequest multipartRequest
+                ? postService.stageImages(multipartRequest.getFiles("images"), userId)
+                : postService.stageImages(streamingMultipartResolver.openStream(request), userId);
+        return ResponseEntity.ok(stagedImages);
+    }
+
     @SecurityRequirement(name = "Bearer Authentication")
     @GetMapping("/{id}")
     public ResponseEntity<PostResponseDTO> getPost(@PathVariable Long id, @AuthenticationPrincipal UserDetailsImpl userDetails) {
@@ -58,6 +90,18 @@ public class PostController {
         return ResponseEntity.ok(updatedPost);
     }
 
+    // 미리 올린 이미지 토큰(newImageTokens)만 담아 수정
+    @SecurityRequirement(name = "Bearer Authentication")
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<PostResponseDTO> updatePostWithStagedImages(
+            @PathVariable Long id,
+            @RequestBody PostUpdateDTO postUpdateDTO,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        PostResponseDTO updatedPost = postService.updatePost(id, postUpdateDTO, null, userDetails.getUser().getId());
+        return ResponseEntity.ok(updatedPost);
+    }
+
     @SecurityRequirement(name = "Bearer Authentication")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePost(
@@ -70,22 +114,56 @@ public class PostController {
 
     @SecurityRequirement(name = "Bearer Authentication")
     @PostMapping("/{id}/like") //like toggle
-    public ResponseEntity<PostResponseDTO> toggleLike(@PathVariable Long id, @AuthenticationPrincipal UserDetailsImpl userDetails) {
-        PostResponseDTO updatedPost = postService.toggleLike(id, userDetails.getUser().getId());
-        return ResponseEntity.ok(updatedPost);
+    public ResponseEntity<LikeResponseDTO> toggleLike(@PathVariable Long id, @AuthenticationPrincipal UserDetailsImpl userDetails) {
+        LikeResponseDTO likeResponse = postService.toggleLike(id, userDetails.getUser().getId());
+        return ResponseEntity.ok(likeResponse);
     }
 
     @SecurityRequirement(name = "Bearer Authentication")
     @GetMapping("/category/{category}")
-    public ResponseEntity<Slice<SimplePostResponseDTO>> getPostsByCategory(
+    public ResponseEntity<PostInfosDTO> getPostsByCategory(
             @PathVariable PostCategory category,
-            @RequestParam(required = false) Long lastPostId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "20") int size,
             @AuthenticationPrincipal UserDetailsImpl userDetails
     ) {
-        Slice<SimplePostResponseDTO> posts = postService.getPostsByCategory(
+        PostInfosDTO posts = postService.getPostsByCategory(
                 category,
-                lastPostId,
+                cursor,
+                userDetails.getUser().getId(),
+                size
+        );
+        return ResponseEntity.ok(posts);
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/users/{userId}/posts")
+    public ResponseEntity<PostInfosDTO> getPostsByAuthor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        PostInfosDTO posts = postService.getPostsByAuthor(
+                userId,
+                cursor,
+                userDetails.getUser().getId(),
+                size
+        );
+        return ResponseEntity.ok(posts);
+    }
+
+    @SecurityRequirement(name = "Bearer Authentication")
+    @GetMapping("/search")
+    public ResponseEntity<PostInfosDTO> searchPosts(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        PostInfosDTO posts = postService.searchPosts(
+                keyword,
+                cursor,
                 userDetails.getUser().getId(),
                 size
         );
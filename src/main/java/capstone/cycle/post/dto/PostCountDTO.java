@@ -0,0 +1,15 @@
+package capstone.cycle.post.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 게시글 상세에 덮어쓸 카운터 값 (캐시하지 않고 매번 PK 로 조회).
+ */
+@Getter
+@AllArgsConstructor
+public class PostCountDTO {
+    private Long viewCount;
+    private int likeCount;
+    private int commentCount;
+}
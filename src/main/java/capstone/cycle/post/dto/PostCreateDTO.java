@@ -6,6 +6,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
+import java.util.List;
+
 
 @Getter
 @Builder
@@ -23,4 +25,7 @@ public class PostCreateDTO {
 
     @NotNull(message = "카테고리는 필수 입력 항목입니다.")
     private PostCategory category;
+
+    // 이미지 업로드 API 로 미리 올린 이미지의 토큰 (올린 순서대로 붙는다)
+    private List<String> imageTokens;
 }
@@ -0,0 +1,68 @@
+package capstone.cycle.post.dto;
+
+import capstone.cycle.post.error.PostErrorResult;
+import capstone.cycle.post.error.PostException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 무한 스크롤용 키셋 커서.
+ * 일반 게시판은 (createdAt, id), 인기 게시판과 검색은 점수 기준 (score, id) 를 담으며
+ * 클라이언트에는 Base64URL 로 인코딩된 불투명 토큰으로만 노출한다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PostCursor {
+
+    private static final String DELIMITER = "|";
+    private static final String SCORE_PREFIX = "R";
+
+    private final Double score;
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public static PostCursor of(LocalDateTime createdAt, Long id) {
+        return new PostCursor(null, createdAt, id);
+    }
+
+    public static PostCursor ofScore(double score, Long id) {
+        return new PostCursor(score, null, id);
+    }
+
+    public boolean isScored() {
+        return score != null;
+    }
+
+    public String encode() {
+        String raw = isScored()
+                ? SCORE_PREFIX + DELIMITER + score + DELIMITER + id
+                : createdAt + DELIMITER + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PostCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length == 2) {
+                return of(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            }
+            if (parts.length == 3 && SCORE_PREFIX.equals(parts[0])) {
+                double score = Double.parseDouble(parts[1]);
+                if (Double.isFinite(score)) {
+                    return ofScore(score, Long.parseLong(parts[2]));
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // 아래에서 공통으로 처리
+        }
+        throw new PostException(PostErrorResult.INVALID_CURSOR);
+    }
+}
@@ -0,0 +1,72 @@
+package capstone.cycle.post.dto;
+
+import capstone.cycle.file.service.FileUrlSigner;
+import capstone.cycle.post.entity.Post;
+import capstone.cycle.user.dto.SimpleUserInfoDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 게시글 상세 중 자주 바뀌지 않는 부분 (캐시 대상).
+ * 조회수/좋아요 수는 포함하지 않고 응답 시점에 별도로 채운다.
+ */
+@Getter
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PostDetailDTO {
+
+    // 문자열 외 필드와 객체 헤더에 대한 대략적인 고정 크기
+    private static final int BASE_WEIGHT = 256;
+
+    private final Long id;
+    private final String title;
+    private final String content;
+    private final SimpleUserInfoDTO author;
+    private final List<String> imageUrls;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final String categoryName;
+
+    public static PostDetailDTO from(Post post, FileUrlSigner fileUrlSigner) {
+        List<String> imageUrls = null;
+        if (post.getContentImageGroup() != null && post.getContentImageGroup().getFiles() != null) {
+            imageUrls = post.getContentImageGroup().getFiles().stream()
+                    .map(fileUrlSigner::urlOf)
+                    .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+        }
+
+        return PostDetailDTO.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(post.getContent())
+                .author(post.getAuthor() != null ? SimpleUserInfoDTO.from(post.getAuthor(), fileUrlSigner) : null)
+                .imageUrls(imageUrls)
+                .createdAt(post.getCreatedAt())
+                .updatedAt(post.getUpdatedAt())
+                .categoryName(post.getCategory().getDisplayName())
+                .build();
+    }
+
+    // 캐시 용량 계산용 대략적인 메모리 크기 (문자열은 글자당 2바이트로 계산)
+    public int weight() {
+        int chars = length(title) + length(content);
+        if (author != null) {
+            chars += length(author.getNickname()) + length(author.getProfileImageUrl());
+        }
+        if (imageUrls != null) {
+            chars += imageUrls.stream().mapToInt(PostDetailDTO::length).sum();
+        }
+        return BASE_WEIGHT + chars * 2;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
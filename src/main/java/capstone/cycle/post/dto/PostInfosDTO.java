@@ -10,4 +10,6 @@ import java.util.List;
 @AllArgsConstructor
 public class PostInfosDTO {
     private List<SimplePostResponseDTO> content;
+    private boolean hasNext;
+    private String nextCursor;
 }
@@ -2,6 +2,7 @@ package capstone.cycle.post.dto;
 
 import capstone.cycle.file.dto.FileDTO;
 import capstone.cycle.file.entity.File;
+import capstone.cycle.file.service.FileUrlSigner;
 import capstone.cycle.like.dto.LikeStatus;
 import capstone.cycle.post.entity.Post;
 import capstone.cycle.user.dto.SimpleUserInfoDTO;
@@ -29,23 +30,43 @@ public class PostResponseDTO {
     private LocalDateTime updatedAt;
     private Long viewCount;
     private int likeCount;
+    private int commentCount;
     private LikeStatus likeStatus;
     private String categoryName;
 
-    public PostResponseDTO(Post post, LikeStatus likeStatus) {
+    public static PostResponseDTO of(PostDetailDTO detail, long viewCount, int likeCount, int commentCount,
+                                     LikeStatus likeStatus) {
+        return PostResponseDTO.builder()
+                .id(detail.getId())
+                .title(detail.getTitle())
+                .content(detail.getContent())
+                .author(detail.getAuthor())
+                .imageUrls(detail.getImageUrls())
+                .createdAt(detail.getCreatedAt())
+                .updatedAt(detail.getUpdatedAt())
+                .viewCount(viewCount)
+                .likeCount(likeCount)
+                .commentCount(commentCount)
+                .likeStatus(likeStatus)
+                .categoryName(detail.getCategoryName())
+                .build();
+    }
+
+    public PostResponseDTO(Post post, LikeStatus likeStatus, FileUrlSigner fileUrlSigner) {
         this.id = post.getId();
         this.title = post.getTitle();
         this.content = post.getContent();
         this.createdAt = post.getCreatedAt();
-        this.author = post.getAuthor() != null ? SimpleUserInfoDTO.from(post.getAuthor()) : null;
+        this.author = post.getAuthor() != null ? SimpleUserInfoDTO.from(post.getAuthor(), fileUrlSigner) : null;
         this.updatedAt = post.getUpdatedAt();
         this.viewCount = post.getViewCount();
         this.likeCount = post.getLikeCount();
+        this.commentCount = post.getCommentCount();
         this.likeStatus = likeStatus;
         this.categoryName = post.getCategory().getDisplayName();
         if (post.getContentImageGroup() != null && post.getContentImageGroup().getFiles() != null) {
             this.imageUrls = post.getContentImageGroup().getFiles().stream()
-                    .map(file -> "/api/files/" + file.getId())
+                    .map(fileUrlSigner::urlOf)
                     .collect(Collectors.toList());
         }
     }
@@ -0,0 +1,30 @@
+package capstone.cycle.post.dto;
+
+import capstone.cycle.post.entity.PostCategory;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 게시글 목록(피드) 조회용 읽기 모델.
+ * PostRepository 의 생성자 프로젝션으로만 생성되며, 목록 카드와 다음 페이지 커서에 필요한 컬럼만 담는다.
+ */
+@Getter
+@AllArgsConstructor
+public class PostSummaryDTO {
+    private Long id;
+    private String title;
+    private PostCategory category;
+    private Long viewCount;
+    private int likeCount;
+    private int commentCount;
+    private LocalDateTime createdAt;
+    private String authorName;
+    private Long coverFileId;
+    private Integer coverWidth;
+    private Integer coverHeight;
+    // 서명 주소용 대표 이미지 저장 경로와 확장자
+    private String coverPath;
+    private String coverExtension;
+}
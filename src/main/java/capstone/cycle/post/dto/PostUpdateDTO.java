@@ -22,6 +22,8 @@ public class PostUpdateDTO {
     @Size(min = 1, max = 5000, message = "내용은 1자 이상 5000자 이하여야 합니다.")
     private String content;
     private List<Long> deletedImageIds;
+    // 이미지 업로드 API 로 미리 올린 새 이미지의 토큰
+    private List<String> newImageTokens;
 
     @NotNull(message = "카테고리는 필수 입력 항목입니다.")
     private PostCategory category;
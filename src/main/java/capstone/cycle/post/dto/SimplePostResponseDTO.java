@@ -1,8 +1,6 @@
 package capstone.cycle.post.dto;
 
-import capstone.cycle.file.dto.FileDTO;
-import capstone.cycle.post.entity.Post;
-import capstone.cycle.post.entity.PostCategory;
+import capstone.cycle.file.service.FileUrlSigner;
 import lombok.*;
 
 @Getter
@@ -15,29 +13,37 @@ public class SimplePostResponseDTO {
     private String categoryName;
     private Long viewCount;
     private int likeCount;
+    private int commentCount;
     private boolean isLiked;
     private String firstImageUrl;
+    // 목록 카드의 이미지 영역을 미리 잡을 수 있도록 대표 이미지 크기도 함께 내려준다
+    private Integer firstImageWidth;
+    private Integer firstImageHeight;
     private String authorName;
 
-    public static SimplePostResponseDTO fromPost(Post post, boolean isLiked) {
+    public static SimplePostResponseDTO from(PostSummaryDTO summary, boolean isLiked, FileUrlSigner fileUrlSigner) {
+        return from(summary, isLiked, summary.getLikeCount(), fileUrlSigner);
+    }
+
+    // 분산 카운터 슬롯 합계 등을 반영한 좋아요 수로 덮어쓸 때 사용
+    public static SimplePostResponseDTO from(PostSummaryDTO summary, boolean isLiked, int likeCount,
+                                             FileUrlSigner fileUrlSigner) {
         return SimplePostResponseDTO.builder()
-                .id(post.getId())
-                .title(post.getTitle())
-                .categoryName(post.getCategory().getDisplayName())
-                .viewCount(post.getViewCount())
-                .likeCount(post.getLikeCount())
-                .firstImageUrl(getFirstImageUrl(post))
-                .authorName(post.getAuthor().getNickname())
+                .id(summary.getId())
+                .title(summary.getTitle())
+                .categoryName(summary.getCategory().getDisplayName())
+                .viewCount(summary.getViewCount())
+                .likeCount(likeCount)
+                .commentCount(summary.getCommentCount())
+                .firstImageUrl(summary.getCoverFileId() != null
+                        ? fileUrlSigner.urlOf(summary.getCoverFileId(), summary.getCoverPath(), summary.getCoverExtension(),
+                        summary.getCoverWidth(), 480)
+                        : null)
+                .firstImageWidth(summary.getCoverWidth())
+                .firstImageHeight(summary.getCoverHeight())
+                .authorName(summary.getAuthorName())
                 .isLiked(isLiked)
                 .build();
     }
 
-    private static String getFirstImageUrl(Post post) {
-        if (post.getContentImageGroup() != null &&
-                !post.getContentImageGroup().getFiles().isEmpty()) {
-            return "/api/files/" + post.getContentImageGroup().getFiles().get(0).getId();
-        }
-        return null;
-    }
-
 }
\ No newline at end of file
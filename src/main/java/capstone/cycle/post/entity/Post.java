@@ -1,5 +1,6 @@
 package capstone.cycle.post.entity;
 
+import capstone.cycle.file.entity.File;
 import capstone.cycle.file.entity.FileGroup;
 import capstone.cycle.like.entity.Like;
 import capstone.cycle.user.entity.User;
@@ -15,6 +16,12 @@ import java.util.Collections;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_post_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_post_category_created_at_id", columnList = "category, created_at, id"),
+        @Index(name = "idx_post_updated_at_id", columnList = "updated_at, id"),
+        @Index(name = "idx_post_author_created_at_id", columnList = "author_id, created_at, id")
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
@@ -36,10 +43,19 @@ public class Post {
     @JoinColumn(name = "author_id")
     private User author;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    // 게시글을 지워도 그룹은 바로 지우지 않는다 (FileReaper/FileOrphanSweeper 가 커밋 후 정리)
+    @OneToOne(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
     @JoinColumn(name = "content_image_group_id")
     private FileGroup contentImageGroup;
 
+    // 목록 카드용 대표 이미지 (본문 이미지 중 첫 번째 파일의 id 와 크기, 이미지 그룹이 바뀔 때 함께 갱신)
+    // 서명 주소에 필요한 저장 경로와 확장자도 함께 두어 목록 조회가 파일 테이블을 읽지 않게 한다
+    private Long coverFileId;
+    private Integer coverWidth;
+    private Integer coverHeight;
+    private String coverPath;
+    private String coverExtension;
+
     @CreationTimestamp
     @Column(updatable = false)
     private LocalDateTime createdAt;
@@ -47,9 +63,18 @@ public class Post {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
-    @Column(nullable = false)
+    // 조회수 (ViewCountBuffer 가 모아 둔 증가분을 원자적 UPDATE 쿼리로만 반영)
+    @Column(nullable = false, updatable = false)
     private Long viewCount = 0L;
 
+    // 좋아요 수 (likes 테이블의 비정규화 값, 원자적 UPDATE 쿼리로만 변경)
+    @Column(nullable = false, updatable = false)
+    private int likeCount;
+
+    // 댓글 수 (대댓글 포함, 비정규화 값, 원자적 UPDATE 쿼리로만 변경)
+    @Column(nullable = false, updatable = false)
+    private int commentCount;
+
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, orphanRemoval = true)
 //    @BatchSize(size = 100)
     public List<Like> likes = new ArrayList<>();
@@ -71,6 +96,8 @@ public class Post {
                 .author(author)
                 .category(category)
                 .viewCount(0L)
+                .likeCount(0)
+                .commentCount(0)
                 .build();
     }
 
@@ -82,40 +109,47 @@ public class Post {
                 .content(newContent)
                 .author(this.author)
                 .contentImageGroup(this.contentImageGroup)
+                .coverFileId(this.coverFileId)
+                .coverWidth(this.coverWidth)
+                .coverHeight(this.coverHeight)
+                .coverPath(this.coverPath)
+                .coverExtension(this.coverExtension)
                 .category(newCategory)
                 .viewCount(this.viewCount)
+                .likeCount(this.likeCount)
+                .commentCount(this.commentCount)
                 .likes(this.likes)
                 .createdAt(this.createdAt)
                 .build();
     }
 
-    // 조회수 증가를 위한 메서드
-    public Post incrementViewCount() {
-        return Post.builder()
-                .id(this.id)
-                .title(this.title)
-                .content(this.content)
-                .author(this.author)
-                .contentImageGroup(this.contentImageGroup)
-                .createdAt(this.createdAt)
-                .updatedAt(this.updatedAt)
-                .viewCount(this.viewCount + 1)
-                .likes(this.likes)
-                .category(this.category)
-                .build();
-    }
-
-    // FileGroup 설정을 위한 메서드
+    // FileGroup 설정을 위한 메서드 (대표 이미지도 새 그룹 기준으로 다시 정한다)
+    // 지금 대표 이미지가 그룹에 남아 있으면 유지하고, 아니면 사용자가 올린 순서상 첫 이미지로 한다
     public Post withContentImageGroup(FileGroup fileGroup) {
+        List<File> files = fileGroup == null ? List.of() : fileGroup.getFiles().stream()
+                .filter(file -> file.getId() != null)
+                .toList();
+        File cover = files.stream()
+                .filter(file -> file.getId().equals(this.coverFileId))
+                .findFirst()
+                .orElse(files.isEmpty() ? null : files.get(0));
+
         return Post.builder()
                 .id(this.id)
                 .title(this.title)
                 .content(this.content)
                 .author(this.author)
                 .contentImageGroup(fileGroup)
+                .coverFileId(cover != null ? cover.getId() : null)
+                .coverWidth(cover != null ? cover.getWidth() : null)
+                .coverHeight(cover != null ? cover.getHeight() : null)
+                .coverPath(cover != null ? cover.getPath() : null)
+                .coverExtension(cover != null ? cover.getExtension() : null)
                 .createdAt(this.createdAt)
                 .updatedAt(this.updatedAt)
                 .viewCount(this.viewCount)
+                .likeCount(this.likeCount)
+                .commentCount(this.commentCount)
                 .likes(this.likes)
                 .category(this.category)
                 .build();
@@ -135,10 +169,6 @@ public class Post {
         return toBuilder().likes(newLikes).build();
     }
 
-    public int getLikeCount() {
-        return this.likes.size();
-    }
-
     // 불변 리스트 반환
     public List<Like> getLikes() {
         return Collections.unmodifiableList(likes);
@@ -153,9 +183,16 @@ public class Post {
                 .content(this.content)
                 .author(this.author)
                 .contentImageGroup(this.contentImageGroup)
+                .coverFileId(this.coverFileId)
+                .coverWidth(this.coverWidth)
+                .coverHeight(this.coverHeight)
+                .coverPath(this.coverPath)
+                .coverExtension(this.coverExtension)
                 .createdAt(this.createdAt)
                 .updatedAt(this.updatedAt)
                 .viewCount(this.viewCount)
+                .likeCount(this.likeCount)
+                .commentCount(this.commentCount)
                 .category(this.category);
     }
 }
@@ -0,0 +1,39 @@
+package capstone.cycle.post.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 좋아요가 몰리는 게시글의 분산 카운터 슬롯.
+ * 게시글당 여러 슬롯에 증감분을 나눠 쓰고, 식으면 Post.likeCount 로 합친 뒤 삭제한다.
+ * 행 쓰기는 (post_id, shard) 유니크 키 기준 upsert 로만 한다.
+ */
+@Entity
+@Table(name = "post_like_counter_shard", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_post_like_counter_shard", columnNames = {"post_id", "shard"})
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PostLikeCounterShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(nullable = false)
+    private int shard;
+
+    // Post.likeCount 에 아직 합쳐지지 않은 증감분
+    @Column(nullable = false)
+    private long delta;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package capstone.cycle.post.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 인기 게시글 랭킹 스냅샷.
+ * 재시작한 서버가 메모리 랭킹을 빠르게 복원할 수 있도록 게시글별로 주기적으로 덮어쓴다 (여러 서버가 함께 기록한다).
+ */
+@Entity
+@Table(name = "post_ranking_snapshot")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class PostRankingSnapshot {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    // 기준 시각으로 환산한 감쇠 점수의 로그 값
+    @Column(nullable = false)
+    private double logScore;
+}
@@ -17,6 +17,7 @@ public enum PostErrorResult {
     INVALID_FILE_TYPE(HttpStatus.BAD_REQUEST, "지원하지 않는 파일 형식입니다."),
     FILE_SIZE_EXCEED(HttpStatus.BAD_REQUEST, "파일 크기가 제한을 초과했습니다."),
     INVALID_CATEGORY(HttpStatus.BAD_REQUEST, "유효하지 않은 카테고리입니다."),
+    INVALID_CURSOR(HttpStatus.BAD_REQUEST, "유효하지 않은 페이지 커서입니다."),
     UNAUTHORIZED_ACTION(HttpStatus.FORBIDDEN, "이 작업을 수행할 권한이 없습니다.");
 
     private final HttpStatus status;
@@ -1,8 +1,9 @@
 package capstone.cycle.post.repository;
 
+import capstone.cycle.post.dto.PostCountDTO;
+import capstone.cycle.post.dto.PostSummaryDTO;
 import capstone.cycle.post.entity.Post;
 import capstone.cycle.post.entity.PostCategory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -10,8 +11,10 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,95 +30,53 @@ public interface PostRepository extends JpaRepository<Post, Long> {
             "WHERE p.id = :id")
     Optional<Post> findById(@Param("id") Long id);
 
-    // 카테고리별 게시글 목록 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN FETCH p.likes " +
-            "WHERE p.category = :category")
-    Page<Post> findByCategory(@Param("category") PostCategory category, Pageable pageable);
-
-    // 전체 게시글 목록 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN FETCH p.likes")
-    Page<Post> findAll(Pageable pageable);
-
-    // 인기 게시글 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
+    // 상세 캐시 적재용 조회 (이미지 파일까지 한 번에 가져오고 likes 는 가져오지 않는다)
+    @Query("SELECT p FROM Post p " +
+            "JOIN FETCH p.author a " +
             "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN p.likes l " +
-            "GROUP BY p " +
-            "HAVING COUNT(l) >= :likeThreshold " +
-            "ORDER BY COUNT(l) DESC")
-    Page<Post> findPopularPosts(@Param("likeThreshold") long likeThreshold, Pageable pageable);
-
+            "LEFT JOIN FETCH p.contentImageGroup g " +
+            "LEFT JOIN FETCH g.files " +
+            "WHERE p.id = :id")
+    Optional<Post> findDetailById(@Param("id") Long id);
 
+    // 상세 응답에 덮어쓸 카운터만 조회
+    @Query("SELECT new capstone.cycle.post.dto.PostCountDTO(p.viewCount, p.likeCount, p.commentCount) " +
+            "FROM Post p WHERE p.id = :id")
+    Optional<PostCountDTO> findCountsById(@Param("id") Long id);
 
+    // 목록 조회용 프로젝션 (likes 컬렉션을 fetch join 하지 않아 LIMIT 이 SQL 로 내려간다)
+    // 대표 이미지는 post 행에 저장된 값을 쓰므로 파일 테이블은 읽지 않는다
+    String SUMMARY_SELECT = "SELECT new capstone.cycle.post.dto.PostSummaryDTO(" +
+            "p.id, p.title, p.category, p.viewCount, p.likeCount, p.commentCount, p.createdAt, a.nickname, " +
+            "p.coverFileId, p.coverWidth, p.coverHeight, p.coverPath, p.coverExtension) " +
+            "FROM Post p JOIN p.author a ";
 
     // 전체 게시글 다음 페이지 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN FETCH p.likes " +
-            "WHERE p.createdAt < " +
-            "(SELECT sub.createdAt FROM Post sub WHERE sub.id = :lastPostId) " +
-            "ORDER BY p.createdAt DESC")
-    Slice<Post> findAllForInfiniteScroll(
-            @Param("lastPostId") Long lastPostId,
+    @Query(SUMMARY_SELECT +
+            "WHERE (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummaryDTO> findAllForInfiniteScroll(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
             Pageable pageable);
 
     // 카테고리별 첫 페이지 조회
 
     // 카테고리별 다음 페이지 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN FETCH p.likes " +
+    @Query(SUMMARY_SELECT +
             "WHERE p.category = :category " +
-            "AND p.createdAt < " +
-            "(SELECT sub.createdAt FROM Post sub WHERE sub.id = :lastPostId) " +
-            "ORDER BY p.createdAt DESC")
-    Slice<Post> findByCategoryForInfiniteScroll(
+            "AND (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummaryDTO> findByCategoryForInfiniteScroll(
             @Param("category") PostCategory category,
-            @Param("lastPostId") Long lastPostId,
-            Pageable pageable);
-
-    // 인기 게시글 첫 페이지 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN p.likes l " +
-            "GROUP BY p " +
-            "HAVING COUNT(l) >= :likeThreshold " +
-            "ORDER BY SIZE(p.likes) DESC, p.createdAt DESC")
-    Slice<Post> findFirstPagePopularPosts(
-            @Param("likeThreshold") long likeThreshold,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
             Pageable pageable);
 
-    // 인기 게시글 다음 페이지 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN p.likes l " +
-            "WHERE p.createdAt < " +
-            "(SELECT sub.createdAt FROM Post sub WHERE sub.id = :lastPostId) " +
-            "GROUP BY p " +
-            "HAVING COUNT(l) >= :likeThreshold " +
-            "ORDER BY SIZE(p.likes) DESC, p.createdAt DESC")
-    Slice<Post> findPopularPostsForInfiniteScroll(
-            @Param("likeThreshold") long likeThreshold,
-            @Param("lastPostId") Long lastPostId,
-            Pageable pageable);
+    // 인기 게시글 랭킹 순서대로 조회할 게시글 (정렬은 호출 측에서 랭킹 기준으로 다시 맞춘다)
+    @Query(SUMMARY_SELECT +
+            "WHERE p.id IN :ids")
+    List<PostSummaryDTO> findSummariesByIds(@Param("ids") Collection<Long> ids);
 
     // 게시글 삭제를 위한 조회
     @Query("SELECT p FROM Post p " +
@@ -129,65 +90,77 @@ public interface PostRepository extends JpaRepository<Post, Long> {
             "WHERE p.id = :id")
     Optional<Post> findByIdWithAuthor(@Param("id") Long id);
 
-    // 특정 사용자의 게시글 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN FETCH p.likes " +
-            "WHERE a.id = :userId " +
-            "AND p.createdAt < " +
-            "(SELECT sub.createdAt FROM Post sub WHERE sub.id = :lastPostId) " +
-            "ORDER BY p.createdAt DESC")
-    Slice<Post> findByUserIdForInfiniteScroll(
+    // 특정 사용자의 게시글 첫 페이지 조회
+    @Query(SUMMARY_SELECT +
+            "WHERE p.author.id = :userId " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummaryDTO> findFirstPageByUserId(
             @Param("userId") Long userId,
-            @Param("lastPostId") Long lastPostId,
             Pageable pageable);
 
-    // 검색 기능
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN FETCH p.likes " +
-            "WHERE (p.title LIKE %:keyword% OR p.content LIKE %:keyword%) " +
-            "AND p.createdAt < " +
-            "(SELECT sub.createdAt FROM Post sub WHERE sub.id = :lastPostId) " +
-            "ORDER BY p.createdAt DESC")
-    Slice<Post> searchPostsForInfiniteScroll(
-            @Param("keyword") String keyword,
-            @Param("lastPostId") Long lastPostId,
+    // 특정 사용자의 게시글 다음 페이지 조회
+    @Query(SUMMARY_SELECT +
+            "WHERE p.author.id = :userId " +
+            "AND (p.createdAt, p.id) < (:createdAt, :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummaryDTO> findByUserIdForInfiniteScroll(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
             Pageable pageable);
 
-    // 조회수 증가
-    @Query("UPDATE Post p SET p.viewCount = p.viewCount + 1 WHERE p.id = :id")
+    // 좋아요 수 증가
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount + 1 WHERE p.id = :id")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int incrementLikeCount(@Param("id") Long id);
+
+    // 좋아요 수 감소
+    @Query("UPDATE Post p SET p.likeCount = p.likeCount - 1 WHERE p.id = :id AND p.likeCount > 0")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int decrementLikeCount(@Param("id") Long id);
+
+    // 좋아요 수 재계산 (id 구간 단위로 likes 테이블과 어긋난 값만 보정, 분산 슬롯이 남아 있는 게시글은 제외)
+    @Transactional
+    @Query("UPDATE Post p SET p.likeCount = " +
+            "(SELECT COUNT(l) FROM Like l WHERE l.post.id = p.id) " +
+            "WHERE p.id BETWEEN :fromId AND :toId " +
+            "AND p.likeCount <> (SELECT COUNT(l2) FROM Like l2 WHERE l2.post.id = p.id) " +
+            "AND NOT EXISTS (SELECT s FROM PostLikeCounterShard s WHERE s.postId = p.id)")
+    @Modifying
+    int recalculateLikeCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // 댓글 수 증감 (대댓글 포함, 0 미만으로 내려가지 않게)
+    @Query("UPDATE Post p SET p.commentCount = CASE WHEN p.commentCount + :delta < 0 THEN 0 " +
+            "ELSE p.commentCount + :delta END WHERE p.id = :id")
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") int delta);
+
+    // 댓글 수 재계산 (id 구간 단위로 comment 테이블과 어긋난 값만 보정)
+    @Transactional
+    @Query("UPDATE Post p SET p.commentCount = " +
+            "(SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id) " +
+            "WHERE p.id BETWEEN :fromId AND :toId " +
+            "AND p.commentCount <> (SELECT COUNT(c) FROM Comment c WHERE c.post.id = p.id)")
     @Modifying
-    void incrementViewCount(@Param("id") Long id);
+    int recalculateCommentCounts(@Param("fromId") Long fromId, @Param("toId") Long toId);
 
-    // 좋아요 정보만 조회
-    @Query("SELECT p FROM Post p " +
-            "LEFT JOIN FETCH p.likes " +
-            "WHERE p.id = :id")
-    Optional<Post> findByIdWithLikes(@Param("id") Long id);
+    // 좋아요 수만 조회
+    @Query("SELECT p.likeCount FROM Post p WHERE p.id = :id")
+    Optional<Integer> findLikeCountById(@Param("id") Long id);
+
+    @Query("SELECT MAX(p.id) FROM Post p")
+    Long findMaxId();
 
     // 전체 게시글 첫 페이지 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN FETCH p.likes " +
-            "ORDER BY p.createdAt DESC")
-    Slice<Post> findFirstPage(Pageable pageable);
+    @Query(SUMMARY_SELECT +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummaryDTO> findFirstPage(Pageable pageable);
 
     // 카테고리별 첫 페이지 조회
-    @Query("SELECT DISTINCT p FROM Post p " +
-            "LEFT JOIN FETCH p.author a " +
-            "LEFT JOIN FETCH a.profileImage " +
-            "LEFT JOIN FETCH p.contentImageGroup " +
-            "LEFT JOIN FETCH p.likes " +
+    @Query(SUMMARY_SELECT +
             "WHERE p.category = :category " +
-            "ORDER BY p.createdAt DESC")
-    Slice<Post> findFirstPageByCategory(
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    Slice<PostSummaryDTO> findFirstPageByCategory(
             @Param("category") PostCategory category,
             Pageable pageable);
     /////////
@@ -0,0 +1,93 @@
+package capstone.cycle.post.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 검색용 토크나이저.
+ * 한글(및 한자/가나)은 형태소 분석 없이 부분 일치가 되도록 2글자 단위(bigram)로 자르고,
+ * 영문/숫자는 단어 단위로 자른다.
+ * 색인할 때는 한 글자 검색어도 찾을 수 있도록 한글 글자 하나하나(unigram)도 함께 넣고,
+ * 검색어는 두 글자 이상이면 bigram 만, 한 글자면 그 글자 하나만 토큰으로 쓴다.
+ * 너무 긴 단어는 앞부분만 남긴다.
+ */
+public final class BigramTokenizer {
+
+    static final int MAX_TOKEN_LENGTH = 64;
+
+    private BigramTokenizer() {
+    }
+
+    // 색인용 토큰
+    public static List<String> tokenize(String text) {
+        return tokenize(text, true);
+    }
+
+    // 검색어 토큰
+    public static List<String> tokenizeQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<String> tokenize(String text, boolean withUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int length = normalized.length();
+        int start = 0;
+        while (start < length) {
+            char c = normalized.charAt(start);
+            if (isCjk(c)) {
+                int end = start;
+                while (end < length && isCjk(normalized.charAt(end))) {
+                    end++;
+                }
+                addCjkTokens(normalized, start, end, withUnigrams, tokens);
+                start = end;
+            } else if (Character.isLetterOrDigit(c)) {
+                int end = start;
+                while (end < length && isWordChar(normalized.charAt(end))) {
+                    end++;
+                }
+                tokens.add(normalized.substring(start, Math.min(end, start + MAX_TOKEN_LENGTH)));
+                start = end;
+            } else {
+                start++;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addCjkTokens(String text, int start, int end, boolean withUnigrams, List<String> tokens) {
+        if (end - start == 1) {
+            tokens.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i + 1 < end; i++) {
+            tokens.add(text.substring(i, i + 2));
+        }
+        if (withUnigrams) {
+            for (int i = start; i < end; i++) {
+                tokens.add(text.substring(i, i + 1));
+            }
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) && !isCjk(c);
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        return block == Character.UnicodeBlock.HANGUL_SYLLABLES
+                || block == Character.UnicodeBlock.HANGUL_JAMO
+                || block == Character.UnicodeBlock.HANGUL_COMPATIBILITY_JAMO
+                || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+                || block == Character.UnicodeBlock.HIRAGANA
+                || block == Character.UnicodeBlock.KATAKANA;
+    }
+}
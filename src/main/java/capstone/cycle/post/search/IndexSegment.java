@@ -0,0 +1,214 @@
+package capstone.cycle.post.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 병합이 끝난 불변 인덱스 세그먼트.
+ * 토큰별 압축 포스팅 목록과 포함된 게시글 id 목록, 그리고 반영된 게시글 수정 시각(watermark)을 가진다.
+ */
+final class IndexSegment {
+
+    private static final int MAGIC = 0x50534958;
+    // 2: 한글 unigram 토큰 추가, 토큰을 길이 + UTF-8 바이트로 기록
+    private static final int VERSION = 2;
+
+    private final Map<String, PostingList> postings;
+    private final int[] docIds;
+    private final LocalDateTime watermark;
+
+    private IndexSegment(Map<String, PostingList> postings, int[] docIds, LocalDateTime watermark) {
+        this.postings = postings;
+        this.docIds = docIds;
+        this.watermark = watermark;
+    }
+
+    static IndexSegment empty() {
+        return new IndexSegment(Collections.emptyMap(), new int[0], null);
+    }
+
+    PostingList postings(String token) {
+        return postings.get(token);
+    }
+
+    int docCount() {
+        return docIds.length;
+    }
+
+    int[] docIds() {
+        return docIds;
+    }
+
+    LocalDateTime watermark() {
+        return watermark;
+    }
+
+    /**
+     * 삭제 표시된 게시글을 빼고 새 문서를 더한 새 세그먼트를 만든다.
+     * 새 문서는 모두 삭제 표시에도 포함되어 있으므로 기존 버전과 중복되지 않는다.
+     */
+    IndexSegment merge(Set<Integer> tombstones, Map<Integer, PostDocument> added, LocalDateTime newWatermark) {
+        TreeMap<Integer, PostDocument> sortedAdded = new TreeMap<>(added);
+
+        // 추가 문서를 토큰별 (id 오름차순) 목록으로 뒤집는다
+        Map<String, List<int[]>> addedPostings = new HashMap<>();
+        sortedAdded.forEach((docId, document) -> document.frequencies().forEach((token, frequency) ->
+                addedPostings.computeIfAbsent(token, t -> new ArrayList<>())
+                        .add(new int[]{docId, frequency[0], frequency[1]})));
+
+        Set<String> tokens = new HashSet<>(postings.keySet());
+        tokens.addAll(addedPostings.keySet());
+
+        Map<String, PostingList> mergedPostings = new HashMap<>(tokens.size());
+        for (String token : tokens) {
+            PostingList merged = mergePostings(postings.get(token),
+                    addedPostings.getOrDefault(token, Collections.emptyList()), tombstones);
+            if (merged != null) {
+                mergedPostings.put(token, merged);
+            }
+        }
+
+        int[] mergedDocIds = mergeDocIds(tombstones, sortedAdded.keySet());
+        return new IndexSegment(mergedPostings, mergedDocIds, newWatermark);
+    }
+
+    private static PostingList mergePostings(PostingList existing, List<int[]> added, Set<Integer> tombstones) {
+        PostingList.Encoder encoder = new PostingList.Encoder();
+        PostingList.Reader reader = existing != null ? existing.reader() : null;
+        boolean hasExisting = reader != null && reader.next();
+        int addedIndex = 0;
+
+        while (hasExisting || addedIndex < added.size()) {
+            int[] next = addedIndex < added.size() ? added.get(addedIndex) : null;
+            if (hasExisting && (next == null || reader.docId() < next[0])) {
+                if (!tombstones.contains(reader.docId())) {
+                    encoder.add(reader.docId(), reader.titleFrequency(), reader.contentFrequency());
+                }
+                hasExisting = reader.next();
+            } else {
+                // 같은 id 면 새 문서가 우선
+                if (hasExisting && reader.docId() == next[0]) {
+                    hasExisting = reader.next();
+                }
+                encoder.add(next[0], next[1], next[2]);
+                addedIndex++;
+            }
+        }
+
+        return encoder.isEmpty() ? null : encoder.build();
+    }
+
+    private int[] mergeDocIds(Set<Integer> tombstones, Set<Integer> added) {
+        int[] remaining = Arrays.stream(docIds)
+                .filter(docId -> !tombstones.contains(docId))
+                .toArray();
+        int[] merged = Arrays.copyOf(remaining, remaining.length + added.size());
+        int index = remaining.length;
+        for (int docId : added) {
+            merged[index++] = docId;
+        }
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    /**
+     * 전체 재색인용 빌더. 게시글 id 오름차순으로만 추가해야 한다.
+     */
+    static final class Builder {
+        private final Map<String, PostingList.Encoder> encoders = new HashMap<>();
+        private final List<Integer> docIds = new ArrayList<>();
+        private LocalDateTime watermark;
+
+        void add(int docId, PostDocument document, LocalDateTime updatedAt) {
+            document.frequencies().forEach((token, frequency) ->
+                    encoders.computeIfAbsent(token, t -> new PostingList.Encoder())
+                            .add(docId, frequency[0], frequency[1]));
+            docIds.add(docId);
+            if (updatedAt != null && (watermark == null || updatedAt.isAfter(watermark))) {
+                watermark = updatedAt;
+            }
+        }
+
+        IndexSegment build() {
+            Map<String, PostingList> postings = new HashMap<>(encoders.size());
+            encoders.forEach((token, encoder) -> postings.put(token, encoder.build()));
+            return new IndexSegment(postings, docIds.stream().mapToInt(Integer::intValue).toArray(), watermark);
+        }
+    }
+
+    // 임시 파일에 쓴 뒤 원자적으로 교체
+    void writeTo(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeBoolean(watermark != null);
+            if (watermark != null) {
+                out.writeUTF(watermark.toString());
+            }
+
+            out.writeInt(docIds.length);
+            for (int docId : docIds) {
+                out.writeInt(docId);
+            }
+
+            out.writeInt(postings.size());
+            for (Map.Entry<String, PostingList> entry : postings.entrySet()) {
+                byte[] token = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(token.length);
+                out.write(token);
+                out.writeInt(entry.getValue().size());
+                out.writeInt(entry.getValue().data().length);
+                out.write(entry.getValue().data());
+            }
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static IndexSegment readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported search index segment: " + file);
+            }
+            LocalDateTime watermark = in.readBoolean() ? LocalDateTime.parse(in.readUTF()) : null;
+
+            int[] docIds = new int[in.readInt()];
+            for (int i = 0; i < docIds.length; i++) {
+                docIds[i] = in.readInt();
+            }
+
+            int tokenCount = in.readInt();
+            Map<String, PostingList> postings = new HashMap<>(tokenCount);
+            for (int i = 0; i < tokenCount; i++) {
+                byte[] tokenBytes = new byte[in.readInt()];
+                in.readFully(tokenBytes);
+                String token = new String(tokenBytes, StandardCharsets.UTF_8);
+                int size = in.readInt();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                postings.put(token, new PostingList(data, size));
+            }
+            return new IndexSegment(postings, docIds, watermark);
+        }
+    }
+}
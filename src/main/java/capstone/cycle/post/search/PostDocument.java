@@ -0,0 +1,36 @@
+package capstone.cycle.post.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 아직 세그먼트에 병합되지 않은 게시글 한 건의 토큰별 (제목 빈도, 본문 빈도).
+ */
+final class PostDocument {
+
+    private final Map<String, int[]> frequencies;
+
+    private PostDocument(Map<String, int[]> frequencies) {
+        this.frequencies = frequencies;
+    }
+
+    static PostDocument of(String title, String content) {
+        Map<String, int[]> frequencies = new HashMap<>();
+        for (String token : BigramTokenizer.tokenize(title)) {
+            frequencies.computeIfAbsent(token, t -> new int[2])[0]++;
+        }
+        for (String token : BigramTokenizer.tokenize(content)) {
+            frequencies.computeIfAbsent(token, t -> new int[2])[1]++;
+        }
+        return new PostDocument(frequencies);
+    }
+
+    Map<String, int[]> frequencies() {
+        return frequencies;
+    }
+
+    // 해당 토큰의 {제목 빈도, 본문 빈도}, 없으면 null
+    int[] frequency(String token) {
+        return frequencies.get(token);
+    }
+}
@@ -0,0 +1,481 @@
+package capstone.cycle.post.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 게시글 제목/본문 역색인.
+ *
+ * 병합이 끝난 불변 세그먼트(디스크에도 저장)와, 그 이후 변경분을 담는 메모리 버퍼(추가 문서 + 삭제 표시)로 구성된다.
+ * 게시글 생성/수정/삭제는 커밋 후 버퍼에 반영되고, 주기적으로 DB 수정 시각 기준 따라잡기와 세그먼트 병합을 수행한다.
+ * 검색은 모든 검색어 토큰을 포함한 게시글만 (AND) 점수순으로 돌려준다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostSearchIndex {
+
+    private static final String SEGMENT_FILE_NAME = "segment.bin";
+    private static final int LOAD_BATCH_SIZE = 500;
+    // 제목에 등장한 토큰의 가중치
+    private static final double TITLE_BOOST = 2.0;
+    // 빈도 포화 상수 (BM25 의 k1)
+    private static final double FREQUENCY_SATURATION = 1.2;
+    // 늦게 커밋된 수정도 따라잡을 수 있도록 watermark 이전 구간을 다시 조회
+    private static final long CATCH_UP_OVERLAP_SECONDS = 60;
+
+    private static final Comparator<SearchHit> HIT_ORDER = Comparator
+            .comparingDouble(SearchHit::getScore)
+            .thenComparing(SearchHit::getPostId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+
+    private IndexSegment segment = IndexSegment.empty();
+    // 병합 중인 변경분 (병합 동안에도 검색에 포함)
+    private Map<Integer, PostDocument> mergingDocuments = Collections.emptyMap();
+    private Set<Integer> mergingTombstones = Collections.emptySet();
+    // 병합 이후 변경분
+    private Map<Integer, PostDocument> pendingDocuments = new HashMap<>();
+    private Set<Integer> pendingTombstones = new HashSet<>();
+
+    private LocalDateTime watermark;
+    // 따라잡기 구간 안에서 이미 반영한 게시글의 수정 시각 (같은 버전 재색인 방지)
+    private final Map<Integer, LocalDateTime> recentlyIndexed = new HashMap<>();
+    private volatile boolean ready;
+
+    @Value("${post.search.index-dir:./search-index}")
+    private String indexDir;
+
+    @Value("${post.search.max-pending-documents:5000}")
+    private int maxPendingDocuments;
+
+    public void index(Long postId, String title, String content) {
+        int docId = Math.toIntExact(postId);
+        PostDocument document = PostDocument.of(title, content);
+        afterCommit(() -> put(docId, document));
+    }
+
+    public void remove(Long postId) {
+        int docId = Math.toIntExact(postId);
+        afterCommit(() -> delete(docId));
+    }
+
+    /**
+     * 커서 (score, postId) 다음부터 점수 내림차순으로 limit 개를 반환한다.
+     */
+    public List<SearchHit> search(String query, Double cursorScore, Long cursorId, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(BigramTokenizer.tokenizeQuery(query)));
+        if (tokens.isEmpty() || !ready) {
+            return Collections.emptyList();
+        }
+
+        PriorityQueue<SearchHit> topHits = new PriorityQueue<>(limit + 1, HIT_ORDER);
+        lock.readLock().lock();
+        try {
+            int[] documentFrequencies = new int[tokens.size()];
+            PostingList[] lists = new PostingList[tokens.size()];
+            for (int i = 0; i < tokens.size(); i++) {
+                lists[i] = segment.postings(tokens.get(i));
+                documentFrequencies[i] = lists[i] != null ? lists[i].size() : 0;
+            }
+            countBufferedFrequencies(tokens, documentFrequencies);
+
+            double[] idf = new double[tokens.size()];
+            int totalDocuments = segment.docCount() + mergingDocuments.size() + pendingDocuments.size();
+            for (int i = 0; i < tokens.size(); i++) {
+                idf[i] = Math.log(1 + (totalDocuments - documentFrequencies[i] + 0.5) / (documentFrequencies[i] + 0.5));
+            }
+
+            searchSegment(lists, idf, cursorScore, cursorId, limit, topHits);
+            searchBuffer(mergingDocuments, pendingTombstones, tokens, idf, cursorScore, cursorId, limit, topHits);
+            searchBuffer(pendingDocuments, Collections.emptySet(), tokens, idf, cursorScore, cursorId, limit, topHits);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<SearchHit> hits = new ArrayList<>(topHits);
+        hits.sort(HIT_ORDER.reversed());
+        return hits;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // 전체 재색인이 필요할 수 있으므로 기동을 막지 않도록 별도 스레드에서 수행
+        taskScheduler.schedule(this::loadOrRebuild, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${post.search.maintenance-interval-ms:60000}")
+    public void maintain() {
+        if (!ready || !maintenanceLock.tryLock()) {
+            return;
+        }
+        try {
+            catchUp();
+            mergeIfDirty();
+        } catch (Exception e) {
+            log.error("Search index maintenance failed", e);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private void loadOrRebuild() {
+        maintenanceLock.lock();
+        try {
+            Path segmentFile = segmentFile();
+            IndexSegment loaded = null;
+            if (Files.exists(segmentFile)) {
+                try {
+                    loaded = IndexSegment.readFrom(segmentFile);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to read search index segment. rebuilding.", e);
+                }
+            }
+
+            if (loaded != null) {
+                installSegment(loaded);
+                removeDeletedWhileStopped();
+                catchUp();
+                log.info("Search index loaded. documents: {}", loaded.docCount());
+            } else {
+                installSegment(rebuild());
+                log.info("Search index rebuilt. documents: {}", segment.docCount());
+            }
+
+            ready = true;
+            mergeIfDirty();
+        } catch (Exception e) {
+            log.error("Failed to initialize search index", e);
+        } finally {
+            maintenanceLock.unlock();
+        }
+    }
+
+    private IndexSegment rebuild() {
+        IndexSegment.Builder builder = new IndexSegment.Builder();
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, title, content, updated_at FROM post WHERE id > ? ORDER BY id LIMIT ?",
+                    lastId, LOAD_BATCH_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                builder.add(Math.toIntExact(lastId),
+                        PostDocument.of((String) row.get("title"), (String) row.get("content")),
+                        toLocalDateTime(row.get("updated_at")));
+            }
+        }
+
+        IndexSegment rebuilt = builder.build();
+        persist(rebuilt);
+        return rebuilt;
+    }
+
+    // 서버가 꺼져 있는 동안 삭제된 게시글 정리
+    private void removeDeletedWhileStopped() {
+        Set<Integer> existing = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM post", Integer.class));
+        lock.writeLock().lock();
+        try {
+            for (int docId : segment.docIds()) {
+                if (!existing.contains(docId)) {
+                    pendingTombstones.add(docId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 다른 서버에서 수정된 게시글과 이벤트가 누락된 게시글을 수정 시각 기준으로 반영
+    private void catchUp() {
+        LocalDateTime since = watermark != null
+                ? watermark.minusSeconds(CATCH_UP_OVERLAP_SECONDS)
+                : LocalDateTime.of(1970, 1, 1, 0, 0);
+        LocalDateTime newWatermark = watermark;
+
+        LocalDateTime lastUpdatedAt = since;
+        long lastId = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, title, content, updated_at FROM post " +
+                            "WHERE (updated_at, id) > (?, ?) ORDER BY updated_at, id LIMIT ?",
+                    Timestamp.valueOf(lastUpdatedAt), lastId, LOAD_BATCH_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                lastUpdatedAt = toLocalDateTime(row.get("updated_at"));
+                int docId = Math.toIntExact(lastId);
+                if (!lastUpdatedAt.equals(recentlyIndexed.get(docId))) {
+                    put(docId, PostDocument.of((String) row.get("title"), (String) row.get("content")));
+                    recentlyIndexed.put(docId, lastUpdatedAt);
+                }
+                if (newWatermark == null || lastUpdatedAt.isAfter(newWatermark)) {
+                    newWatermark = lastUpdatedAt;
+                }
+            }
+        }
+
+        watermark = newWatermark;
+        if (watermark != null) {
+            LocalDateTime horizon = watermark.minusSeconds(CATCH_UP_OVERLAP_SECONDS);
+            recentlyIndexed.values().removeIf(updatedAt -> updatedAt.isBefore(horizon));
+        }
+    }
+
+    private void mergeIfDirty() {
+        Map<Integer, PostDocument> documents;
+        Set<Integer> tombstones;
+        IndexSegment base;
+
+        lock.writeLock().lock();
+        try {
+            if (pendingTombstones.isEmpty()) {
+                return;
+            }
+            documents = pendingDocuments;
+            tombstones = pendingTombstones;
+            base = segment;
+            mergingDocuments = documents;
+            mergingTombstones = tombstones;
+            pendingDocuments = new HashMap<>();
+            pendingTombstones = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // 병합은 잠금 밖에서 수행하고 교체만 잠금 안에서 한다
+        IndexSegment merged = base.merge(tombstones, documents, watermark);
+
+        lock.writeLock().lock();
+        try {
+            segment = merged;
+            mergingDocuments = Collections.emptyMap();
+            mergingTombstones = Collections.emptySet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        persist(merged);
+    }
+
+    private void installSegment(IndexSegment loaded) {
+        lock.writeLock().lock();
+        try {
+            segment = loaded;
+            watermark = loaded.watermark();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void persist(IndexSegment target) {
+        try {
+            target.writeTo(segmentFile());
+        } catch (IOException e) {
+            // 다음 기동 시 따라잡기 구간이 길어질 뿐이므로 검색은 계속 제공
+            log.error("Failed to persist search index segment", e);
+        }
+    }
+
+    private void put(int docId, PostDocument document) {
+        lock.writeLock().lock();
+        try {
+            // 새 버전은 항상 삭제 표시와 함께 넣어, 세그먼트와 병합 중 버퍼의 이전 버전을 가린다
+            pendingTombstones.add(docId);
+            pendingDocuments.put(docId, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (pendingDocuments.size() > maxPendingDocuments) {
+            taskScheduler.schedule(this::maintain, Instant.now());
+        }
+    }
+
+    private void delete(int docId) {
+        lock.writeLock().lock();
+        try {
+            pendingTombstones.add(docId);
+            pendingDocuments.remove(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void searchSegment(PostingList[] lists, double[] idf, Double cursorScore, Long cursorId,
+                               int limit, PriorityQueue<SearchHit> topHits) {
+        for (PostingList list : lists) {
+            if (list == null) {
+                return;
+            }
+        }
+
+        // 가장 짧은 목록을 기준으로 나머지 목록을 앞으로 이동하며 교집합을 구한다
+        int leader = 0;
+        for (int i = 1; i < lists.length; i++) {
+            if (lists[i].size() < lists[leader].size()) {
+                leader = i;
+            }
+        }
+
+        PostingList.Reader[] readers = new PostingList.Reader[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            readers[i] = lists[i].reader();
+        }
+
+        candidates:
+        while (readers[leader].next()) {
+            int docId = readers[leader].docId();
+            for (int i = 0; i < readers.length; i++) {
+                if (i == leader) {
+                    continue;
+                }
+                if (!readers[i].advance(docId)) {
+                    return;
+                }
+                if (readers[i].docId() != docId) {
+                    continue candidates;
+                }
+            }
+
+            if (mergingTombstones.contains(docId) || pendingTombstones.contains(docId)) {
+                continue;
+            }
+
+            double score = 0;
+            for (int i = 0; i < readers.length; i++) {
+                score += idf[i] * termScore(readers[i].titleFrequency(), readers[i].contentFrequency());
+            }
+            offer(new SearchHit((long) docId, score), cursorScore, cursorId, limit, topHits);
+        }
+    }
+
+    private void searchBuffer(Map<Integer, PostDocument> documents, Set<Integer> tombstones, List<String> tokens,
+                              double[] idf, Double cursorScore, Long cursorId, int limit,
+                              PriorityQueue<SearchHit> topHits) {
+        documents:
+        for (Map.Entry<Integer, PostDocument> entry : documents.entrySet()) {
+            if (tombstones.contains(entry.getKey())) {
+                continue;
+            }
+
+            double score = 0;
+            for (int i = 0; i < tokens.size(); i++) {
+                int[] frequency = entry.getValue().frequency(tokens.get(i));
+                if (frequency == null) {
+                    continue documents;
+                }
+                score += idf[i] * termScore(frequency[0], frequency[1]);
+            }
+            offer(new SearchHit(entry.getKey().longValue(), score), cursorScore, cursorId, limit, topHits);
+        }
+    }
+
+    private void countBufferedFrequencies(List<String> tokens, int[] documentFrequencies) {
+        for (Map<Integer, PostDocument> documents : List.of(mergingDocuments, pendingDocuments)) {
+            for (PostDocument document : documents.values()) {
+                for (int i = 0; i < tokens.size(); i++) {
+                    if (document.frequency(tokens.get(i)) != null) {
+                        documentFrequencies[i]++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static double termScore(int titleFrequency, int contentFrequency) {
+        return TITLE_BOOST * saturate(titleFrequency) + saturate(contentFrequency);
+    }
+
+    private static double saturate(int frequency) {
+        return frequency * (FREQUENCY_SATURATION + 1) / (frequency + FREQUENCY_SATURATION);
+    }
+
+    // 커서 이후 항목만 남기고, 상위 limit 개만 유지 (최소 힙)
+    private static void offer(SearchHit hit, Double cursorScore, Long cursorId, int limit,
+                              PriorityQueue<SearchHit> topHits) {
+        if (cursorScore != null && !isAfterCursor(hit, cursorScore, cursorId)) {
+            return;
+        }
+        topHits.offer(hit);
+        if (topHits.size() > limit) {
+            topHits.poll();
+        }
+    }
+
+    private static boolean isAfterCursor(SearchHit hit, double cursorScore, long cursorId) {
+        return hit.getScore() < cursorScore
+                || (hit.getScore() == cursorScore && hit.getPostId() < cursorId);
+    }
+
+    private Path segmentFile() {
+        return Paths.get(indexDir).toAbsolutePath().normalize().resolve(SEGMENT_FILE_NAME);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SearchHit {
+        private final Long postId;
+        private final double score;
+    }
+}
@@ -0,0 +1,133 @@
+package capstone.cycle.post.search;
+
+import java.util.Arrays;
+
+/**
+ * 한 토큰의 포스팅 목록 (게시글 id 오름차순).
+ * 각 항목을 (이전 id 와의 차이, 제목 빈도, 본문 빈도) 의 가변 길이 정수로 인코딩해 byte 배열 하나에 담는다.
+ */
+final class PostingList {
+
+    private final byte[] data;
+    private final int size;
+
+    PostingList(byte[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] data() {
+        return data;
+    }
+
+    Reader reader() {
+        return new Reader();
+    }
+
+    /**
+     * 순방향 디코더. next() 후 docId/titleFrequency/contentFrequency 로 현재 항목을 읽는다.
+     */
+    final class Reader {
+        private int position;
+        private int remaining = size;
+        private boolean started;
+        private boolean exhausted;
+        private int docId;
+        private int titleFrequency;
+        private int contentFrequency;
+
+        boolean next() {
+            if (remaining == 0) {
+                exhausted = true;
+                return false;
+            }
+            started = true;
+            remaining--;
+            docId += readVarInt();
+            titleFrequency = readVarInt();
+            contentFrequency = readVarInt();
+            return true;
+        }
+
+        // target 이상인 첫 항목으로 이동
+        boolean advance(int target) {
+            if (exhausted) {
+                return false;
+            }
+            while (!started || docId < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int docId() {
+            return docId;
+        }
+
+        int titleFrequency() {
+            return titleFrequency;
+        }
+
+        int contentFrequency() {
+            return contentFrequency;
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+
+    /**
+     * id 오름차순으로 항목을 추가하며 포스팅 목록을 만든다.
+     */
+    static final class Encoder {
+        private byte[] buffer = new byte[16];
+        private int position;
+        private int size;
+        private int lastDocId;
+
+        void add(int docId, int titleFrequency, int contentFrequency) {
+            if (size > 0 && docId <= lastDocId) {
+                throw new IllegalArgumentException("Posting doc ids must be strictly increasing");
+            }
+            writeVarInt(docId - lastDocId);
+            writeVarInt(titleFrequency);
+            writeVarInt(contentFrequency);
+            lastDocId = docId;
+            size++;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        PostingList build() {
+            return new PostingList(Arrays.copyOf(buffer, position), size);
+        }
+
+        private void writeVarInt(int value) {
+            if (position + 5 > buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+    }
+}
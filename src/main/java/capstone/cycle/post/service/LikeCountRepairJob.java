@@ -0,0 +1,38 @@
+package capstone.cycle.post.service;
+
+import capstone.cycle.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Post.likeCount 보정 작업.
+ * 좋아요 토글은 카운터를 원자적으로 증감하지만, 장애나 수동 데이터 수정으로 값이 어긋날 수 있으므로
+ * 주기적으로 likes 테이블 기준으로 다시 계산한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LikeCountRepairJob {
+
+    private static final long BATCH_SIZE = 1000;
+
+    private final PostRepository postRepository;
+
+    @Scheduled(cron = "${post.like-count.repair-cron:0 0 4 * * *}")
+    public void repairLikeCounts() {
+        Long maxId = postRepository.findMaxId();
+        if (maxId == null) {
+            return;
+        }
+
+        int repaired = 0;
+        for (long fromId = 1; fromId <= maxId; fromId += BATCH_SIZE) {
+            // 구간마다 별도 트랜잭션으로 실행해 한 번에 잡는 락 범위를 제한
+            repaired += postRepository.recalculateLikeCounts(fromId, fromId + BATCH_SIZE - 1);
+        }
+
+        log.info("Like count repair finished. repaired posts: {}", repaired);
+    }
+}
@@ -0,0 +1,287 @@
+package capstone.cycle.post.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 시간 감쇠를 적용한 인기 게시글 랭킹.
+ * 좋아요/조회/댓글 이벤트마다 점수를 증분 갱신하고 (점수, id) 내림차순 정렬 집합으로 유지한다.
+ *
+ * 점수는 고정 기준 시각으로 환산한 로그 값(w * e^((t - t0) / τ) 의 로그)으로 저장하므로
+ * 시간이 지나도 전체 점수를 다시 계산할 필요 없이 순서가 그대로 유지된다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PopularPostRanking {
+
+    // 점수 환산 기준 시각 (2024-01-01T00:00:00Z)
+    private static final long EPOCH_SECONDS = 1704067200L;
+    // 신규 설치 시 게시글 테이블에서 점수를 채울 기간 (반감기의 배수)
+    private static final int SEED_HALF_LIVES = 8;
+
+    private static final Comparator<RankedPost> RANKING_ORDER = Comparator
+            .comparingDouble(RankedPost::getScore).reversed()
+            .thenComparing(RankedPost::getPostId, Comparator.reverseOrder());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final NavigableSet<RankedPost> ranking = new ConcurrentSkipListSet<>(RANKING_ORDER);
+    private final Map<Long, RankedPost> scores = new ConcurrentHashMap<>();
+
+    @Value("${post.ranking.like-weight:1.0}")
+    private double likeWeight;
+
+    @Value("${post.ranking.view-weight:0.05}")
+    private double viewWeight;
+
+    @Value("${post.ranking.comment-weight:0.5}")
+    private double commentWeight;
+
+    @Value("${post.ranking.half-life-hours:24}")
+    private double halfLifeHours;
+
+    // 현재 시점 점수가 이 값 미만이면 인기 게시판에서 제외 (기존 좋아요 10개 기준을 대체)
+    @Value("${post.ranking.min-score:10.0}")
+    private double minScore;
+
+    @Value("${post.ranking.max-size:10000}")
+    private int maxSize;
+
+    // 복원 전에 빈 랭킹으로 스냅샷을 덮어쓰지 않도록 구분
+    private volatile boolean restored;
+
+    public void recordLike(Long postId) {
+        afterCommit(() -> add(postId, likeWeight));
+    }
+
+    public void recordUnlike(Long postId) {
+        afterCommit(() -> add(postId, -likeWeight));
+    }
+
+    public void recordComment(Long postId) {
+        afterCommit(() -> add(postId, commentWeight));
+    }
+
+    public void recordViews(Long postId, long views) {
+        add(postId, viewWeight * views);
+    }
+
+    public void remove(Long postId) {
+        afterCommit(() -> scores.computeIfPresent(postId, (id, current) -> {
+            ranking.remove(current);
+            return null;
+        }));
+    }
+
+    /**
+     * 커서 다음부터 최소 점수 이상인 게시글을 limit 개까지 반환한다.
+     * 정렬 집합의 tailSet 탐색이므로 페이지당 O(log n + limit).
+     */
+    public List<RankedPost> getPage(Double cursorScore, Long cursorId, int limit) {
+        NavigableSet<RankedPost> candidates = cursorScore == null
+                ? ranking
+                : ranking.tailSet(new RankedPost(cursorId, cursorScore), false);
+
+        double minLogScore = minLogScore();
+        List<RankedPost> page = new ArrayList<>(limit);
+        for (RankedPost rankedPost : candidates) {
+            if (rankedPost.getScore() < minLogScore || page.size() >= limit) {
+                break;
+            }
+            page.add(rankedPost);
+        }
+        return page;
+    }
+
+    // 기준 점수 아래로 감쇠한 게시글과 최대 크기를 넘는 하위 게시글 정리
+    @Scheduled(fixedDelayString = "${post.ranking.prune-interval-ms:60000}")
+    public void prune() {
+        double minLogScore = minLogScore();
+        int overflow = ranking.size() - maxSize;
+
+        Iterator<RankedPost> lowest = ranking.descendingIterator();
+        while (lowest.hasNext()) {
+            RankedPost rankedPost = lowest.next();
+            if (rankedPost.getScore() >= minLogScore && overflow <= 0) {
+                break;
+            }
+            scores.computeIfPresent(rankedPost.getPostId(), (id, current) -> {
+                if (current != rankedPost) {
+                    return current;
+                }
+                ranking.remove(current);
+                return null;
+            });
+            overflow--;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${post.ranking.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        if (!restored) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(ranking.size());
+        for (RankedPost rankedPost : ranking) {
+            rows.add(new Object[]{rankedPost.getPostId(), rankedPost.getScore()});
+        }
+
+        // 랭킹은 서버마다 따로 유지되므로 표를 비우지 않고 게시글별로 덮어쓴다 (다른 서버가 기록한 게시글은 그대로 둔다)
+        // 기준 점수 아래로 감쇠한 행과 삭제된 게시글의 행만 지운다
+        double minLogScore = minLogScore();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO post_ranking_snapshot (post_id, log_score) VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE log_score = VALUES(log_score)", rows);
+            jdbcTemplate.update("DELETE FROM post_ranking_snapshot WHERE log_score < ?", minLogScore);
+            jdbcTemplate.update("DELETE s FROM post_ranking_snapshot s LEFT JOIN post p ON p.id = s.post_id " +
+                    "WHERE p.id IS NULL");
+        });
+        log.debug("Popular post ranking snapshot saved. posts: {}", rows.size());
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        try {
+            snapshot();
+        } catch (Exception e) {
+            log.warn("Failed to save popular post ranking snapshot on shutdown", e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        jdbcTemplate.query("SELECT post_id, log_score FROM post_ranking_snapshot", rs -> {
+            put(new RankedPost(rs.getLong("post_id"), rs.getDouble("log_score")));
+        });
+
+        if (scores.isEmpty()) {
+            seedFromPosts();
+        }
+        restored = true;
+        log.info("Popular post ranking restored. posts: {}", scores.size());
+    }
+
+    // 스냅샷이 없으면 최근 게시글의 누적 좋아요/조회수를 작성 시각 기준 점수로 채운다
+    private void seedFromPosts() {
+        Duration seedWindow = Duration.ofMinutes((long) (halfLifeHours * 60 * SEED_HALF_LIVES));
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minus(seedWindow));
+
+        jdbcTemplate.query("SELECT id, like_count, view_count, created_at FROM post WHERE created_at >= ?", rs -> {
+            double weight = likeWeight * rs.getInt("like_count") + viewWeight * rs.getLong("view_count");
+            if (weight > 0) {
+                Instant createdAt = rs.getTimestamp("created_at").toInstant();
+                put(new RankedPost(rs.getLong("id"), Math.log(weight) + logTime(createdAt)));
+            }
+        }, since);
+    }
+
+    private void add(Long postId, double weight) {
+        if (weight == 0) {
+            return;
+        }
+
+        double logWeight = Math.log(Math.abs(weight)) + logTime(Instant.now());
+        scores.compute(postId, (id, current) -> {
+            double score;
+            if (current == null) {
+                if (weight < 0) {
+                    return null;
+                }
+                score = logWeight;
+            } else {
+                ranking.remove(current);
+                score = weight > 0
+                        ? logAddExp(current.getScore(), logWeight)
+                        : logSubExp(current.getScore(), logWeight);
+                if (Double.isNaN(score) || score == Double.NEGATIVE_INFINITY) {
+                    return null;
+                }
+            }
+
+            RankedPost updated = new RankedPost(id, score);
+            ranking.add(updated);
+            return updated;
+        });
+    }
+
+    private void put(RankedPost rankedPost) {
+        scores.compute(rankedPost.getPostId(), (id, current) -> {
+            if (current != null) {
+                ranking.remove(current);
+            }
+            ranking.add(rankedPost);
+            return rankedPost;
+        });
+    }
+
+    private double minLogScore() {
+        return Math.log(minScore) + logTime(Instant.now());
+    }
+
+    // (t - t0) / τ, τ = 반감기 / ln2
+    private double logTime(Instant time) {
+        double tau = halfLifeHours * 3600 / Math.log(2);
+        return (time.getEpochSecond() - EPOCH_SECONDS) / tau;
+    }
+
+    // log(e^a + e^b)
+    private static double logAddExp(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    // log(e^a - e^b), a <= b 이면 점수가 0 이하가 되므로 NaN/-Infinity
+    private static double logSubExp(double a, double b) {
+        return a + Math.log1p(-Math.exp(b - a));
+    }
+
+    // 좋아요/댓글은 커밋된 경우에만 점수에 반영
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class RankedPost {
+        private final Long postId;
+        // 기준 시각으로 환산한 감쇠 점수의 로그 값
+        private final double score;
+    }
+}
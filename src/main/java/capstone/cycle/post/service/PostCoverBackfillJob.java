@@ -0,0 +1,131 @@
+package capstone.cycle.post.service;
+
+import capstone.cycle.file.entity.ImageSize;
+import capstone.cycle.file.service.FileStorageLayout;
+import capstone.cycle.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 대표 이미지 컬럼이 생기기 전에 작성된 게시글의 coverFileId/coverWidth/coverHeight/coverPath/coverExtension 을 채우는 작업.
+ * 게시글 id 구간 단위로 첫 번째 이미지 파일을 정해 경로와 확장자를 복사하고, 크기가 없는 파일은 헤더를 읽어 함께 채운다.
+ * 기동을 막지 않도록 스케줄러 스레드에서 돌며, 처리한 구간을 job_checkpoint 에 남겨 중단되면 이어서 하고
+ * 끝까지 마친 뒤에는 다시 돌지 않는다 (이후 게시글은 작성 시 대표 이미지가 채워진다).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostCoverBackfillJob {
+
+    private static final long BATCH_SIZE = 1000;
+    private static final String JOB_NAME = "post-cover-backfill";
+
+    // MySQL 은 UPDATE 대상 테이블을 서브쿼리에서 읽을 수 없어 집계한 파생 테이블과 조인
+    private static final String FILL_COVER_FILE_SQL =
+            "UPDATE post p JOIN (" +
+                    "SELECT p2.id AS post_id, MIN(f.id) AS cover_file_id FROM post p2 " +
+                    "JOIN file f ON f.file_group_id = p2.content_image_group_id " +
+                    "WHERE p2.id BETWEEN ? AND ? AND p2.cover_file_id IS NULL GROUP BY p2.id" +
+                    ") c ON c.post_id = p.id " +
+                    "SET p.cover_file_id = c.cover_file_id";
+
+    // 대표 이미지 id 만 있고 서명 주소용 경로가 비어 있는 게시글도 함께 채운다
+    private static final String FILL_COVER_PATH_SQL =
+            "UPDATE post p JOIN file f ON f.id = p.cover_file_id " +
+                    "SET p.cover_path = f.path, p.cover_extension = f.extension " +
+                    "WHERE p.id BETWEEN ? AND ? AND p.cover_path IS NULL";
+
+    private static final String FIND_MISSING_SIZE_SQL =
+            "SELECT p.id AS post_id, f.id AS file_id, f.path, f.width, f.height FROM post p " +
+                    "JOIN file f ON f.id = p.cover_file_id " +
+                    "WHERE p.id BETWEEN ? AND ? AND p.cover_width IS NULL";
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStorageLayout fileStorageLayout;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${post.cover.backfill-enabled:true}")
+    private boolean backfillEnabled;
+
+    // 기동을 막지 않도록 스케줄러 스레드에서 실행
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (backfillEnabled) {
+            taskScheduler.schedule(this::backfill, Instant.now());
+        }
+    }
+
+    public void backfill() {
+        jdbcTemplate.update("INSERT IGNORE INTO job_checkpoint (name, last_id) VALUES (?, 0)", JOB_NAME);
+        Map<String, Object> checkpoint = jdbcTemplate.queryForMap(
+                "SELECT last_id, completed_at FROM job_checkpoint WHERE name = ?", JOB_NAME);
+        if (checkpoint.get("completed_at") != null) {
+            return;
+        }
+
+        Long maxId = postRepository.findMaxId();
+        long startId = ((Number) checkpoint.get("last_id")).longValue() + 1;
+        int covers = 0;
+        int sizes = 0;
+        if (maxId != null) {
+            for (long fromId = startId; fromId <= maxId; fromId += BATCH_SIZE) {
+                long toId = Math.min(fromId + BATCH_SIZE - 1, maxId);
+                try {
+                    covers += jdbcTemplate.update(FILL_COVER_FILE_SQL, fromId, toId);
+                    jdbcTemplate.update(FILL_COVER_PATH_SQL, fromId, toId);
+                    sizes += fillCoverSizes(fromId, toId);
+                } catch (Exception e) {
+                    // 다음 기동 때 이 구간부터 다시 한다
+                    log.warn("Failed to backfill post covers. posts: {} - {}", fromId, toId, e);
+                    return;
+                }
+                jdbcTemplate.update("UPDATE job_checkpoint SET last_id = ? WHERE name = ?", toId, JOB_NAME);
+            }
+        }
+
+        jdbcTemplate.update("UPDATE job_checkpoint SET completed_at = NOW(6) WHERE name = ?", JOB_NAME);
+        log.info("Post cover backfill finished. covers: {}, sizes: {}", covers, sizes);
+    }
+
+    // 대표 이미지 크기를 채운다 (파일에 크기가 없으면 이미지 헤더를 읽어 파일 행에도 저장)
+    private int fillCoverSizes(long fromId, long toId) {
+        List<Object[]> fileSizes = new ArrayList<>();
+        List<Object[]> postSizes = new ArrayList<>();
+
+        for (Map<String, Object> row : jdbcTemplate.queryForList(FIND_MISSING_SIZE_SQL, fromId, toId)) {
+            Integer width = row.get("width") != null ? ((Number) row.get("width")).intValue() : null;
+            Integer height = row.get("height") != null ? ((Number) row.get("height")).intValue() : null;
+
+            if (width == null || height == null) {
+                ImageSize imageSize = ImageSize.read(fileStorageLayout.resolve((String) row.get("path")));
+                if (imageSize == null) {
+                    continue;
+                }
+                width = imageSize.getWidth();
+                height = imageSize.getHeight();
+                fileSizes.add(new Object[]{width, height, row.get("file_id")});
+            }
+            postSizes.add(new Object[]{width, height, row.get("post_id")});
+        }
+
+        if (!fileSizes.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE file SET width = ?, height = ? WHERE id = ?", fileSizes);
+        }
+        if (!postSizes.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE post SET cover_width = ?, cover_height = ? WHERE id = ?", postSizes);
+        }
+        return postSizes.size();
+    }
+}
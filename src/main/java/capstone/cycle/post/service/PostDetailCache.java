@@ -0,0 +1,201 @@
+package capstone.cycle.post.service;
+
+import capstone.cycle.post.dto.PostDetailDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 게시글 상세 로컬 캐시.
+ * 변하지 않는 상세 정보만 담고, 전체 크기(대략적인 바이트)가 최대치를 넘으면 오래 사용되지 않은 항목부터 제거한다.
+ * 같은 게시글의 동시 미스는 하나의 DB 조회로 합친다.
+ */
+@Component
+public class PostDetailCache {
+
+    // 제거 시 최대치의 이 비율까지 줄여 제거가 연달아 일어나지 않도록 한다
+    private static final double EVICTION_TARGET_RATIO = 0.9;
+
+    private final Map<Long, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<PostDetailDTO>> loading = new ConcurrentHashMap<>();
+    private final AtomicLong totalWeight = new AtomicLong();
+    private final AtomicLong accessClock = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final long maxWeight;
+    private final long ttlMillis;
+
+    public PostDetailCache(
+            @Value("${post.detail-cache.max-weight-bytes:67108864}") long maxWeight,
+            @Value("${post.detail-cache.ttl-seconds:600}") long ttlSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.maxWeight = maxWeight;
+        this.ttlMillis = ttlSeconds * 1000;
+
+        FunctionCounter.builder("post.detail.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("post.detail.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("post.detail.cache.evictions", evictions, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("post.detail.cache.weight", totalWeight, AtomicLong::get)
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("post.detail.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+
+    public PostDetailDTO get(Long postId, Function<Long, PostDetailDTO> loader) {
+        CacheEntry entry = entries.get(postId);
+        if (entry != null && !entry.isExpired()) {
+            hits.increment();
+            entry.touch(accessClock.incrementAndGet());
+            return entry.detail;
+        }
+
+        misses.increment();
+        CompletableFuture<PostDetailDTO> newLoad = new CompletableFuture<>();
+        CompletableFuture<PostDetailDTO> existingLoad = loading.putIfAbsent(postId, newLoad);
+        if (existingLoad != null) {
+            // 다른 요청이 이미 조회 중이면 그 결과를 기다린다
+            return join(existingLoad);
+        }
+
+        try {
+            PostDetailDTO detail = loader.apply(postId);
+            // 조회 도중 무효화되었으면 (loading 에서 이미 제거됨) 캐시에 넣지 않는다
+            if (loading.remove(postId, newLoad)) {
+                put(postId, detail);
+            }
+            newLoad.complete(detail);
+            return detail;
+        } catch (RuntimeException e) {
+            loading.remove(postId, newLoad);
+            newLoad.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // 현재 트랜잭션이 커밋된 뒤에도 한 번 더 제거해, 커밋 전 값을 다른 요청이 다시 캐시하지 않도록 한다
+    public void invalidate(Long postId) {
+        remove(postId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(postId);
+                }
+            });
+        }
+    }
+
+    private void remove(Long postId) {
+        loading.remove(postId);
+        CacheEntry removed = entries.remove(postId);
+        if (removed != null) {
+            totalWeight.addAndGet(-removed.weight);
+        }
+    }
+
+    private void put(Long postId, PostDetailDTO detail) {
+        CacheEntry entry = new CacheEntry(detail, accessClock.incrementAndGet(), System.currentTimeMillis() + ttlMillis);
+        if (entry.weight > maxWeight) {
+            return;
+        }
+
+        CacheEntry previous = entries.put(postId, entry);
+        totalWeight.addAndGet(entry.weight - (previous != null ? previous.weight : 0));
+
+        if (totalWeight.get() > maxWeight) {
+            evict();
+        }
+    }
+
+    // 최근 접근 시각이 오래된 항목부터 목표 크기 이하가 될 때까지 제거
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long target = (long) (maxWeight * EVICTION_TARGET_RATIO);
+            if (totalWeight.get() <= target) {
+                return;
+            }
+
+            // 정렬 중 접근 시각이 바뀌지 않도록 값을 먼저 복사
+            List<EvictionCandidate> candidates = entries.entrySet().stream()
+                    .map(e -> new EvictionCandidate(e.getKey(), e.getValue(), e.getValue().lastAccess))
+                    .sorted(Comparator.comparingLong(EvictionCandidate::lastAccess))
+                    .collect(Collectors.toList());
+
+            for (EvictionCandidate candidate : candidates) {
+                if (totalWeight.get() <= target) {
+                    break;
+                }
+                if (entries.remove(candidate.postId(), candidate.entry())) {
+                    totalWeight.addAndGet(-candidate.entry().weight);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static PostDetailDTO join(CompletableFuture<PostDetailDTO> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record EvictionCandidate(Long postId, CacheEntry entry, long lastAccess) {
+    }
+
+    private static class CacheEntry {
+        private final PostDetailDTO detail;
+        private final int weight;
+        private final long expiresAt;
+        private volatile long lastAccess;
+
+        private CacheEntry(PostDetailDTO detail, long lastAccess, long expiresAt) {
+            this.detail = detail;
+            this.weight = detail.weight();
+            this.lastAccess = lastAccess;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+
+        private void touch(long accessTime) {
+            this.lastAccess = accessTime;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package capstone.cycle.post.service;
+
+import capstone.cycle.post.repository.PostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 게시글 좋아요 카운터.
+ *
+ * 평소에는 post.like_count 를 원자적으로 증감하지만, 한 게시글에 동시 쓰기가 몰리면
+ * 슬롯 수를 늘려 post_like_counter_shard 의 임의 슬롯에 나눠 쓴다 (행 잠금 경합 분산).
+ * 읽을 때는 like_count 에 슬롯 합계를 더하며, 슬롯이 있는 게시글의 합산 값은 짧게 캐시한다.
+ * 쓰기가 멈춘 게시글의 슬롯은 주기적으로 like_count 로 합친 뒤 삭제한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostLikeCounter {
+
+    private static final String UPSERT_SHARD_SQL =
+            "INSERT INTO post_like_counter_shard (post_id, shard, delta, updated_at) VALUES (?, ?, ?, NOW(6)) " +
+                    "ON DUPLICATE KEY UPDATE delta = delta + ?, updated_at = NOW(6)";
+    private static final String TOTAL_EXPRESSION =
+            "p.like_count + COALESCE((SELECT SUM(s.delta) FROM post_like_counter_shard s WHERE s.post_id = p.id), 0)";
+
+    private final PostRepository postRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // 이 서버에서 최근 좋아요가 기록된 게시글의 동시 쓰기 상태
+    private final Map<Long, WriteContention> contentions = new ConcurrentHashMap<>();
+    // 슬롯이 있는 게시글의 like_count + 슬롯 합계 캐시.
+    // 합계만 캐시하면 다른 서버가 슬롯을 like_count 로 합친 직후 새 like_count 에 옛 합계를 더해 두 번 세게 되므로,
+    // 한 쿼리로 함께 읽은 합산 값을 캐시하고 그대로 쓴다
+    private volatile Map<Long, Integer> cachedTotals = Collections.emptyMap();
+
+    @Value("${post.like-counter.sharding-enabled:true}")
+    private boolean shardingEnabled;
+
+    @Value("${post.like-counter.max-shards:64}")
+    private int maxShards;
+
+    // 슬롯당 동시 쓰기가 이 값을 넘으면 슬롯 수를 두 배로 늘린다
+    @Value("${post.like-counter.writers-per-shard:2}")
+    private int writersPerShard;
+
+    // 마지막 쓰기 이후 이 시간이 지나면 슬롯을 합친다
+    @Value("${post.like-counter.cool-down-seconds:30}")
+    private long coolDownSeconds;
+
+    public void increment(Long postId) {
+        add(postId, 1);
+    }
+
+    public void decrement(Long postId) {
+        add(postId, -1);
+    }
+
+    // 슬롯이 있는 게시글은 캐시된 합산 값 (목록처럼 약간의 지연이 허용되는 곳에서 사용)
+    public int overlay(Long postId, int likeCount) {
+        Integer total = cachedTotals.get(postId);
+        return total != null ? total : likeCount;
+    }
+
+    // 슬롯까지 바로 읽은 좋아요 수 (방금 좋아요를 누른 사용자에게 돌려줄 값)
+    public int getLikeCount(Long postId, int likeCount) {
+        WriteContention contention = contentions.get(postId);
+        boolean sharded = cachedTotals.containsKey(postId) || (contention != null && contention.shards > 1);
+        if (!sharded) {
+            return likeCount;
+        }
+
+        // like_count 와 슬롯 합계를 한 문장으로 읽어, 그 사이 합치기가 끼어들어도 같은 시점의 값이 되게 한다
+        Long total = jdbcTemplate.queryForObject(
+                "SELECT " + TOTAL_EXPRESSION + " FROM post p WHERE p.id = ?", Long.class, postId);
+        return total != null ? (int) Math.max(total, 0) : likeCount;
+    }
+
+    @Scheduled(fixedDelayString = "${post.like-counter.read-cache-ms:1000}")
+    public void refreshShardSums() {
+        Map<Long, Integer> totals = new HashMap<>();
+        jdbcTemplate.query("SELECT p.id, " + TOTAL_EXPRESSION + " AS total FROM post p " +
+                        "WHERE p.id IN (SELECT DISTINCT post_id FROM post_like_counter_shard)",
+                rs -> {
+                    totals.put(rs.getLong("id"), (int) Math.max(rs.getLong("total"), 0));
+                });
+        cachedTotals = totals;
+    }
+
+    @Scheduled(fixedDelayString = "${post.like-counter.compact-interval-ms:10000}")
+    public void compact() {
+        // 여러 서버의 쓰기를 함께 보기 위해 DB 시각 기준으로 판단
+        List<Long> coolPostIds = jdbcTemplate.queryForList(
+                "SELECT post_id FROM post_like_counter_shard GROUP BY post_id " +
+                        "HAVING MAX(updated_at) < NOW(6) - INTERVAL ? SECOND",
+                Long.class, coolDownSeconds);
+
+        for (Long postId : coolPostIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> fold(postId));
+            } catch (Exception e) {
+                log.warn("Failed to compact like counter shards. postId: {}", postId, e);
+            }
+        }
+
+        // 식은 게시글은 다시 단일 카운터부터 시작
+        long coolBeforeNanos = System.nanoTime() - coolDownSeconds * 1_000_000_000L;
+        contentions.entrySet().removeIf(entry ->
+                entry.getValue().inFlight.get() == 0 && entry.getValue().lastWriteNanos < coolBeforeNanos);
+
+        if (!coolPostIds.isEmpty()) {
+            refreshShardSums();
+        }
+    }
+
+    private void add(Long postId, int delta) {
+        WriteContention contention = contentions.computeIfAbsent(postId, id -> new WriteContention());
+        int concurrentWriters = contention.inFlight.incrementAndGet();
+        try {
+            if (shardingEnabled && concurrentWriters > contention.shards * writersPerShard) {
+                contention.grow(maxShards);
+            }
+
+            if (!shardingEnabled || contention.shards == 1) {
+                if (delta > 0) {
+                    postRepository.incrementLikeCount(postId);
+                } else {
+                    postRepository.decrementLikeCount(postId);
+                }
+                return;
+            }
+
+            int shard = ThreadLocalRandom.current().nextInt(contention.shards);
+            jdbcTemplate.update(UPSERT_SHARD_SQL, postId, shard, delta, delta);
+        } finally {
+            contention.inFlight.decrementAndGet();
+            contention.lastWriteNanos = System.nanoTime();
+        }
+    }
+
+    // 슬롯 행을 잠근 상태에서 합계를 like_count 에 더하고 삭제 (그 사이 들어온 쓰기는 커밋 후 새 행으로 기록된다)
+    private void fold(Long postId) {
+        Long shardSum = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(delta), 0) FROM post_like_counter_shard WHERE post_id = ? FOR UPDATE",
+                Long.class, postId);
+        if (shardSum != null && shardSum != 0) {
+            jdbcTemplate.update("UPDATE post SET like_count = GREATEST(like_count + ?, 0) WHERE id = ?",
+                    shardSum, postId);
+        }
+        jdbcTemplate.update("DELETE FROM post_like_counter_shard WHERE post_id = ?", postId);
+    }
+
+    private static class WriteContention {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile int shards = 1;
+        private volatile long lastWriteNanos = System.nanoTime();
+
+        private synchronized void grow(int maxShards) {
+            if (shards < maxShards) {
+                shards = Math.min(shards * 2, maxShards);
+            }
+        }
+    }
+}
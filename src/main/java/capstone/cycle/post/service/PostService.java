@@ -1,8 +1,8 @@
 package capstone.cycle.post.service;
 
 import capstone.cycle.common.security.role.UserRole;
-import capstone.cycle.file.dto.FileDTO;
-import capstone.cycle.file.dto.FileGroupDTO;
+import capstone.cycle.file.dto.StagedUploadDTO;
+import capstone.cycle.file.dto.StoredFileDTO;
 import capstone.cycle.file.entity.File;
 import capstone.cycle.file.entity.FileGroup;
 import capstone.cycle.file.error.FileErrorResult;
@@ -10,11 +10,18 @@ import capstone.cycle.file.error.FileException;
 import capstone.cycle.file.repository.FileGroupRepository;
 import capstone.cycle.file.repository.FileRepository;
 import capstone.cycle.file.service.FileService;
+import capstone.cycle.file.service.FileUrlSigner;
+import capstone.cycle.file.service.MultipartStreamReader;
+import capstone.cycle.like.dto.LikeResponseDTO;
 import capstone.cycle.like.dto.LikeStatus;
-import capstone.cycle.like.entity.Like;
 import capstone.cycle.like.repository.LikeRepository;
 import capstone.cycle.post.dto.PostCreateDTO;
+import capstone.cycle.post.dto.PostCountDTO;
+import capstone.cycle.post.dto.PostCursor;
+import capstone.cycle.post.dto.PostDetailDTO;
+import capstone.cycle.post.dto.PostInfosDTO;
 import capstone.cycle.post.dto.PostResponseDTO;
+import capstone.cycle.post.dto.PostSummaryDTO;
 import capstone.cycle.post.dto.PostUpdateDTO;
 import capstone.cycle.post.dto.SimplePostResponseDTO;
 import capstone.cycle.post.entity.Post;
@@ -22,6 +29,7 @@ import capstone.cycle.post.entity.PostCategory;
 import capstone.cycle.post.error.PostErrorResult;
 import capstone.cycle.post.error.PostException;
 import capstone.cycle.post.repository.PostRepository;
+import capstone.cycle.post.search.PostSearchIndex;
 import capstone.cycle.user.entity.User;
 import capstone.cycle.user.error.UserErrorResult;
 import capstone.cycle.user.error.UserException;
@@ -31,16 +39,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 @Service
@@ -52,13 +66,29 @@ public class PostService {
     private final UserRepository userRepository;
     private final LikeRepository likeRepository;
     private final FileService fileService;
+    private final FileUrlSigner fileUrlSigner;
     private final FileGroupRepository fileGroupRepository;
+    private final ViewCountBuffer viewCountBuffer;
+    private final PopularPostRanking popularPostRanking;
+    private final PostDetailCache postDetailCache;
+    private final PostSearchIndex postSearchIndex;
+    private final PostLikeCounter postLikeCounter;
+    private final TransactionTemplate transactionTemplate;
 
-    private static final long POPULAR_POST_LIKE_THRESHOLD = 10;
+    private static final int MAX_PAGE_SIZE = 50;
 
-
-    @Transactional
+    // 이미지는 트랜잭션 밖에서 병렬로 저장소에 기록하고, 게시글과 파일 메타데이터만 짧은 트랜잭션으로 저장
     public Long createPost(PostCreateDTO postCreateDTO, List<MultipartFile> images, Long userId) {
+        List<StoredFileDTO> storedImages = storeImages(images);
+        try {
+            return transactionTemplate.execute(status -> savePost(postCreateDTO, storedImages, userId));
+        } catch (RuntimeException e) {
+            fileService.discardStoredFiles(storedImages);
+            throw e;
+        }
+    }
+
+    private Long savePost(PostCreateDTO postCreateDTO, List<StoredFileDTO> storedImages, Long userId) {
         validatePostCreation(postCreateDTO, userId);
 
         User user = userRepository.findById(userId)
@@ -71,50 +101,156 @@ public class PostService {
                 postCreateDTO.getCategory()
         );
 
-        if (images != null && !images.isEmpty()) {
-            FileGroup fileGroup = handleImageUpload(images);
-            post = post.withContentImageGroup(fileGroup);
+        FileGroup imageGroup = storedImages.isEmpty() ? null : fileService.saveFileGroup(storedImages);
+        // 미리 올려 둔 이미지는 짧은 트랜잭션 안에서 그룹에 붙이기만 한다
+        if (hasImageTokens(postCreateDTO.getImageTokens())) {
+            imageGroup = fileService.attachStagedFiles(imageGroup, postCreateDTO.getImageTokens(), userId);
+        }
+        if (imageGroup != null) {
+            post = post.withContentImageGroup(imageGroup);
         }
 
-        return postRepository.save(post).getId();
+        Post savedPost = postRepository.save(post);
+        postSearchIndex.index(savedPost.getId(), savedPost.getTitle(), savedPost.getContent());
+        return savedPost.getId();
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public PostResponseDTO getPost(Long id, Long userId) {
-        Post post = postRepository.findById(id)
+        // 카운터는 캐시하지 않고 PK 조회로 가져오며, 게시글 존재 여부도 함께 확인
+        PostCountDTO counts = postRepository.findCountsById(id)
                 .orElseThrow(() -> new PostException(PostErrorResult.POST_NOT_EXIST));
 
-        // FileGroup의 files 정보 조회 및 설정
-        setFileGroupWithFiles(post);
+        PostDetailDTO detail = postDetailCache.get(id, this::loadPostDetail);
+
+        // 조회수는 버퍼에 누적하고 주기적으로 반영
+        viewCountBuffer.increment(id);
+        long viewCount = counts.getViewCount() + viewCountBuffer.getPendingCount(id);
 
-        incrementViewCountAsync(post);
+        int likeCount = postLikeCounter.overlay(id, counts.getLikeCount());
 
-        LikeStatus likeStatus = getLikeStatus(post.getId(), userId);
-        return new PostResponseDTO(post, likeStatus);
+        return PostResponseDTO.of(detail, viewCount, likeCount, counts.getCommentCount(), getLikeStatus(id, userId));
     }
 
     @Transactional(readOnly = true)
-    public Slice<SimplePostResponseDTO> getPostsByCategory(
+    public PostInfosDTO getPostsByCategory(
             PostCategory category,
-            Long lastPostId,
+            String cursor,
             Long userId,
             int size
     ) {
+        size = boundedSize(size);
+        PostCursor postCursor = StringUtils.hasText(cursor) ? PostCursor.decode(cursor) : null;
+
+        // 인기 게시판은 정렬 기준이 다르므로 커서 종류가 맞지 않으면 거부
+        if (postCursor != null && postCursor.isScored() != (category == PostCategory.POPULAR)) {
+            throw new PostException(PostErrorResult.INVALID_CURSOR);
+        }
+
+        if (category == PostCategory.POPULAR) {
+            return getPopularPosts(postCursor, userId, size);
+        }
+
         Pageable pageable = PageRequest.of(0, size);
-        Slice<Post> posts = fetchPosts(category, lastPostId, pageable);
+        Slice<PostSummaryDTO> posts = fetchPosts(category, postCursor, pageable);
 
-        // FileGroup의 files 정보 조회 및 설정
-        setFileGroupsWithFiles(posts.getContent());
+        return PostInfosDTO.builder()
+                .content(toSimplePostResponses(posts.getContent(), userId))
+                .hasNext(posts.hasNext())
+                .nextCursor(createNextCursor(posts))
+                .build();
+    }
 
-        return posts.map(post -> {
-            boolean isLiked = likeRepository.existsByPost_IdAndUser_Id(post.getId(), userId);
-            return SimplePostResponseDTO.fromPost(post, isLiked);
-        });
+    @Transactional(readOnly = true)
+    public PostInfosDTO getPostsByAuthor(Long authorId, String cursor, Long userId, int size) {
+        size = boundedSize(size);
+        if (!userRepository.existsById(authorId)) {
+            throw new UserException(UserErrorResult.USER_NOT_EXIST);
+        }
+
+        PostCursor postCursor = StringUtils.hasText(cursor) ? PostCursor.decode(cursor) : null;
+        if (postCursor != null && postCursor.isScored()) {
+            throw new PostException(PostErrorResult.INVALID_CURSOR);
+        }
+
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<PostSummaryDTO> posts = postCursor == null
+                ? postRepository.findFirstPageByUserId(authorId, pageable)
+                : postRepository.findByUserIdForInfiniteScroll(
+                        authorId, postCursor.getCreatedAt(), postCursor.getId(), pageable);
+
+        return PostInfosDTO.builder()
+                .content(toSimplePostResponses(posts.getContent(), userId))
+                .hasNext(posts.hasNext())
+                .nextCursor(createNextCursor(posts))
+                .build();
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
+    public PostInfosDTO searchPosts(String keyword, String cursor, Long userId, int size) {
+        size = boundedSize(size);
+        if (!StringUtils.hasText(keyword)) {
+            throw new PostException(PostErrorResult.INVALID_VALUE);
+        }
+
+        PostCursor postCursor = StringUtils.hasText(cursor) ? PostCursor.decode(cursor) : null;
+        if (postCursor != null && !postCursor.isScored()) {
+            throw new PostException(PostErrorResult.INVALID_CURSOR);
+        }
+
+        List<PostSearchIndex.SearchHit> hits = postCursor == null
+                ? postSearchIndex.search(keyword, null, null, size + 1)
+                : postSearchIndex.search(keyword, postCursor.getScore(), postCursor.getId(), size + 1);
+
+        return toScoredPage(hits, PostSearchIndex.SearchHit::getPostId, PostSearchIndex.SearchHit::getScore,
+                userId, size);
+    }
+
+    // 새 이미지는 트랜잭션 밖에서 먼저 기록하고, 게시글 수정과 파일 연결만 짧은 트랜잭션으로
     public PostResponseDTO updatePost(Long id, PostUpdateDTO postUpdateDTO,
                                       List<MultipartFile> newImages, Long userId) {
+        List<StoredFileDTO> storedImages = storeImages(newImages);
+        try {
+            return transactionTemplate.execute(status -> applyUpdate(id, postUpdateDTO, storedImages, userId));
+        } catch (RuntimeException e) {
+            fileService.discardStoredFiles(storedImages);
+            throw e;
+        }
+    }
+
+    // 게시글보다 먼저 이미지만 올려 업로드 토큰을 받는다
+    public List<StagedUploadDTO> stageImages(List<MultipartFile> images, Long userId) {
+        if (images == null || images.isEmpty()) {
+            throw new PostException(PostErrorResult.INVALID_VALUE);
+        }
+        try {
+            return fileService.stageFiles(images, "post_", userId);
+        } catch (Exception e) {
+            log.error("Failed to stage images", e);
+            throw new PostException(PostErrorResult.FILE_UPLOAD_ERROR);
+        }
+    }
+
+    // 요청 본문의 images 파트를 받는 대로 기록해 업로드 토큰을 받는다
+    public List<StagedUploadDTO> stageImages(MultipartStreamReader reader, Long userId) {
+        List<StagedUploadDTO> stagedImages;
+        try {
+            stagedImages = fileService.stageFileStream(reader, "images", "post_", userId);
+        } catch (FileException e) {
+            // 크기 초과나 형식 오류는 그대로 알린다
+            throw e;
+        } catch (Exception e) {
+            log.error("Failed to stage images", e);
+            throw new PostException(PostErrorResult.FILE_UPLOAD_ERROR);
+        }
+        if (stagedImages.isEmpty()) {
+            throw new PostException(PostErrorResult.INVALID_VALUE);
+        }
+        return stagedImages;
+    }
+
+    private PostResponseDTO applyUpdate(Long id, PostUpdateDTO postUpdateDTO,
+                                        List<StoredFileDTO> storedImages, Long userId) {
         Post post = postRepository.findByIdWithAuthor(id)
                 .orElseThrow(() -> new PostException(PostErrorResult.POST_NOT_EXIST));
 
@@ -122,12 +258,18 @@ public class PostService {
         validateAuthorization(post, user, PostErrorResult.UNAUTHORIZED_MODIFICATION);
 
         Post updatedPost = updatePostContent(post, postUpdateDTO);
-        updatedPost = updatePostImages(updatedPost, postUpdateDTO.getDeletedImageIds(), newImages);
+        updatedPost = updatePostImages(updatedPost, postUpdateDTO.getDeletedImageIds(), storedImages);
+        if (hasImageTokens(postUpdateDTO.getNewImageTokens())) {
+            updatedPost = updatedPost.withContentImageGroup(fileService.attachStagedFiles(
+                    updatedPost.getContentImageGroup(), postUpdateDTO.getNewImageTokens(), userId));
+        }
 
         Post savedPost = postRepository.save(updatedPost);
         setFileGroupWithFiles(savedPost);
+        postDetailCache.invalidate(id);
+        postSearchIndex.index(id, savedPost.getTitle(), savedPost.getContent());
 
-        return new PostResponseDTO(savedPost, getLikeStatus(savedPost.getId(), userId));
+        return new PostResponseDTO(savedPost, getLikeStatus(savedPost.getId(), userId), fileUrlSigner);
     }
 
     @Transactional
@@ -143,109 +285,135 @@ public class PostService {
         }
 
         postRepository.delete(post);
+        popularPostRanking.remove(id);
+        postDetailCache.invalidate(id);
+        postSearchIndex.remove(id);
     }
 
     @Transactional
-    public PostResponseDTO toggleLike(Long postId, Long userId) {
-        Post post = postRepository.findByIdWithLikes(postId)
-                .orElseThrow(() -> new PostException(PostErrorResult.POST_NOT_EXIST));
-
-        User user = userRepository.getReferenceById(userId);
-
-        // 현재 사용자의 좋아요 찾기
-        Optional<Like> existingLike = post.getLikes().stream()
-                .filter(like -> like.getUser().getId().equals(userId))
-                .findFirst();
+    public LikeResponseDTO toggleLike(Long postId, Long userId) {
+        // INSERT IGNORE 는 외래 키 오류도 무시하므로 게시글 존재 여부를 먼저 확인
+        if (!postRepository.existsById(postId)) {
+            throw new PostException(PostErrorResult.POST_NOT_EXIST);
+        }
 
-        Post updatedPost;
         LikeStatus likeStatus;
-
-        if (existingLike.isPresent()) {
+        if (likeRepository.deleteLike(postId, userId) > 0) {
             // 좋아요 취소
-            Like likeToRemove = existingLike.get();
-            likeRepository.delete(likeToRemove);
-            updatedPost = Post.builder()
-                    .id(post.getId())
-                    .title(post.getTitle())
-                    .content(post.getContent())
-                    .author(post.getAuthor())
-                    .contentImageGroup(post.getContentImageGroup())
-                    .createdAt(post.getCreatedAt())
-                    .updatedAt(post.getUpdatedAt())
-                    .viewCount(post.getViewCount())
-                    .category(post.getCategory())
-                    .likes(post.getLikes().stream()
-                            .filter(like -> !like.getId().equals(likeToRemove.getId()))
-                            .collect(Collectors.toList()))
-                    .build();
+            postLikeCounter.decrement(postId);
+            popularPostRanking.recordUnlike(postId);
             likeStatus = LikeStatus.UNLIKE;
         } else {
-            // 좋아요 추가
-            Like newLike = Like.createLike(post, user);
-            Like savedLike = likeRepository.save(newLike);
-            List<Like> updatedLikes = new ArrayList<>(post.getLikes());
-            updatedLikes.add(savedLike);
-            updatedPost = Post.builder()
-                    .id(post.getId())
-                    .title(post.getTitle())
-                    .content(post.getContent())
-                    .author(post.getAuthor())
-                    .contentImageGroup(post.getContentImageGroup())
-                    .createdAt(post.getCreatedAt())
-                    .updatedAt(post.getUpdatedAt())
-                    .viewCount(post.getViewCount())
-                    .category(post.getCategory())
-                    .likes(updatedLikes)
-                    .build();
+            // 좋아요 추가 (동시에 누른 다른 요청이 먼저 추가했으면 카운터는 그대로)
+            if (likeRepository.insertLike(postId, userId) > 0) {
+                postLikeCounter.increment(postId);
+                popularPostRanking.recordLike(postId);
+            }
             likeStatus = LikeStatus.LIKE;
         }
 
-        Post savedPost = postRepository.save(updatedPost);
-        return new PostResponseDTO(savedPost, likeStatus);
+        int likeCount = postRepository.findLikeCountById(postId)
+                .orElseThrow(() -> new PostException(PostErrorResult.POST_NOT_EXIST));
+        return LikeResponseDTO.of(postId, likeStatus, postLikeCounter.getLikeCount(postId, likeCount));
     }
 
-    private Slice<Post> fetchPosts(PostCategory category, Long lastPostId, Pageable pageable) {
-        if (lastPostId == null) {
-            return switch (category) {
-                case ALL -> postRepository.findFirstPage(pageable);
-                case POPULAR -> postRepository.findFirstPagePopularPosts(POPULAR_POST_LIKE_THRESHOLD, pageable);
-                default -> postRepository.findFirstPageByCategory(category, pageable);
-            };
-        } else {
-            return switch (category) {
-                case ALL -> postRepository.findAllForInfiniteScroll(lastPostId, pageable);
-                case POPULAR -> postRepository.findPopularPostsForInfiniteScroll(
-                        POPULAR_POST_LIKE_THRESHOLD,
-                        lastPostId,
-                        pageable
-                );
-                default -> postRepository.findByCategoryForInfiniteScroll(category, lastPostId, pageable);
-            };
-        }
-    }
-
-    private void setFileGroupsWithFiles(List<Post> posts) {
-        List<Long> fileGroupIds = posts.stream()
-                .map(Post::getContentImageGroup)
-                .filter(fg -> fg != null)
-                .map(FileGroup::getId)
+    private Slice<PostSummaryDTO> fetchPosts(PostCategory category, PostCursor cursor, Pageable pageable) {
+        if (cursor == null) {
+            return category == PostCategory.ALL
+                    ? postRepository.findFirstPage(pageable)
+                    : postRepository.findFirstPageByCategory(category, pageable);
+        }
+
+        return category == PostCategory.ALL
+                ? postRepository.findAllForInfiniteScroll(cursor.getCreatedAt(), cursor.getId(), pageable)
+                : postRepository.findByCategoryForInfiniteScroll(
+                        category, cursor.getCreatedAt(), cursor.getId(), pageable);
+    }
+
+    // 인기 게시판은 메모리 랭킹에서 페이지를 잘라 온 뒤 해당 게시글만 조회
+    private PostInfosDTO getPopularPosts(PostCursor cursor, Long userId, int size) {
+        List<PopularPostRanking.RankedPost> ranked = cursor == null
+                ? popularPostRanking.getPage(null, null, size + 1)
+                : popularPostRanking.getPage(cursor.getScore(), cursor.getId(), size + 1);
+
+        return toScoredPage(ranked, PopularPostRanking.RankedPost::getPostId, PopularPostRanking.RankedPost::getScore,
+                userId, size);
+    }
+
+    // 점수순으로 잘라 온 id 목록(size + 1 개)을 순서를 유지한 채 게시글 요약으로 채운다
+    private <T> PostInfosDTO toScoredPage(List<T> ranked, Function<T, Long> idOf, ToDoubleFunction<T> scoreOf,
+                                          Long userId, int size) {
+        boolean hasNext = ranked.size() > size;
+        if (hasNext) {
+            ranked = ranked.subList(0, size);
+        }
+
+        List<Long> postIds = ranked.stream()
+                .map(idOf)
+                .collect(Collectors.toList());
+        Map<Long, PostSummaryDTO> summaries = postIds.isEmpty()
+                ? Collections.emptyMap()
+                : postRepository.findSummariesByIds(postIds).stream()
+                        .collect(Collectors.toMap(PostSummaryDTO::getId, Function.identity()));
+
+        // 점수 순서를 유지하고, 그 사이 삭제된 게시글은 건너뛴다
+        List<PostSummaryDTO> posts = postIds.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
-        if (!fileGroupIds.isEmpty()) {
-            List<FileGroup> fileGroups = fileGroupRepository.findFileGroupsWithFiles(fileGroupIds);
-            Map<Long, FileGroup> fileGroupMap = fileGroups.stream()
-                    .collect(Collectors.toMap(FileGroup::getId, fg -> fg));
+        String nextCursor = null;
+        if (hasNext) {
+            T last = ranked.get(ranked.size() - 1);
+            nextCursor = PostCursor.ofScore(scoreOf.applyAsDouble(last), idOf.apply(last)).encode();
+        }
 
-            posts.forEach(post -> {
-                if (post.getContentImageGroup() != null) {
-                    FileGroup fileGroup = fileGroupMap.get(post.getContentImageGroup().getId());
-                    if (fileGroup != null) {
-                        post.withContentImageGroup(fileGroup);
-                    }
-                }
-            });
+        return PostInfosDTO.builder()
+                .content(toSimplePostResponses(posts, userId))
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private int boundedSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private String createNextCursor(Slice<PostSummaryDTO> posts) {
+        if (!posts.hasNext() || posts.getContent().isEmpty()) {
+            return null;
         }
+
+        PostSummaryDTO last = posts.getContent().get(posts.getContent().size() - 1);
+        return PostCursor.of(last.getCreatedAt(), last.getId()).encode();
     }
+
+    // 목록의 좋아요 여부를 게시글마다 조회하지 않고 한 번의 IN 쿼리로 채운다
+    private List<SimplePostResponseDTO> toSimplePostResponses(List<PostSummaryDTO> posts, Long userId) {
+        Set<Long> likedPostIds = findLikedPostIds(posts, userId);
+        return posts.stream()
+                .map(post -> SimplePostResponseDTO.from(post, likedPostIds.contains(post.getId()),
+                        postLikeCounter.overlay(post.getId(), post.getLikeCount()), fileUrlSigner))
+                .collect(Collectors.toList());
+    }
+
+    private Set<Long> findLikedPostIds(List<PostSummaryDTO> posts, Long userId) {
+        if (posts.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        List<Long> postIds = posts.stream()
+                .map(PostSummaryDTO::getId)
+                .collect(Collectors.toList());
+        return new HashSet<>(likeRepository.findLikedPostIds(userId, postIds));
+    }
+
+    private PostDetailDTO loadPostDetail(Long id) {
+        Post post = postRepository.findDetailById(id)
+                .orElseThrow(() -> new PostException(PostErrorResult.POST_NOT_EXIST));
+        return PostDetailDTO.from(post, fileUrlSigner);
+    }
+
     private void setFileGroupWithFiles(Post post) {
         if (post.getContentImageGroup() != null) {
             fileGroupRepository.findFileGroupWithFiles(post.getContentImageGroup().getId())
@@ -265,26 +433,15 @@ public class PostService {
         }
     }
 
-    private FileGroup handleImageUpload(List<MultipartFile> images) {
+    private List<StoredFileDTO> storeImages(List<MultipartFile> images) {
         try {
-            if (images == null || images.isEmpty()) {
-                return null;
-            }
-            FileGroupDTO fileGroupDTO = fileService.uploadFiles(images, "post_");
-            return fileService.getFileGroup(fileGroupDTO.getId());
+            return fileService.storeFiles(images, "post_");
         } catch (Exception e) {
             log.error("Failed to upload images", e);
             throw new PostException(PostErrorResult.FILE_UPLOAD_ERROR);
         }
     }
 
-    @Async
-    @Transactional
-    protected void incrementViewCountAsync(Post post) {
-        // 엔티티 전체를 업데이트하지 않고 조회수만 업데이트
-        postRepository.incrementViewCount(post.getId());
-    }
-
 
     private Post updatePostContent(Post post, PostUpdateDTO postUpdateDTO) {
         return post.updateContent(
@@ -294,7 +451,7 @@ public class PostService {
         );
     }
 
-    private Post updatePostImages(Post post, List<Long> deletedImageIds, List<MultipartFile> newImages) {
+    private Post updatePostImages(Post post, List<Long> deletedImageIds, List<StoredFileDTO> newImages) {
         FileGroup currentFileGroup = post.getContentImageGroup();
 
         // 1. 삭제할 이미지 처리
@@ -315,8 +472,12 @@ public class PostService {
         return deletedImageIds != null && !deletedImageIds.isEmpty();
     }
 
-    private boolean shouldAddNewImages(List<MultipartFile> newImages) {
-        return newImages != null && !newImages.isEmpty();
+    private boolean shouldAddNewImages(List<StoredFileDTO> newImages) {
+        return !newImages.isEmpty();
+    }
+
+    private boolean hasImageTokens(List<String> imageTokens) {
+        return imageTokens != null && !imageTokens.isEmpty();
     }
 
 
@@ -326,32 +487,21 @@ public class PostService {
             return post;
         }
 
-        // 삭제 대상이 아닌 이미지들만 필터링
-        List<File> remainingFiles = currentFileGroup.getFiles().stream()
-                .filter(file -> !deletedImageIds.contains(file.getId()))
-                .collect(Collectors.toList());
-
-        // 삭제할 이미지들 실제 삭제 처리
-        deletedImageIds.forEach(fileService::deleteFile);
-
-        // 남은 파일들로 FileGroup 업데이트
-        FileGroup updatedFileGroup = currentFileGroup.withFiles(remainingFiles);
-        updatedFileGroup = fileGroupRepository.save(updatedFileGroup);
-
+        // 이 게시글의 그룹에 속한 이미지만 한 번에 제거 (디스크 삭제는 커밋 후)
+        FileGroup updatedFileGroup = fileService.deleteFiles(currentFileGroup, deletedImageIds);
         return post.withContentImageGroup(updatedFileGroup);
     }
 
-    private Post handleNewImages(Post post, List<MultipartFile> newImages) {
+    private Post handleNewImages(Post post, List<StoredFileDTO> newImages) {
         FileGroup currentFileGroup = post.getContentImageGroup();
 
         if (currentFileGroup == null) {
             // 기존 FileGroup이 없는 경우 새로 생성
-            FileGroupDTO fileGroupDTO = fileService.uploadFiles(newImages, "post_");
-            FileGroup newFileGroup = fileService.getFileGroup(fileGroupDTO.getId());
+            FileGroup newFileGroup = fileService.saveFileGroup(newImages);
             return post.withContentImageGroup(newFileGroup);
         } else {
             // 기존 FileGroup이 있는 경우 파일 추가
-            List<File> newFiles = uploadNewFiles(newImages);
+            List<File> newFiles = fileService.saveFiles(newImages);
 
             // 기존 파일들과 새 파일들 합치기
             List<File> allFiles = new ArrayList<>(currentFileGroup.getFiles());
@@ -365,19 +515,6 @@ public class PostService {
         }
     }
 
-    private List<File> uploadNewFiles(List<MultipartFile> newImages) {
-        return newImages.stream()
-                .map(image -> {
-                    try {
-                        FileDTO fileDTO = fileService.uploadFile(image, "post_");
-                        return fileService.getFile(fileDTO.getId());
-                    } catch (Exception e) {
-                        throw new PostException(PostErrorResult.FILE_UPLOAD_ERROR);
-                    }
-                })
-                .collect(Collectors.toList());
-    }
-
     private void validateAuthorization(Post post, User user, PostErrorResult errorResult) {
         // 공지사항 권한 체크
         if (post.getCategory() == PostCategory.NOTICE && !isAdmin(user)) {
@@ -404,8 +541,4 @@ public class PostService {
                 ? LikeStatus.LIKE : LikeStatus.UNLIKE;
     }
 
-    /*private List<Post> getPopularPosts() {
-        return postRepository.findPopularPosts(POPULAR_POST_LIKE_THRESHOLD);
-    }*/
-
 }
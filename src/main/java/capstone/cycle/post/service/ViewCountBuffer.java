@@ -0,0 +1,130 @@
+package capstone.cycle.post.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 게시글 조회수 write-behind 버퍼.
+ * 조회 요청마다 post 행을 UPDATE 하지 않고 메모리에 누적한 뒤, 주기적으로 한 번의 배치 UPDATE 로 반영한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ViewCountBuffer {
+
+    private static final String FLUSH_SQL = "UPDATE post SET view_count = view_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskScheduler taskScheduler;
+    private final PopularPostRanking popularPostRanking;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+    // 지난 주기에 버퍼에서 떼어 낸 누산기 (떼어 내기 직전 참조를 얻은 스레드의 증가분을 다음 주기에 거둔다)
+    private Map<Long, LongAdder> retiredViews = new HashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean(false);
+
+    @Value("${post.view-count.max-buffered-keys:10000}")
+    private int maxBufferedKeys;
+
+    public void increment(Long postId) {
+        pendingViews.computeIfAbsent(postId, id -> new LongAdder()).increment();
+
+        // 버퍼가 가득 차면 주기를 기다리지 않고 스케줄러 스레드에서 바로 반영
+        // (요청 스레드는 읽기 전용 트랜잭션 안에 있으므로 여기서 직접 UPDATE 하지 않는다)
+        if (pendingViews.size() > maxBufferedKeys && earlyFlushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    // 아직 DB 에 반영되지 않은 조회수
+    public long getPendingCount(Long postId) {
+        LongAdder adder = pendingViews.get(postId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    @Scheduled(fixedDelayString = "${post.view-count.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            earlyFlushScheduled.set(false);
+            List<Object[]> batchArgs = drain();
+            if (batchArgs.isEmpty()) {
+                return;
+            }
+
+            try {
+                // 배치 전체를 한 트랜잭션으로 반영해, 실패하면 일부만 반영된 채 남지 않게 한다
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batchArgs));
+                batchArgs.forEach(args -> popularPostRanking.recordViews((Long) args[1], (Long) args[0]));
+            } catch (Exception e) {
+                // 롤백되었으므로 전부 버퍼로 되돌려 다음 주기에 재시도
+                log.error("Failed to flush view counts. posts: {}", batchArgs.size(), e);
+                batchArgs.forEach(args -> pendingViews
+                        .computeIfAbsent((Long) args[1], id -> new LongAdder())
+                        .add((Long) args[0]));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private List<Object[]> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+
+        // 지난 주기에 떼어 낸 누산기에 늦게 들어온 증가분
+        for (Map.Entry<Long, LongAdder> entry : retiredViews.entrySet()) {
+            long leftover = entry.getValue().sumThenReset();
+            if (leftover > 0) {
+                deltas.merge(entry.getKey(), leftover, Long::sum);
+            }
+        }
+        Map<Long, LongAdder> retiring = new HashMap<>();
+
+        for (Map.Entry<Long, LongAdder> entry : pendingViews.entrySet()) {
+            Long postId = entry.getKey();
+            LongAdder adder = entry.getValue();
+
+            // 셀 단위 getAndSet 이므로 동시 증가분은 이번 또는 다음 주기에 포함된다
+            long delta = adder.sumThenReset();
+            if (delta > 0) {
+                deltas.merge(postId, delta, Long::sum);
+                continue;
+            }
+
+            // 한 주기 동안 조회가 없던 게시글은 키를 제거해 버퍼 크기를 제한한다.
+            // 제거 직전에 참조를 얻은 스레드가 이 누산기에 더할 수 있으므로 버리지 않고 다음 주기에 한 번 더 거둔다
+            if (pendingViews.remove(postId, adder)) {
+                retiring.put(postId, adder);
+            }
+        }
+        retiredViews = retiring;
+
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> batchArgs.add(new Object[]{delta, postId}));
+        return batchArgs;
+    }
+}
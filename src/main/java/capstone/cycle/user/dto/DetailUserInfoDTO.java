@@ -1,5 +1,6 @@
 package capstone.cycle.user.dto;
 
+import capstone.cycle.file.service.FileUrlSigner;
 import capstone.cycle.user.entity.User;
 import lombok.*;
 
@@ -14,19 +15,19 @@ public class DetailUserInfoDTO {
     private String workAddress;
     private String homeAddress;
 
-    public static DetailUserInfoDTO from(User user) {
+    public static DetailUserInfoDTO from(User user, FileUrlSigner fileUrlSigner) {
         return DetailUserInfoDTO.builder()
                 .id(user.getId())
                 .nickname(user.getNickname())
-                .profileImageUrl(getProfileImageUrl(user))
+                .profileImageUrl(getProfileImageUrl(user, fileUrlSigner))
                 .workAddress(user.getWorkAddress().getFullAddress())
                 .homeAddress(user.getHomeAddress().getFullAddress())
                 .build();
     }
 
-    private static String getProfileImageUrl(User user) {
+    private static String getProfileImageUrl(User user, FileUrlSigner fileUrlSigner) {
         if (user.getProfileImage() != null) {
-            return "/api/files/" + user.getProfileImage().getId();
+            return fileUrlSigner.urlOf(user.getProfileImage());
         } else if (user.getSnsProfileImageUrl() != null && !user.getSnsProfileImageUrl().isEmpty()) {
             return user.getSnsProfileImageUrl();
         } else {
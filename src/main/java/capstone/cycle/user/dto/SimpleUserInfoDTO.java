@@ -1,6 +1,7 @@
 package capstone.cycle.user.dto;
 
 import capstone.cycle.file.dto.ProfileDTO;
+import capstone.cycle.file.service.FileUrlSigner;
 import capstone.cycle.user.entity.User;
 import lombok.*;
 
@@ -13,17 +14,18 @@ public class SimpleUserInfoDTO {
     private String nickname;
     private String profileImageUrl;
 
-    public static SimpleUserInfoDTO from(User user) {
+    public static SimpleUserInfoDTO from(User user, FileUrlSigner fileUrlSigner) {
         return SimpleUserInfoDTO.builder()
                 .id(user.getId())
                 .nickname(user.getNickname())
-                .profileImageUrl(getProfileImageUrl(user))
+                .profileImageUrl(getProfileImageUrl(user, fileUrlSigner))
                 .build();
     }
 
-    private static String getProfileImageUrl(User user) {
+    private static String getProfileImageUrl(User user, FileUrlSigner fileUrlSigner) {
         if (user.getProfileImage() != null) {
-            return "/api/files/" + user.getProfileImage().getId();
+            // 아바타는 작은 변형으로 내려받는다
+            return fileUrlSigner.urlOf(user.getProfileImage(), 160);
         } else if (user.getSnsProfileImageUrl() != null && !user.getSnsProfileImageUrl().isEmpty()) {
             return user.getSnsProfileImageUrl();
         } else {
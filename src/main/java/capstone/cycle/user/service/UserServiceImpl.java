@@ -7,6 +7,7 @@ import capstone.cycle.common.security.service.SecurityService;
 import capstone.cycle.file.dto.FileDTO;
 import capstone.cycle.file.entity.File;
 import capstone.cycle.file.service.FileService;
+import capstone.cycle.file.service.FileUrlSigner;
 import capstone.cycle.user.dto.*;
 import capstone.cycle.user.entity.Address;
 import capstone.cycle.user.entity.User;
@@ -36,6 +37,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final SecurityService securityService;
     private final FileService fileService;
+    private final FileUrlSigner fileUrlSigner;
     private final JwtUtil jwtUtil;
 
     @Override
@@ -140,7 +142,7 @@ public class UserServiceImpl implements UserService {
             user = user.withHomeAddress(Address.createDefaultAddress());
         }
 
-        return DetailUserInfoDTO.from(user);
+        return DetailUserInfoDTO.from(user, fileUrlSigner);
     }
 
     @Override
@@ -152,7 +154,7 @@ public class UserServiceImpl implements UserService {
 
         List<User> allUsers = userRepository.findAll();
         List<SimpleUserInfoDTO> userInfos = allUsers.stream()
-                .map(SimpleUserInfoDTO::from)
+                .map(user -> SimpleUserInfoDTO.from(user, fileUrlSigner))
                 .collect(Collectors.toList());
         return new UserInfosDTO(userInfos);
     }
@@ -0,0 +1,81 @@
+package capstone.cycle.comment.service;
+
+import capstone.cycle.comment.dto.CommentCreateDTO;
+import capstone.cycle.comment.dto.CommentResponseDTO;
+import capstone.cycle.comment.entity.Comment;
+import capstone.cycle.comment.repository.CommentLikeRepository;
+import capstone.cycle.comment.repository.CommentRepository;
+import capstone.cycle.file.entity.File;
+import capstone.cycle.file.service.FileUrlSigner;
+import capstone.cycle.post.entity.Post;
+import capstone.cycle.post.repository.PostRepository;
+import capstone.cycle.post.service.PopularPostRanking;
+import capstone.cycle.user.entity.User;
+import capstone.cycle.user.repository.UserRepository;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CommentServiceTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private CommentLikeRepository commentLikeRepository;
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PopularPostRanking popularPostRanking;
+    @Mock
+    private FileUrlSigner fileUrlSigner;
+
+    @InjectMocks
+    private CommentService commentService;
+
+    @Test
+    void 프로필_이미지가_있는_사용자가_댓글을_작성한다() {
+        // 벌크 업데이트(clearAutomatically)가 영속성 컨텍스트를 비운 뒤에는 지연 로딩 프록시를 초기화할 수 없다
+        AtomicBoolean cleared = new AtomicBoolean(false);
+        File profileImage = mock(File.class);
+        given(profileImage.getPath()).willAnswer(invocation -> {
+            if (cleared.get()) {
+                throw new LazyInitializationException("could not initialize proxy - no Session");
+            }
+            return "2026/10/avatar.jpg";
+        });
+        User user = User.builder().id(3L).nickname("작성자").profileImage(profileImage).build();
+
+        given(postRepository.findById(1L)).willReturn(Optional.of(mock(Post.class)));
+        given(userRepository.findById(3L)).willReturn(Optional.of(user));
+        given(commentRepository.save(any(Comment.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(postRepository.adjustCommentCount(1L, 1)).willAnswer(invocation -> {
+            cleared.set(true);
+            return 1;
+        });
+        given(fileUrlSigner.urlOf(any(File.class), eq(160)))
+                .willAnswer(invocation -> "/api/files/" + invocation.<File>getArgument(0).getPath());
+
+        CommentResponseDTO response = commentService.createComment(1L, 3L, CommentCreateDTO.of("첫 댓글", null));
+
+        assertThat(response.getAuthor().getProfileImageUrl()).isEqualTo("/api/files/2026/10/avatar.jpg");
+        assertThat(response.getReplies()).isEmpty();
+        verify(postRepository).adjustCommentCount(1L, 1);
+        verify(popularPostRanking).recordComment(1L);
+    }
+}
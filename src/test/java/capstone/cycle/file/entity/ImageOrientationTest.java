@@ -0,0 +1,122 @@
+package capstone.cycle.file.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageOrientationTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void EXIF_방향값을_읽는다() throws IOException {
+        for (int orientation = 1; orientation <= 8; orientation++) {
+            Path jpeg = tempDir.resolve("o" + orientation + ".jpg");
+            Files.write(jpeg, withOrientation(jpeg(400, 300), orientation));
+
+            assertThat(ImageOrientation.read(jpeg).getValue()).isEqualTo(orientation);
+        }
+    }
+
+    @Test
+    void EXIF_가_없거나_JPEG_가_아니면_그대로다() throws IOException {
+        Path plain = tempDir.resolve("plain.jpg");
+        Files.write(plain, jpeg(40, 30));
+        Path text = tempDir.resolve("text.txt");
+        Files.writeString(text, "not an image");
+
+        assertThat(ImageOrientation.read(plain).getValue()).isEqualTo(1);
+        assertThat(ImageOrientation.read(text).getValue()).isEqualTo(1);
+    }
+
+    @Test
+    void 보여_줄_방향으로_돌리고_뒤집는다() {
+        // 왼쪽 위 모서리만 빨간 400x300 이미지가 방향값마다 어느 모서리로 가는지
+        String[] expectedCorners = {"TL", "TR", "BR", "BL", "TL", "TR", "BR", "BL"};
+        for (int orientation = 1; orientation <= 8; orientation++) {
+            BufferedImage oriented = ImageOrientation.of(orientation).apply(markedImage(400, 300));
+
+            boolean quarterTurn = orientation >= 5;
+            assertThat(oriented.getWidth()).isEqualTo(quarterTurn ? 300 : 400);
+            assertThat(oriented.getHeight()).isEqualTo(quarterTurn ? 400 : 300);
+            assertThat(redCorner(oriented)).as("orientation %d", orientation)
+                    .isEqualTo(expectedCorners[orientation - 1]);
+        }
+    }
+
+    @Test
+    void 눕혀_저장된_사진은_가로세로를_바꿔_크기를_읽는다() throws IOException {
+        Path jpeg = tempDir.resolve("portrait.jpg");
+        Files.write(jpeg, withOrientation(jpeg(400, 300), 6));
+
+        ImageSize imageSize = ImageSize.read(jpeg);
+
+        assertThat(imageSize.getWidth()).isEqualTo(300);
+        assertThat(imageSize.getHeight()).isEqualTo(400);
+    }
+
+    static BufferedImage markedImage(int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width / 4, height / 4);
+        graphics.dispose();
+        return image;
+    }
+
+    static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(markedImage(width, height), "jpeg", out);
+        return out.toByteArray();
+    }
+
+    // SOI 바로 뒤에 Orientation 하나만 담은 APP1(Exif, big endian) 을 넣는다
+    static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] app1 = {
+                (byte) 0xFF, (byte) 0xE1, 0, 34,
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 0x2A, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, (byte) orientation, 0, 0,
+                0, 0, 0, 0
+        };
+        byte[] result = new byte[jpeg.length + app1.length];
+        System.arraycopy(jpeg, 0, result, 0, 2);
+        System.arraycopy(app1, 0, result, 2, app1.length);
+        System.arraycopy(jpeg, 2, result, 2 + app1.length, jpeg.length - 2);
+        return result;
+    }
+
+    static String redCorner(BufferedImage image) {
+        int right = image.getWidth() - 5;
+        int bottom = image.getHeight() - 5;
+        if (isRed(image, 4, 4)) {
+            return "TL";
+        }
+        if (isRed(image, right, 4)) {
+            return "TR";
+        }
+        if (isRed(image, 4, bottom)) {
+            return "BL";
+        }
+        return isRed(image, right, bottom) ? "BR" : "none";
+    }
+
+    private static boolean isRed(BufferedImage image, int x, int y) {
+        int rgb = image.getRGB(x, y);
+        return ((rgb >> 16) & 0xFF) > 200 && ((rgb >> 8) & 0xFF) < 80;
+    }
+}
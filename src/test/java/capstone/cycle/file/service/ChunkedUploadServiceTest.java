@@ -0,0 +1,266 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.dto.StagedUploadDTO;
+import capstone.cycle.file.dto.StoredFileDTO;
+import capstone.cycle.file.dto.UploadSessionCreateDTO;
+import capstone.cycle.file.entity.UploadSession;
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
+import capstone.cycle.file.repository.UploadSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ChunkedUploadServiceTest {
+
+    private static final int CHUNK_SIZE = 16;
+    private static final Long USER_ID = 1L;
+
+    @TempDir
+    Path tempDir;
+
+    private final UploadSessionRepository uploadSessionRepository = mock(UploadSessionRepository.class);
+    private final FileUploadPipeline fileUploadPipeline = mock(FileUploadPipeline.class);
+    private final FileService fileService = mock(FileService.class);
+    // 세션 행 (id 하나만 쓰는 테스트)
+    private final AtomicReference<UploadSession> row = new AtomicReference<>();
+    // adopt 에 넘긴 체크섬과 그 시점의 파일 내용
+    private final AtomicReference<String> adoptedChecksum = new AtomicReference<>();
+    private final AtomicReference<byte[]> adoptedContent = new AtomicReference<>();
+
+    private FileStorageLayout fileStorageLayout;
+    private ChunkedUploadService chunkedUploadService;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageLayout = new FileStorageLayout(tempDir.toString());
+        chunkedUploadService = new ChunkedUploadService(uploadSessionRepository, fileStorageLayout,
+                fileUploadPipeline, fileService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(chunkedUploadService, "chunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(chunkedUploadService, "maxSize", 1L << 20);
+        ReflectionTestUtils.setField(chunkedUploadService, "sessionTtlMinutes", 60L);
+        ReflectionTestUtils.setField(chunkedUploadService, "reclaimBatchSize", 100);
+
+        given(uploadSessionRepository.save(any(UploadSession.class))).willAnswer(invocation -> {
+            row.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        given(uploadSessionRepository.findById(anyString())).willAnswer(invocation -> Optional.ofNullable(row.get()));
+        given(uploadSessionRepository.findForUpdate(anyString())).willAnswer(invocation -> Optional.ofNullable(row.get()));
+        doAnswer(invocation -> {
+            row.set(null);
+            return null;
+        }).when(uploadSessionRepository).delete(any(UploadSession.class));
+        given(fileUploadPipeline.adopt(any(Path.class), any(), any(), any(), anyLong(), anyString()))
+                .willAnswer(invocation -> {
+                    adoptedContent.set(Files.readAllBytes(invocation.getArgument(0)));
+                    adoptedChecksum.set(invocation.getArgument(5));
+                    return StoredFileDTO.builder().checksum(invocation.getArgument(5)).build();
+                });
+        given(fileService.stageStoredFiles(anyList(), any()))
+                .willReturn(List.of(StagedUploadDTO.builder().token("token").build()));
+    }
+
+    @Test
+    void 순서대로_받은_조각은_누적한_체크섬으로_완료한다() {
+        byte[] content = bytes('a', 40);
+        String sessionId = open(content.length);
+
+        for (int index = 0; index < 3; index++) {
+            writeChunk(sessionId, index, content);
+        }
+        chunkedUploadService.complete(sessionId, null, USER_ID);
+
+        assertThat(adoptedChecksum.get()).isEqualTo(sha256(content));
+    }
+
+    @Test
+    void 같은_조각을_동시에_다시_써도_디스크_내용의_체크섬으로_저장한다() throws Exception {
+        byte[] first = bytes('x', 40);
+        byte[] second = bytes('y', 40);
+        String sessionId = open(first.length);
+
+        // 첫 번째 요청은 조각 0 의 앞 8 바이트만 쓰고 멈춘다
+        CountDownLatch paused = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        InputStream slowBody = new PausingInputStream(Arrays.copyOfRange(first, 0, CHUNK_SIZE), 8, paused, resume);
+        CompletableFuture<?> slowWrite = CompletableFuture.runAsync(() ->
+                chunkedUploadService.writeChunk(sessionId, 0, CHUNK_SIZE, slowBody, USER_ID));
+        assertThat(paused.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 그사이 같은 조각을 다른 내용으로 모두 쓰고, 첫 요청이 나머지를 쓴다 → 디스크는 y 8개 + x 8개
+        writeChunk(sessionId, 0, second);
+        resume.countDown();
+        slowWrite.get(5, TimeUnit.SECONDS);
+        writeChunk(sessionId, 1, first);
+        writeChunk(sessionId, 2, first);
+
+        chunkedUploadService.complete(sessionId, null, USER_ID);
+
+        assertThat(adoptedContent.get()).isNotEqualTo(first);
+        assertThat(adoptedChecksum.get()).isEqualTo(sha256(adoptedContent.get()));
+    }
+
+    @Test
+    void 다른_서버가_기록한_조각이_있으면_처음부터_다시_계산한다() {
+        byte[] content = bytes('a', 40);
+        String sessionId = open(content.length);
+        for (int index = 0; index < 3; index++) {
+            writeChunk(sessionId, index, content);
+        }
+
+        // 다른 서버가 조각 0 을 다시 써서 행의 기록 횟수만 늘어난 상황
+        byte[] rewritten = content.clone();
+        Arrays.fill(rewritten, 0, CHUNK_SIZE, (byte) 'z');
+        writeDirectly(sessionId, rewritten);
+        row.set(row.get().withReceivedChunk(0, row.get().getExpiresAt()));
+
+        chunkedUploadService.complete(sessionId, null, USER_ID);
+
+        assertThat(adoptedChecksum.get()).isEqualTo(sha256(rewritten));
+    }
+
+    @Test
+    void 완료_중_저장에_실패하면_세션_파일을_지운다() {
+        byte[] content = bytes('a', 16);
+        String sessionId = open(content.length);
+        writeChunk(sessionId, 0, content);
+        given(fileUploadPipeline.adopt(any(Path.class), any(), any(), any(), anyLong(), anyString()))
+                .willThrow(new FileException(FileErrorResult.UPLOAD_FAIL));
+
+        assertThatThrownBy(() -> chunkedUploadService.complete(sessionId, null, USER_ID))
+                .isInstanceOf(FileException.class);
+
+        assertThat(fileStorageLayout.chunkedUploadPath(sessionId)).doesNotExist();
+    }
+
+    @Test
+    void 형식이_잘못된_체크섬은_세션을_지우기_전에_거절한다() {
+        byte[] content = bytes('a', 16);
+        String sessionId = open(content.length);
+        writeChunk(sessionId, 0, content);
+
+        assertThatThrownBy(() -> chunkedUploadService.complete(sessionId, "not-a-sha256", USER_ID))
+                .isInstanceOf(FileException.class);
+
+        // 세션과 파일이 그대로 남아 올바른 체크섬으로 다시 완료할 수 있다
+        assertThat(row.get()).isNotNull();
+        assertThat(fileStorageLayout.chunkedUploadPath(sessionId)).exists();
+        chunkedUploadService.complete(sessionId, sha256(content), USER_ID);
+        assertThat(adoptedChecksum.get()).isEqualTo(sha256(content));
+    }
+
+    @Test
+    void 오래_쓰이지_않은_누적_체크섬은_회수한다() {
+        String sessionId = open(16);
+        writeChunk(sessionId, 0, bytes('a', 16));
+        // 다른 서버에서 완료되어 이 서버에는 항목만 남은 상황
+        row.set(null);
+        ReflectionTestUtils.setField(chunkedUploadService, "sessionTtlMinutes", 0L);
+
+        chunkedUploadService.reclaimExpired();
+
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(chunkedUploadService, "digests")).isEmpty();
+    }
+
+    private String open(long size) {
+        UploadSessionCreateDTO request = UploadSessionCreateDTO.builder()
+                .originalName("a.bin").contentType("application/octet-stream").size(size).build();
+        return chunkedUploadService.open(request, "post", USER_ID).getSessionId();
+    }
+
+    private void writeChunk(String sessionId, int index, byte[] content) {
+        int from = index * CHUNK_SIZE;
+        int to = Math.min(from + CHUNK_SIZE, content.length);
+        chunkedUploadService.writeChunk(sessionId, index, to - from,
+                new ByteArrayInputStream(Arrays.copyOfRange(content, from, to)), USER_ID);
+    }
+
+    private void writeDirectly(String sessionId, byte[] content) {
+        try {
+            Files.write(fileStorageLayout.chunkedUploadPath(sessionId), content);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytes(char value, int length) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // pauseAt 바이트를 내준 뒤 resume 될 때까지 멈추는 본문
+    private static final class PausingInputStream extends FilterInputStream {
+        private final int pauseAt;
+        private final CountDownLatch paused;
+        private final CountDownLatch resume;
+        private int position;
+
+        private PausingInputStream(byte[] content, int pauseAt, CountDownLatch paused, CountDownLatch resume) {
+            super(new ByteArrayInputStream(content));
+            this.pauseAt = pauseAt;
+            this.paused = paused;
+            this.resume = resume;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (position == pauseAt) {
+                paused.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            int limit = position < pauseAt ? Math.min(length, pauseAt - position) : length;
+            int read = super.read(bytes, offset, limit);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+    }
+}
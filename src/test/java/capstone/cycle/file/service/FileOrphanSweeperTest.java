@@ -0,0 +1,77 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.repository.FileGroupRepository;
+import capstone.cycle.file.repository.FileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class FileOrphanSweeperTest {
+
+    private static final String REFERENCED = "a".repeat(64);
+    private static final String ORPHAN = "b".repeat(64);
+
+    @TempDir
+    Path tempDir;
+
+    private final FileBlobStore fileBlobStore = mock(FileBlobStore.class);
+    private FileStorageLayout fileStorageLayout;
+    private FileOrphanSweeper fileOrphanSweeper;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageLayout = new FileStorageLayout(tempDir.toString());
+        fileOrphanSweeper = new FileOrphanSweeper(mock(FileGroupRepository.class), mock(FileRepository.class),
+                mock(FileReaper.class), fileBlobStore, fileStorageLayout, mock(ImageVariantService.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(fileOrphanSweeper, "graceMinutes", 60L);
+        ReflectionTestUtils.setField(fileOrphanSweeper, "batchSize", 100);
+        ReflectionTestUtils.setField(fileOrphanSweeper, "batchPauseMillis", 0L);
+    }
+
+    @Test
+    void 체크섬_행이_있으면_경로_표기와_관계없이_남긴다() throws IOException {
+        Path referenced = oldBlob(REFERENCED);
+        Path orphan = oldBlob(ORPHAN);
+        given(fileBlobStore.isReferenced(REFERENCED)).willReturn(true);
+        given(fileBlobStore.isReferenced(ORPHAN)).willReturn(false);
+
+        fileOrphanSweeper.sweep();
+
+        assertThat(referenced).exists();
+        assertThat(orphan).doesNotExist();
+    }
+
+    @Test
+    void 유예_시간_안의_파일은_보지_않는다() throws IOException {
+        Path recent = fileStorageLayout.blobPath(ORPHAN);
+        Files.createDirectories(recent.getParent());
+        Files.write(recent, new byte[]{1});
+
+        fileOrphanSweeper.sweep();
+
+        assertThat(recent).exists();
+    }
+
+    private Path oldBlob(String checksum) throws IOException {
+        Path path = fileStorageLayout.blobPath(checksum);
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        return path;
+    }
+}
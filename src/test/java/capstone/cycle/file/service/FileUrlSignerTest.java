@@ -0,0 +1,81 @@
+package capstone.cycle.file.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileUrlSignerTest {
+
+    private static final String JWT_SECRET = "jwt-secret-for-tests-0123456789abcdef";
+
+    @TempDir
+    Path tempDir;
+
+    private FileStorageLayout fileStorageLayout;
+    private String storedPath;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageLayout = new FileStorageLayout(tempDir.toString());
+        storedPath = fileStorageLayout.blobPath("a".repeat(64)).toString();
+    }
+
+    @Test
+    void 서명한_주소는_검증을_통과한다() {
+        FileUrlSigner signer = signer("", JWT_SECRET);
+
+        Optional<FileUrlSigner.SignedFile> verified = verify(signer, signer.sign(7L, storedPath, ".png", 480));
+
+        assertThat(verified).hasValueSatisfying(file -> {
+            assertThat(file.getFileId()).isEqualTo(7L);
+            assertThat(file.getPath()).isEqualTo(Path.of(storedPath).toAbsolutePath().normalize());
+            assertThat(file.getWidth()).isEqualTo(480);
+        });
+    }
+
+    @Test
+    void 전용_키가_없으면_JWT_키를_그대로_쓰지_않고_파생한_키로_서명한다() {
+        String url = signer("", JWT_SECRET).sign(7L, storedPath, ".png", 0);
+
+        // JWT 키 자체로 서명한 주소와 달라, JWT 키만으로는 주소를 만들 수 없다
+        assertThat(verify(signer(JWT_SECRET, JWT_SECRET), url)).isEmpty();
+        assertThat(verify(signer("", JWT_SECRET), url)).isPresent();
+    }
+
+    @Test
+    void 전용_키를_주면_그_키로_서명한다() {
+        String url = signer("dedicated-file-url-secret", JWT_SECRET).sign(7L, storedPath, ".png", 0);
+
+        assertThat(verify(signer("dedicated-file-url-secret", "other-jwt-secret"), url)).isPresent();
+        assertThat(verify(signer("", JWT_SECRET), url)).isEmpty();
+    }
+
+    @Test
+    void 다른_파일_id_로_바꾼_주소는_거부한다() {
+        FileUrlSigner signer = signer("", JWT_SECRET);
+        String url = signer.sign(7L, storedPath, ".png", 0).replace("/s/7/", "/s/8/");
+
+        assertThat(verify(signer, url)).isEmpty();
+    }
+
+    private FileUrlSigner signer(String secret, String jwtSecret) {
+        return new FileUrlSigner(fileStorageLayout, secret, jwtSecret, 86400, 3600, new SimpleMeterRegistry());
+    }
+
+    // /api/files/s/{fileId}/{name}?w=&exp=&sig= 를 나눠 검증한다
+    private Optional<FileUrlSigner.SignedFile> verify(FileUrlSigner signer, String url) {
+        UriComponents uri = UriComponentsBuilder.fromUriString(url).build();
+        String[] segments = uri.getPath().split("/");
+        String width = uri.getQueryParams().getFirst("w");
+        return signer.verify(Long.valueOf(segments[4]), segments[5], width != null ? Integer.valueOf(width) : null,
+                Long.parseLong(uri.getQueryParams().getFirst("exp")), uri.getQueryParams().getFirst("sig"));
+    }
+}
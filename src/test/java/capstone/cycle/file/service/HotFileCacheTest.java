@@ -0,0 +1,115 @@
+package capstone.cycle.file.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotFileCacheTest {
+
+    private static final long MAX_BYTES = 64 * 1024;
+    private static final int FILE_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HotFileCache hotFileCache;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        hotFileCache = new HotFileCache(true, MAX_BYTES, 4096, 600, meterRegistry);
+        file = tempDir.resolve("file");
+        Files.write(file, new byte[FILE_SIZE]);
+    }
+
+    @Test
+    void 올린_파일은_다음_요청에서_적중한다() {
+        hotFileCache.get(1L, 0);
+        hotFileCache.admit(1L, 0, file, FILE_SIZE, "\"etag\"", "image/png", "a.png");
+
+        assertThat(hotFileCache.get(1L, 0)).hasValueSatisfying(cached -> {
+            assertThat(cached.getEtag()).isEqualTo("\"etag\"");
+            assertThat(cached.size()).isEqualTo(FILE_SIZE);
+        });
+    }
+
+    @Test
+    void 무효화하면_원본과_모든_변형을_비운다() {
+        hotFileCache.admit(1L, 0, file, FILE_SIZE, "\"a\"", "image/png", "a.png");
+        hotFileCache.admit(1L, 160, file, FILE_SIZE, "\"a-w160\"", "image/jpeg", "a.png");
+        hotFileCache.admit(2L, 0, file, FILE_SIZE, "\"b\"", "image/png", "b.png");
+
+        hotFileCache.invalidate(List.of(1L));
+
+        assertThat(hotFileCache.get(1L, 0)).isEmpty();
+        assertThat(hotFileCache.get(1L, 160)).isEmpty();
+        assertThat(hotFileCache.get(2L, 0)).isPresent();
+        assertThat(residentBytes()).isEqualTo(FILE_SIZE);
+    }
+
+    @Test
+    void 동시에_조회_적재_무효화가_겹쳐도_예산과_크기_집계가_맞는다() throws Exception {
+        int threads = 8;
+        int operationsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        long fileId = random.nextInt(256);
+                        int width = random.nextBoolean() ? 0 : 160;
+                        int operation = random.nextInt(100);
+                        if (operation < 80) {
+                            if (hotFileCache.get(fileId, width).isEmpty()) {
+                                hotFileCache.admit(fileId, width, file, FILE_SIZE, "\"" + fileId + "\"", null, "f");
+                            }
+                        } else if (operation < 82) {
+                            hotFileCache.invalidate(List.of(fileId));
+                        } else {
+                            hotFileCache.get(fileId, width);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long cachedBytes = 0;
+        for (long fileId = 0; fileId < 256; fileId++) {
+            for (int width : new int[]{0, 160}) {
+                cachedBytes += hotFileCache.get(fileId, width).map(HotFileCache.CachedFile::size).orElse(0L);
+            }
+        }
+        assertThat(residentBytes()).isEqualTo(cachedBytes).isLessThanOrEqualTo(MAX_BYTES);
+    }
+
+    private long residentBytes() {
+        return (long) meterRegistry.get("file.hot-cache.bytes").gauge().value();
+    }
+}
@@ -0,0 +1,144 @@
+package capstone.cycle.file.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantServiceTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantServiceTest.class);
+
+    @TempDir
+    Path tempDir;
+
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        imageVariantService = new ImageVariantService(new FileStorageLayout(tempDir.toString()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(imageVariantService, "widths", new int[]{160, 480, 1080});
+        ReflectionTestUtils.setField(imageVariantService, "jpegQuality", 0.82f);
+        ReflectionTestUtils.setField(imageVariantService, "threads", 1);
+        ReflectionTestUtils.setField(imageVariantService, "queueCapacity", 8);
+        ReflectionTestUtils.setField(imageVariantService, "maxSourcePixels", 50_000_000L);
+        imageVariantService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageVariantService.stop();
+    }
+
+    @Test
+    void 눕혀_저장된_사진의_변형은_세워서_만든다() throws IOException {
+        // 4000x3000 으로 저장되고 90도 돌려 보여 줄 (Orientation 6) 휴대폰 사진
+        Path source = tempDir.resolve("photo.jpg");
+        Files.write(source, withOrientation6(jpeg(4000, 3000)));
+        Path variant = imageVariantService.variantPath(source, 480);
+
+        imageVariantService.generate(source, variant, 480);
+
+        BufferedImage generated = ImageIO.read(variant.toFile());
+        assertThat(generated.getWidth()).isEqualTo(480);
+        assertThat(generated.getHeight()).isEqualTo(640);
+        // 왼쪽 위의 표시가 시계 방향으로 돌아 오른쪽 위에 있어야 한다
+        int rgb = generated.getRGB(generated.getWidth() - 10, 10);
+        assertThat((rgb >> 16) & 0xFF).isGreaterThan(200);
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.map(path -> path.getFileName().toString())).noneMatch(name -> name.endsWith(".part"));
+        }
+    }
+
+    @Test
+    void 큰_사진은_필요한_너비에_맞춰_줄여서_디코딩한다() throws IOException {
+        Path source = tempDir.resolve("large.jpg");
+        Files.write(source, jpeg(4000, 3000));
+
+        BufferedImage decoded = imageVariantService.decode(source, 480);
+
+        assertThat(decoded.getWidth()).isBetween(960, 4000 / 4 * 2);
+    }
+
+    // 기본 test 작업에서는 빠지고 ./gradlew benchmark 로만 실행된다
+    @Test
+    @Tag("benchmark")
+    void 디코딩과_축소_시간을_잰다() throws IOException {
+        Path source = tempDir.resolve("large.jpg");
+        Files.write(source, jpeg(4000, 3000));
+
+        int iterations = 5;
+        // 한 번은 데우기
+        imageVariantService.decode(source, 480);
+        ImageIO.read(source.toFile());
+
+        long subsampledNanos = 0;
+        long fullNanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long startedAt = System.nanoTime();
+            imageVariantService.decode(source, 480);
+            subsampledNanos += System.nanoTime() - startedAt;
+
+            startedAt = System.nanoTime();
+            ImageIO.read(source.toFile());
+            fullNanos += System.nanoTime() - startedAt;
+        }
+
+        long generateStartedAt = System.nanoTime();
+        for (int width : new int[]{160, 480, 1080}) {
+            imageVariantService.generate(source, imageVariantService.variantPath(source, width), width);
+        }
+        long generateNanos = System.nanoTime() - generateStartedAt;
+
+        log.info("decode 4000x3000 for 480w: subsampled {} ms, full {} ms; 3 variants {} ms",
+                subsampledNanos / 1_000_000 / iterations, fullNanos / 1_000_000 / iterations,
+                generateNanos / 1_000_000);
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width / 4, height / 4);
+        graphics.dispose();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] withOrientation6(byte[] jpeg) {
+        byte[] app1 = {
+                (byte) 0xFF, (byte) 0xE1, 0, 34,
+                'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 0x2A, 0, 0, 0, 8,
+                0, 1,
+                0x01, 0x12, 0, 3, 0, 0, 0, 1, 0, 6, 0, 0,
+                0, 0, 0, 0
+        };
+        byte[] result = new byte[jpeg.length + app1.length];
+        System.arraycopy(jpeg, 0, result, 0, 2);
+        System.arraycopy(app1, 0, result, 2, app1.length);
+        System.arraycopy(jpeg, 2, result, 2 + app1.length, jpeg.length - 2);
+        return result;
+    }
+}
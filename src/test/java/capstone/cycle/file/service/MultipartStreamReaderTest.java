@@ -0,0 +1,257 @@
+package capstone.cycle.file.service;
+
+import capstone.cycle.file.error.FileErrorResult;
+import capstone.cycle.file.error.FileException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultipartStreamReaderTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MultipartStreamReaderTest.class);
+
+    private static final String BOUNDARY = "----boundary7MA4YWxkTrZu0gW";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    @Test
+    void 파트의_이름과_파일명과_본문을_순서대로_읽는다() throws IOException {
+        byte[] image = randomBytes(200_000);
+        byte[] body = new MultipartBody()
+                .field("title", "제목")
+                .file("images", "a.png", "image/png", image)
+                .build();
+
+        MultipartStreamReader reader = MultipartStreamReader.of(CONTENT_TYPE, new ByteArrayInputStream(body),
+                UNLIMITED, UNLIMITED);
+
+        MultipartStreamReader.Part field = reader.next();
+        assertThat(field.getName()).isEqualTo("title");
+        assertThat(field.isFile()).isFalse();
+        assertThat(new String(field.getBody().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("제목");
+
+        MultipartStreamReader.Part file = reader.next();
+        assertThat(file.getName()).isEqualTo("images");
+        assertThat(file.getFilename()).isEqualTo("a.png");
+        assertThat(file.getContentType()).isEqualTo("image/png");
+        assertThat(file.getBody().readAllBytes()).isEqualTo(image);
+
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void 조금씩_도착해도_경계에_걸친_본문을_그대로_돌려준다() throws IOException {
+        // 본문 안에 경계 문자열의 앞부분이 여러 번 나온다
+        byte[] tricky = ("\r\n--" + BOUNDARY.substring(0, 10) + "x\r\n-\r\n--").repeat(50)
+                .getBytes(StandardCharsets.ISO_8859_1);
+        byte[] body = new MultipartBody()
+                .file("images", "a.bin", "application/octet-stream", tricky)
+                .file("images", "b.bin", "application/octet-stream", new byte[0])
+                .build();
+
+        MultipartStreamReader reader = MultipartStreamReader.of(CONTENT_TYPE, new TrickleInputStream(body),
+                UNLIMITED, UNLIMITED);
+
+        assertThat(reader.next().getBody().readAllBytes()).isEqualTo(tricky);
+        assertThat(reader.next().getBody().readAllBytes()).isEmpty();
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void 읽지_않은_파트는_건너뛴다() throws IOException {
+        byte[] body = new MultipartBody()
+                .file("other", "skip.bin", "application/octet-stream", randomBytes(100_000))
+                .file("images", "a.png", "image/png", new byte[]{1, 2, 3})
+                .build();
+
+        MultipartStreamReader reader = MultipartStreamReader.of(CONTENT_TYPE, new ByteArrayInputStream(body),
+                UNLIMITED, UNLIMITED);
+        reader.next();
+
+        assertThat(reader.next().getBody().readAllBytes()).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void 건너뛰는_파트도_파트_크기_한도를_넘으면_거절한다() throws IOException {
+        byte[] body = new MultipartBody()
+                .field("note", "a".repeat(5_000))
+                .file("images", "a.png", "image/png", new byte[]{1})
+                .build();
+
+        MultipartStreamReader reader = MultipartStreamReader.of(CONTENT_TYPE, new ByteArrayInputStream(body),
+                UNLIMITED, 1_000);
+        reader.next();
+
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(MultipartStreamReader.LimitExceededException.class)
+                .extracting("errorResult").isEqualTo(FileErrorResult.FILE_TOO_LARGE);
+    }
+
+    @Test
+    void 요청_전체가_한도를_넘으면_읽는_도중에_거절한다() throws IOException {
+        byte[] body = new MultipartBody()
+                .file("images", "a.png", "image/png", randomBytes(300_000))
+                .build();
+
+        MultipartStreamReader reader = MultipartStreamReader.of(CONTENT_TYPE, new ByteArrayInputStream(body),
+                100_000, UNLIMITED);
+        InputStream part = reader.next().getBody();
+
+        assertThatThrownBy(part::readAllBytes)
+                .isInstanceOf(MultipartStreamReader.LimitExceededException.class)
+                .extracting("errorResult").isEqualTo(FileErrorResult.REQUEST_TOO_LARGE);
+    }
+
+    @Test
+    void multipart_가_아니거나_경계가_없으면_거절한다() {
+        InputStream empty = new ByteArrayInputStream(new byte[0]);
+
+        assertThatThrownBy(() -> MultipartStreamReader.of("application/json", empty, UNLIMITED, UNLIMITED))
+                .isInstanceOf(FileException.class);
+        assertThatThrownBy(() -> MultipartStreamReader.of("multipart/form-data", empty, UNLIMITED, UNLIMITED))
+                .isInstanceOf(FileException.class);
+    }
+
+    @Test
+    void 본문을_한_번만_지나가며_읽는다() throws IOException {
+        // 파트마다 읽기 버퍼(64KB)를 여러 번 채우는 크기
+        byte[] body = multipartOf(4, 300_000);
+
+        CountingInputStream source = new CountingInputStream(new ByteArrayInputStream(body));
+        CountingOutputStream sink = new CountingOutputStream();
+        readAll(source, sink);
+
+        // 원본 스트림은 정확히 한 번 읽고, 파트 본문은 모두 그대로 넘겨준다 (임시 파일이나 추가 버퍼링 없음)
+        assertThat(source.bytes).isEqualTo(body.length);
+        assertThat(sink.bytes).isEqualTo(4L * 300_000);
+    }
+
+    // 기본 test 작업에서는 빠지고 ./gradlew benchmark 로만 실행된다
+    @Test
+    @Tag("benchmark")
+    void 큰_본문을_읽는_처리량을_잰다() throws IOException {
+        int parts = 8;
+        int partSize = 8 * 1024 * 1024;
+        byte[] body = multipartOf(parts, partSize);
+
+        // 워밍업 한 번 뒤 측정
+        readAll(new ByteArrayInputStream(body), OutputStream.nullOutputStream());
+        CountingInputStream source = new CountingInputStream(new ByteArrayInputStream(body));
+        long startedAt = System.nanoTime();
+        readAll(source, OutputStream.nullOutputStream());
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        long payload = (long) parts * partSize;
+        log.info("multipart stream: {} MB payload, {} MB/s, {} source reads",
+                payload >> 20, payload * 1_000 / Math.max(elapsedNanos, 1), source.reads);
+    }
+
+    private static byte[] multipartOf(int parts, int partSize) {
+        MultipartBody builder = new MultipartBody();
+        for (int i = 0; i < parts; i++) {
+            builder.file("images", i + ".jpg", "image/jpeg", randomBytes(partSize));
+        }
+        return builder.build();
+    }
+
+    private static void readAll(InputStream source, OutputStream sink) throws IOException {
+        MultipartStreamReader reader = MultipartStreamReader.of(CONTENT_TYPE, source, UNLIMITED, UNLIMITED);
+        MultipartStreamReader.Part part;
+        while ((part = reader.next()) != null) {
+            part.getBody().transferTo(sink);
+        }
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static final class MultipartBody {
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        MultipartBody field(String name, String value) {
+            return part("Content-Disposition: form-data; name=\"" + name + "\"\r\n",
+                    value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        MultipartBody file(String name, String filename, String contentType, byte[] content) {
+            return part("Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+                    + "Content-Type: " + contentType + "\r\n", content);
+        }
+
+        private MultipartBody part(String headers, byte[] content) {
+            out.writeBytes(("--" + BOUNDARY + "\r\n" + headers + "\r\n").getBytes(StandardCharsets.UTF_8));
+            out.writeBytes(content);
+            out.writeBytes("\r\n".getBytes(StandardCharsets.ISO_8859_1));
+            return this;
+        }
+
+        byte[] build() {
+            out.writeBytes(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            return out.toByteArray();
+        }
+    }
+
+    // 한 번에 1~7 바이트씩만 내주는 스트림 (느린 네트워크)
+    private static final class TrickleInputStream extends FilterInputStream {
+        private int next = 1;
+
+        private TrickleInputStream(byte[] content) {
+            super(new ByteArrayInputStream(content));
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            next = next % 7 + 1;
+            return super.read(b, off, Math.min(len, next));
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long bytes;
+        private long reads;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            reads++;
+            if (read > 0) {
+                bytes += read;
+            }
+            return read;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package capstone.cycle.post.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BigramTokenizerTest {
+
+    @Test
+    void 색인할_때는_한글_bigram_과_글자를_함께_넣는다() {
+        assertThat(BigramTokenizer.tokenize("자전거 Ride"))
+                .containsExactly("자전", "전거", "자", "전", "거", "ride");
+    }
+
+    @Test
+    void 검색어는_두_글자_이상이면_bigram_만_쓴다() {
+        assertThat(BigramTokenizer.tokenizeQuery("자전거")).containsExactly("자전", "전거");
+        assertThat(BigramTokenizer.tokenizeQuery("길")).containsExactly("길");
+    }
+
+    @Test
+    void 한_글자_검색어도_색인된_글자와_일치한다() {
+        PostDocument document = PostDocument.of("한강 라이딩", "주말에 길을 달렸다");
+
+        for (String token : BigramTokenizer.tokenizeQuery("길")) {
+            assertThat(document.frequency(token)).isNotNull();
+        }
+    }
+
+    @Test
+    void 긴_단어는_앞부분만_남긴다() {
+        String longWord = "a".repeat(100_000);
+
+        assertThat(BigramTokenizer.tokenize(longWord))
+                .singleElement()
+                .satisfies(token -> assertThat(token).hasSize(BigramTokenizer.MAX_TOKEN_LENGTH));
+    }
+}
@@ -0,0 +1,32 @@
+package capstone.cycle.post.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexSegmentTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void 세그먼트를_기록하고_다시_읽으면_포스팅이_같다() throws Exception {
+        IndexSegment.Builder builder = new IndexSegment.Builder();
+        builder.add(1, PostDocument.of("자전거 수리", "체인 교체"), LocalDateTime.of(2024, 5, 1, 12, 0));
+        builder.add(2, PostDocument.of("자전거 여행", "한강 길"), LocalDateTime.of(2024, 5, 2, 12, 0));
+        IndexSegment segment = builder.build();
+
+        Path file = tempDir.resolve("segment.bin");
+        segment.writeTo(file);
+        IndexSegment loaded = IndexSegment.readFrom(file);
+
+        assertThat(loaded.docIds()).containsExactly(1, 2);
+        assertThat(loaded.watermark()).isEqualTo(LocalDateTime.of(2024, 5, 2, 12, 0));
+        assertThat(loaded.postings("자전").size()).isEqualTo(2);
+        assertThat(loaded.postings("길").size()).isEqualTo(1);
+    }
+}
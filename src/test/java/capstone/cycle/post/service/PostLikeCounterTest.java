@@ -0,0 +1,88 @@
+package capstone.cycle.post.service;
+
+import capstone.cycle.post.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class PostLikeCounterTest {
+
+    // post 행 잠금을 흉내 낸다 (UPDATE 하나가 잠금을 잡는 동안 같은 게시글의 다른 쓰기는 기다린다)
+    private final ReentrantLock postRowLock = new ReentrantLock();
+    private final AtomicLong rowLikes = new AtomicLong();
+    private final AtomicLong shardLikes = new AtomicLong();
+    private final AtomicLong shardWrites = new AtomicLong();
+
+    @Test
+    void 한_게시글에_좋아요가_몰리면_슬롯으로_나눠_쓰고_합계는_그대로다() throws Exception {
+        PostRepository postRepository = mock(PostRepository.class);
+        given(postRepository.incrementLikeCount(anyLong())).willAnswer(invocation -> {
+            postRowLock.lock();
+            try {
+                Thread.sleep(1);
+                rowLikes.incrementAndGet();
+            } finally {
+                postRowLock.unlock();
+            }
+            return 1;
+        });
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public int update(String sql, Object... args) {
+                // 슬롯 행은 서로 다른 행이므로 잠금 경합 없이 기록된다
+                shardLikes.addAndGet(((Number) args[2]).longValue());
+                shardWrites.incrementAndGet();
+                return 1;
+            }
+        };
+
+        PostLikeCounter postLikeCounter = new PostLikeCounter(postRepository, jdbcTemplate, mock(TransactionTemplate.class));
+        ReflectionTestUtils.setField(postLikeCounter, "shardingEnabled", true);
+        ReflectionTestUtils.setField(postLikeCounter, "maxShards", 64);
+        ReflectionTestUtils.setField(postLikeCounter, "writersPerShard", 2);
+
+        int threads = 32;
+        int likesPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < likesPerThread; i++) {
+                        postLikeCounter.increment(1L);
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rowLikes.get() + shardLikes.get()).isEqualTo((long) threads * likesPerThread);
+        // 경합이 생기면 대부분의 쓰기가 행 잠금을 피해 슬롯으로 간다
+        assertThat(shardWrites.get()).isGreaterThan(rowLikes.get());
+    }
+}
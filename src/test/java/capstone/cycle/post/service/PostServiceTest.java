@@ -0,0 +1,111 @@
+package capstone.cycle.post.service;
+
+import capstone.cycle.file.repository.FileGroupRepository;
+import capstone.cycle.file.service.FileService;
+import capstone.cycle.file.service.FileUrlSigner;
+import capstone.cycle.like.repository.LikeRepository;
+import capstone.cycle.post.dto.PostInfosDTO;
+import capstone.cycle.post.dto.PostSummaryDTO;
+import capstone.cycle.post.dto.SimplePostResponseDTO;
+import capstone.cycle.post.entity.PostCategory;
+import capstone.cycle.post.repository.PostRepository;
+import capstone.cycle.post.search.PostSearchIndex;
+import capstone.cycle.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class PostServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private LikeRepository likeRepository;
+    @Mock
+    private FileService fileService;
+    @Mock
+    private FileUrlSigner fileUrlSigner;
+    @Mock
+    private FileGroupRepository fileGroupRepository;
+    @Mock
+    private ViewCountBuffer viewCountBuffer;
+    @Mock
+    private PopularPostRanking popularPostRanking;
+    @Mock
+    private PostDetailCache postDetailCache;
+    @Mock
+    private PostSearchIndex postSearchIndex;
+    @Mock
+    private PostLikeCounter postLikeCounter;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private PostService postService;
+
+    @Test
+    void 피드_한_페이지의_좋아요_여부는_한_번의_쿼리로_조회한다() {
+        List<PostSummaryDTO> page = LongStream.rangeClosed(1, 20)
+                .mapToObj(PostServiceTest::summary)
+                .toList();
+        given(postRepository.findFirstPage(any())).willReturn(new SliceImpl<>(page, PageRequest.of(0, 20), true));
+        given(likeRepository.findLikedPostIds(eq(7L), anyCollection())).willReturn(List.of(2L, 5L));
+
+        PostInfosDTO result = postService.getPostsByCategory(PostCategory.ALL, null, 7L, 20);
+
+        verify(likeRepository, times(1)).findLikedPostIds(eq(7L), anyCollection());
+        verifyNoMoreInteractions(likeRepository);
+        assertThat(result.getContent()).hasSize(20);
+        assertThat(result.getContent())
+                .filteredOn(SimplePostResponseDTO::isLiked)
+                .extracting(SimplePostResponseDTO::getId)
+                .containsExactly(2L, 5L);
+    }
+
+    @Test
+    void 빈_페이지는_좋아요_여부를_조회하지_않는다() {
+        given(postRepository.findFirstPage(any())).willReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 20), false));
+
+        PostInfosDTO result = postService.getPostsByCategory(PostCategory.ALL, null, 7L, 20);
+
+        verifyNoInteractions(likeRepository);
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void 페이지_크기는_최대값으로_제한한다() {
+        given(popularPostRanking.getPage(null, null, 51)).willReturn(List.of());
+
+        postService.getPostsByCategory(PostCategory.POPULAR, null, 7L, Integer.MAX_VALUE);
+
+        verify(popularPostRanking).getPage(null, null, 51);
+    }
+
+    private static PostSummaryDTO summary(long id) {
+        return new PostSummaryDTO(id, "title" + id, PostCategory.FREE_BOARD, 0L, 0, 0,
+                LocalDateTime.now().minusMinutes(id), "author", null, null, null, null, null);
+    }
+}
@@ -0,0 +1,118 @@
+package capstone.cycle.post.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class ViewCountBufferTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    // DB 에 반영된 조회수 (게시글 id -> 누적)
+    private final Map<Long, Long> flushed = new ConcurrentHashMap<>();
+    private ViewCountBuffer viewCountBuffer;
+
+    @BeforeEach
+    void setUp() {
+        viewCountBuffer = new ViewCountBuffer(jdbcTemplate, mock(TaskScheduler.class), mock(PopularPostRanking.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(viewCountBuffer, "maxBufferedKeys", 10_000);
+        given(jdbcTemplate.batchUpdate(anyString(), anyList())).willAnswer(invocation -> {
+            List<Object[]> batchArgs = invocation.getArgument(1);
+            batchArgs.forEach(args -> flushed.merge((Long) args[1], (Long) args[0], Long::sum));
+            return new int[batchArgs.size()];
+        });
+    }
+
+    @Test
+    void 동시_증가와_반영이_겹쳐도_조회수를_잃지_않는다() throws Exception {
+        int threads = 8;
+        int incrementsPerThread = 200_000;
+        // 게시글 수가 적어야 같은 키에 대한 증가와 빈 키 제거가 자주 겹친다
+        int posts = 4;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            List<Future<?>> incrementers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                incrementers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < incrementsPerThread; i++) {
+                        viewCountBuffer.increment((long) ((i + offset) % posts));
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                while (running.get()) {
+                    viewCountBuffer.flush();
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> incrementer : incrementers) {
+                incrementer.get(60, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            flusher.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 남은 값과 떼어 낸 누산기의 늦은 증가분까지 반영
+        viewCountBuffer.flush();
+        viewCountBuffer.flush();
+
+        long total = flushed.values().stream().mapToLong(Long::longValue).sum();
+        assertThat(total).isEqualTo((long) threads * incrementsPerThread);
+    }
+
+    @Test
+    void 반영에_실패하면_다음_주기에_한_번만_다시_반영한다() {
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(2L);
+
+        given(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .willThrow(new DataAccessResourceFailureException("down"))
+                .willAnswer(invocation -> {
+                    List<Object[]> batchArgs = invocation.getArgument(1);
+                    batchArgs.forEach(args -> flushed.merge((Long) args[1], (Long) args[0], Long::sum));
+                    return new int[batchArgs.size()];
+                });
+
+        viewCountBuffer.flush();
+        assertThat(flushed).isEmpty();
+        assertThat(viewCountBuffer.getPendingCount(1L)).isEqualTo(2L);
+
+        viewCountBuffer.flush();
+        viewCountBuffer.flush();
+        assertThat(flushed).containsEntry(1L, 2L).containsEntry(2L, 1L);
+    }
+}